@@ -0,0 +1,126 @@
+package com.auca.library.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.LibraryBookingApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Application context backed by an embedded Postgres, shared by every
+ * benchmark in a fork. Flyway builds the schema and SyntheticDataGenerator
+ * fills it: students, seats and rooms at both locations, library hours and a
+ * year of seat and room bookings up to a week ahead.
+ *
+ * Synthetic bookings start at 08:00 or later, so the 07:00-08:00 slot of
+ * every seat stays free for the booking benchmark's own user.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    public static final String BENCHMARK_USER_EMAIL = "benchmark@auca.test";
+
+    @Param("500")
+    public int users;
+
+    @Param("1000")
+    public int seatsPerLocation;
+
+    @Param("20")
+    public int roomsPerLocation;
+
+    @Param("52")
+    public int weeks;
+
+    @Param("0.6")
+    public double occupancy;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private List<Long> seatIds;
+    private List<Long> roomIds;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        // Arguments, unlike builder default properties, take precedence over application.properties
+        context = new SpringApplicationBuilder(LibraryBookingApplication.class)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--server.port=0",
+                        "--mail.dispatch.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.profiles.active=synthetic",
+                        // Nothing signs in as the synthetic students here
+                        "--synthetic-data.password=" + UUID.randomUUID(),
+                        "--synthetic-data.users=" + users,
+                        "--synthetic-data.seats-per-location=" + seatsPerLocation,
+                        "--synthetic-data.rooms-per-location=" + roomsPerLocation,
+                        "--synthetic-data.semester-weeks=" + weeks,
+                        "--synthetic-data.seat-occupancy=" + occupancy);
+
+        // The no-show and completion sweeps would rewrite booking statuses mid-measurement
+        context.getBean(ScheduledAnnotationBeanPostProcessor.class).destroy();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO users (created_at, full_name, email, password, location, email_verified,
+                                   must_change_password, active_this_week, active_today,
+                                   is_default_librarian, professor_approved)
+                VALUES (now(), 'Benchmark User', ?, 'not-a-hash', 'GISHUSHU', true, false, false, false, false, false)
+                """, BENCHMARK_USER_EMAIL);
+        seatIds = jdbcTemplate.queryForList(
+                "SELECT id FROM seats WHERE seat_number LIKE 'SYN-%' AND is_disabled = false ORDER BY id", Long.class);
+        roomIds = jdbcTemplate.queryForList(
+                "SELECT id FROM rooms WHERE room_number LIKE 'SYN-%' ORDER BY id", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Transactions for the benchmarked calls; in the running app the request's
+     * open session plays this part for the non-transactional service methods
+     */
+    public TransactionTemplate transactionTemplate(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    public List<Long> getSeatIds() {
+        return seatIds;
+    }
+
+    public List<Long> getRoomIds() {
+        return roomIds;
+    }
+}
@@ -0,0 +1,84 @@
+package com.auca.library.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.request.CreateBookingRequest;
+import com.auca.library.dto.response.BookingDTO;
+import com.auca.library.service.BookingService;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * BookingService.createBooking: user and seat lookup, schedule, weekly window
+ * and overlap validation, then the insert. Each call books the 07:00-08:00
+ * slot of the next seat tomorrow and is rolled back, so the database does
+ * not drift between iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingCreationBenchmark {
+
+    private BookingService bookingService;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> seatIds;
+    private CreateBookingRequest request;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        bookingService = database.getBean(BookingService.class);
+        transactionTemplate = database.transactionTemplate(false);
+        seatIds = database.getSeatIds();
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        request = new CreateBookingRequest();
+        request.setStartTime(tomorrow.atTime(LocalTime.of(7, 0)));
+        request.setEndTime(tomorrow.atTime(LocalTime.of(8, 0)));
+
+        // Setup runs on the benchmark thread, where createBooking reads the current user
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                BenchmarkDatabase.BENCHMARK_USER_EMAIL, null, Collections.emptyList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public BookingDTO createBooking() {
+        request.setSeatId(seatIds.get(next++ % seatIds.size()));
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            try {
+                return bookingService.createBooking(request);
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.auca.library.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.model.Notification;
+import com.auca.library.repository.NotificationRepository;
+import com.auca.library.repository.UserRepository;
+import com.auca.library.service.NotificationService;
+import com.auca.library.util.NotificationConstants;
+
+/**
+ * Notification inserts for many recipients. fanOut calls
+ * NotificationService.addNotification per recipient, as the library-wide
+ * announcements do, which also looks up and trims each recipient's
+ * notifications; batchedInsert saves the same rows with saveAll, the path
+ * pooled sequence ids turn into JDBC batches. Both are rolled back so the
+ * table does not grow between iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class NotificationInsertBenchmark {
+
+    @Param({"100", "500"})
+    public int recipients;
+
+    private NotificationService notificationService;
+    private NotificationRepository notificationRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> userIds;
+    private List<String> emails;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        notificationService = database.getBean(NotificationService.class);
+        notificationRepository = database.getBean(NotificationRepository.class);
+        userRepository = database.getBean(UserRepository.class);
+        transactionTemplate = database.transactionTemplate(false);
+        JdbcTemplate jdbcTemplate = database.getBean(JdbcTemplate.class);
+        userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE email_verified = true ORDER BY id LIMIT ?", Long.class, recipients);
+        emails = jdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email_verified = true ORDER BY id LIMIT ?", String.class, recipients);
+    }
+
+    @Benchmark
+    public Integer fanOut() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            for (String email : emails) {
+                notificationService.addNotification(email, "Benchmark", "Library-wide announcement",
+                        NotificationConstants.TYPE_LIBRARY_INFO);
+            }
+            return emails.size();
+        });
+    }
+
+    @Benchmark
+    public Integer batchedInsert() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(7);
+            List<Notification> notifications = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                notifications.add(new Notification(userRepository.getReferenceById(userId), "Benchmark",
+                        "Library-wide announcement", NotificationConstants.TYPE_LIBRARY_INFO, expiresAt));
+            }
+            notificationRepository.saveAllAndFlush(notifications);
+            return notifications.size();
+        });
+    }
+}
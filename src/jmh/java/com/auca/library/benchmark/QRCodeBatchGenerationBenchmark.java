@@ -0,0 +1,57 @@
+package com.auca.library.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auca.library.service.QRCodeGenerationService;
+import com.google.zxing.WriterException;
+
+/**
+ * QRCodeGenerationService.generateBatchQRCodes over a map of seat numbers to
+ * distinct seat URLs, the shape the bulk generation endpoints pass in. Compare
+ * the per-image cost with QRCodeGenerationBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class QRCodeBatchGenerationBenchmark {
+
+    @Param({"10", "100"})
+    public int batchSize;
+
+    private QRCodeGenerationService qrCodeGenerationService;
+    private Map<String, String> contentMap;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        qrCodeGenerationService = database.getBean(QRCodeGenerationService.class);
+        contentMap = new LinkedHashMap<>();
+        for (int i = 0; i < batchSize; i++) {
+            contentMap.put("SYN-GSH-" + (i + 1), qrCodeGenerationService.generateSeatQRUrl(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Benchmark
+    public Map<String, byte[]> batchQRCodes() throws WriterException, IOException {
+        return qrCodeGenerationService.generateBatchQRCodes(contentMap);
+    }
+}
@@ -0,0 +1,56 @@
+package com.auca.library.benchmark;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.auca.library.service.QRCodeGenerationService;
+import com.google.zxing.WriterException;
+
+/**
+ * QRCodeGenerationService.generateQRCodeImage for seat QR codes with the seat
+ * number overlay, as the bulk generation job renders them. Content differs per
+ * call so no encoding work can be reused.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class QRCodeGenerationBenchmark {
+
+    private static final int CONTENTS = 256;
+
+    private QRCodeGenerationService qrCodeGenerationService;
+    private final String[] urls = new String[CONTENTS];
+    private final String[] seatNumbers = new String[CONTENTS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        qrCodeGenerationService = database.getBean(QRCodeGenerationService.class);
+        for (int i = 0; i < CONTENTS; i++) {
+            urls[i] = qrCodeGenerationService.generateSeatQRUrl(UUID.randomUUID().toString());
+            seatNumbers[i] = "SYN-GSH-" + (i + 1);
+        }
+    }
+
+    @Benchmark
+    public byte[] seatQRCode() throws WriterException, IOException {
+        int i = next++ % CONTENTS;
+        return qrCodeGenerationService.generateQRCodeImage(urls[i], seatNumbers[i]);
+    }
+}
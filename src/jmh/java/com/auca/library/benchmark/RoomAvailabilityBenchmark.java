@@ -0,0 +1,52 @@
+package com.auca.library.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.response.RoomAvailabilityResponse;
+import com.auca.library.service.RoomAvailabilityService;
+
+/**
+ * RoomAvailabilityService.getRoomAvailability, which spends most of its time
+ * in the private generateAvailableSlots and generateBookedSlots for the next
+ * two days; rooms are taken in turn.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class RoomAvailabilityBenchmark {
+
+    private RoomAvailabilityService roomAvailabilityService;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> roomIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        roomAvailabilityService = database.getBean(RoomAvailabilityService.class);
+        transactionTemplate = database.transactionTemplate(true);
+        roomIds = database.getRoomIds();
+    }
+
+    @Benchmark
+    public RoomAvailabilityResponse roomAvailability() {
+        Long roomId = roomIds.get(next++ % roomIds.size());
+        return transactionTemplate.execute(status -> roomAvailabilityService.getRoomAvailability(roomId));
+    }
+}
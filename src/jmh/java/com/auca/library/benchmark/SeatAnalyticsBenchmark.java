@@ -0,0 +1,57 @@
+package com.auca.library.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.response.analytics.AnalyticsFilterRequest;
+import com.auca.library.dto.response.analytics.SeatChartsData;
+import com.auca.library.service.analytics.SeatAnalyticsService;
+
+/**
+ * SeatAnalyticsService.getChartsData for one location. The hourly usage
+ * and weekly trend charts both go through the private getHourlyUsageMap and
+ * getWeeklyUsageMap over the period's bookings, which dominate the cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SeatAnalyticsBenchmark {
+
+    @Param({"MONTH", "YEAR"})
+    public String period;
+
+    private SeatAnalyticsService seatAnalyticsService;
+    private TransactionTemplate transactionTemplate;
+    private AnalyticsFilterRequest filter;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        seatAnalyticsService = database.getBean(SeatAnalyticsService.class);
+        transactionTemplate = database.transactionTemplate(true);
+
+        filter = new AnalyticsFilterRequest();
+        filter.setLocation("GISHUSHU");
+        filter.setPeriod(period);
+    }
+
+    @Benchmark
+    public SeatChartsData chartsData() {
+        return transactionTemplate.execute(status -> seatAnalyticsService.getChartsData(filter));
+    }
+}
@@ -0,0 +1,62 @@
+package com.auca.library.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.request.SeatAvailabilityRequest;
+import com.auca.library.dto.response.SeatDTO;
+import com.auca.library.service.SeatService;
+
+/**
+ * SeatService.getAvailableSeats: loading the seat list and mapping each seat
+ * to its availability over a two-hour window tomorrow
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SeatAvailabilityBenchmark {
+
+    // Empty for every seat, otherwise a zone filter
+    @Param({"", "SILENT"})
+    public String zoneType;
+
+    private SeatService seatService;
+    private TransactionTemplate transactionTemplate;
+    private SeatAvailabilityRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkDatabase database) {
+        seatService = database.getBean(SeatService.class);
+        transactionTemplate = database.transactionTemplate(true);
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        request = new SeatAvailabilityRequest();
+        request.setStartTime(tomorrow.atTime(LocalTime.of(10, 0)));
+        request.setEndTime(tomorrow.atTime(LocalTime.of(12, 0)));
+        request.setZoneType(zoneType.isEmpty() ? null : zoneType);
+    }
+
+    @Benchmark
+    public List<SeatDTO> availableSeats() {
+        return transactionTemplate.execute(status -> seatService.getAvailableSeats(request));
+    }
+}
@@ -0,0 +1,241 @@
+package com.auca.library.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Scripted HTTP load against a locally running instance seeded by
+ * SyntheticDataGenerator. Runs four phases and prints p50/p99 latency per
+ * endpoint for each:
+ *
+ * - login: every synthetic student signs in at once
+ * - morning check-in rush: students list their bookings, check in to today's
+ *   and refresh their unread count
+ * - booking opening: everyone searches tomorrow's free seats and races for
+ *   the first few, so most attempts end in a conflict (counted as failed)
+ * - dashboard refresh: admins poll the seat and room analytics and the
+ *   current bookings for a fixed time
+ *
+ * Options are key=value arguments, e.g. users=500 concurrency=100
+ * baseUrl=http://localhost:8080. See the defaults in main; password has none
+ * and must be the synthetic-data.password the instance was seeded with.
+ */
+public class CampusLoadScenario {
+
+    private static final String SYNTHETIC_EMAIL = "synthetic%d@auca.test";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyReport report = new LatencyReport();
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final int concurrency;
+
+    public CampusLoadScenario(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = options.get("baseUrl");
+        this.concurrency = Integer.parseInt(options.get("concurrency"));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        options.put("baseUrl", "http://localhost:8080");
+        options.put("users", "200");
+        options.put("concurrency", "50");
+        options.put("adminEmail", "admin@library.com");
+        options.put("adminPassword", "Admin123!");
+        options.put("dashboardClients", "5");
+        options.put("dashboardSeconds", "30");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        if (!options.containsKey("password")) {
+            throw new IllegalArgumentException("password=... is required: the synthetic-data.password used to seed the instance");
+        }
+        new CampusLoadScenario(options).run();
+    }
+
+    public void run() throws InterruptedException {
+        int users = Integer.parseInt(options.get("users"));
+        String password = options.get("password");
+
+        String[] tokens = new String[users];
+        phase("login", users, i -> tokens[i] = login("login", String.format(SYNTHETIC_EMAIL, i + 1), password));
+
+        phase("morning check-in rush", users, i -> {
+            if (tokens[i] != null) {
+                checkInRush(tokens[i]);
+            }
+        });
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        phase("booking opening", users, i -> {
+            if (tokens[i] != null) {
+                bookingOpening(tokens[i], tomorrow);
+            }
+        });
+
+        dashboardRefresh();
+        report.print();
+    }
+
+    private void checkInRush(String token) {
+        String phase = "morning check-in rush";
+        JsonNode bookings = call(phase, "GET /api/bookings", get("/api/bookings", token));
+        LocalDateTime now = LocalDateTime.now();
+        if (bookings != null) {
+            for (JsonNode booking : bookings) {
+                LocalDateTime start = LocalDateTime.parse(booking.path("startTime").asText());
+                LocalDateTime end = LocalDateTime.parse(booking.path("endTime").asText());
+                if ("RESERVED".equals(booking.path("status").asText())
+                        && start.toLocalDate().equals(now.toLocalDate()) && end.isAfter(now)) {
+                    call(phase, "POST /api/bookings/{id}/checkin",
+                            post("/api/bookings/" + booking.path("id").asLong() + "/checkin", token, null));
+                }
+            }
+        }
+        call(phase, "GET /api/notifications/count/unread", get("/api/notifications/count/unread", token));
+    }
+
+    // 07:00-08:00 is never taken by synthetic bookings, so every conflict comes from this run
+    private void bookingOpening(String token, LocalDate day) {
+        String phase = "booking opening";
+        Map<String, Object> window = new HashMap<>();
+        window.put("startTime", day.atTime(LocalTime.of(7, 0)).toString());
+        window.put("endTime", day.atTime(LocalTime.of(8, 0)).toString());
+
+        JsonNode seats = call(phase, "POST /api/seats/available", post("/api/seats/available", token, window));
+        if (seats == null) {
+            return;
+        }
+        List<Long> available = new ArrayList<>();
+        for (JsonNode seat : seats) {
+            if (seat.path("available").asBoolean() && available.size() < 20) {
+                available.add(seat.path("id").asLong());
+            }
+        }
+        if (available.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> booking = new HashMap<>(window);
+        booking.put("seatId", available.get(ThreadLocalRandom.current().nextInt(available.size())));
+        call(phase, "POST /api/bookings", post("/api/bookings", token, booking));
+    }
+
+    private void dashboardRefresh() throws InterruptedException {
+        String phase = "dashboard refresh";
+        String token = login(phase, options.get("adminEmail"), options.get("adminPassword"));
+        if (token == null) {
+            System.err.println("Admin login failed, skipping the dashboard refresh");
+            return;
+        }
+        int clients = Integer.parseInt(options.get("dashboardClients"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("dashboardSeconds")));
+
+        phase(phase, clients, i -> {
+            while (System.nanoTime() < deadline) {
+                call(phase, "GET /api/analytics/seats/summary", get("/api/analytics/seats/summary?period=WEEK", token));
+                call(phase, "GET /api/analytics/seats/charts", get("/api/analytics/seats/charts?period=MONTH", token));
+                call(phase, "GET /api/analytics/rooms/summary", get("/api/analytics/rooms/summary?period=WEEK", token));
+                call(phase, "GET /api/admin/bookings/current", get("/api/admin/bookings/current", token));
+            }
+        });
+    }
+
+    private String login(String phase, String identifier, String password) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("identifier", identifier);
+        body.put("password", password);
+        JsonNode response = call(phase, "POST /api/auth/signin", post("/api/auth/signin", null, body));
+        return response != null && response.hasNonNull("token") ? response.get("token").asText() : null;
+    }
+
+    /**
+     * Runs one task per user on a pool of the configured concurrency and
+     * waits for all of them
+     */
+    private void phase(String name, int tasks, IntConsumer task) throws InterruptedException {
+        System.out.println("Running " + name + " (" + tasks + " tasks)");
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, tasks));
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            executor.execute(() -> task.accept(index));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Sends the request and records its latency under the endpoint template.
+     * Returns the parsed body of a successful response, otherwise null.
+     */
+    private JsonNode call(String phase, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            report.record(phase, endpoint, System.nanoTime() - start, response.statusCode());
+            if (response.statusCode() >= 300 || response.body().isEmpty()) {
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            report.record(phase, endpoint, System.nanoTime() - start, -1);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            String json = body == null ? "" : objectMapper.writeValueAsString(body);
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
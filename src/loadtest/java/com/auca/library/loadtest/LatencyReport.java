@@ -0,0 +1,62 @@
+package com.auca.library.loadtest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Response times per phase and endpoint, printed as count, failures and
+ * p50/p99/max in milliseconds. Phases print in the order they ran.
+ */
+public class LatencyReport {
+
+    private final Map<String, Map<String, Endpoint>> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public void record(String phase, String endpoint, long nanos, int status) {
+        Map<String, Endpoint> endpoints = phases.computeIfAbsent(phase, p -> Collections.synchronizedMap(new TreeMap<>()));
+        endpoints.computeIfAbsent(endpoint, e -> new Endpoint()).record(nanos, status);
+    }
+
+    public void print() {
+        synchronized (phases) {
+            phases.forEach((phase, endpoints) -> {
+                System.out.println();
+                System.out.println("== " + phase + " ==");
+                System.out.printf("%-45s %8s %8s %10s %10s %10s%n", "endpoint", "count", "failed", "p50 ms", "p99 ms", "max ms");
+                synchronized (endpoints) {
+                    endpoints.forEach((endpoint, stats) -> stats.print(endpoint));
+                }
+            });
+        }
+    }
+
+    private static class Endpoint {
+        private long[] nanos = new long[1024];
+        private int count;
+        private int failed;
+
+        synchronized void record(long elapsed, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = elapsed;
+            if (status < 200 || status >= 300) {
+                failed++;
+            }
+        }
+
+        synchronized void print(String endpoint) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            System.out.printf("%-45s %8d %8d %10.1f %10.1f %10.1f%n", endpoint, count, failed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[count - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
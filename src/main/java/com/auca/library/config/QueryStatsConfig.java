@@ -0,0 +1,33 @@
+package com.auca.library.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.auca.library.util.RequestQueryStats;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Wires RequestQueryStats into Hibernate so QueryStatsFilter can report the
+ * database work behind each request.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RequestQueryStats.StatementCounter());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestQueryStats.DbTimeListener.class.getName());
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton queryStatsEventListeners(EntityManagerFactory entityManagerFactory) {
+        return () -> RequestQueryStats.registerListeners(entityManagerFactory.unwrap(SessionFactoryImplementor.class));
+    }
+}
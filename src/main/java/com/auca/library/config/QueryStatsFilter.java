@@ -0,0 +1,92 @@
+package com.auca.library.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.auca.library.util.RequestQueryStats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the SQL statements, entity loads, collection fetches and JDBC time
+ * of every request as metrics tagged with the controller method that handled
+ * it, so N+1 patterns show up per endpoint. Runs ahead of the security chain
+ * so the JWT user lookup is counted too. Requests over the statement budget
+ * are logged; the X-Query-Stats header is added when enabled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Stats";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query-stats.header-enabled:false}")
+    private boolean headerEnabled;
+
+    @Value("${query-stats.statement-budget:50}")
+    private int statementBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            record(request, stats);
+            // Responses with a body already got the header from QueryStatsHeaderAdvice
+            if (headerEnabled && !response.isCommitted()) {
+                response.setHeader(HEADER, stats.toHeaderValue());
+            }
+        }
+    }
+
+    public boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        String handler = handlerName(request);
+        DistributionSummary.builder("db.request.statements").tag("handler", handler)
+                .register(meterRegistry).record(stats.getStatements());
+        DistributionSummary.builder("db.request.entity.loads").tag("handler", handler)
+                .register(meterRegistry).record(stats.getEntityLoads());
+        DistributionSummary.builder("db.request.collection.fetches").tag("handler", handler)
+                .register(meterRegistry).record(stats.getCollectionFetches());
+        Timer.builder("db.request.time").tag("handler", handler)
+                .register(meterRegistry).record(stats.getDbNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > statementBudget) {
+            System.err.println("Query budget exceeded: " + handler + " (" + request.getMethod() + " "
+                    + request.getRequestURI() + ") " + stats.toHeaderValue());
+        }
+    }
+
+    // Controller method names keep the tag's cardinality bounded, unlike raw URIs
+    private String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return "none";
+    }
+}
@@ -85,6 +85,7 @@ public class SecurityConfig {
                     .requestMatchers("/api/users/admins").hasRole("ADMIN")
                     .requestMatchers("/api/users/equipment-admin").hasRole("ADMIN")
                     .requestMatchers("/api/users/hod").hasRole("ADMIN")
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     // Staff management endpoints
                     .requestMatchers("/api/users/librarians/**").hasAnyRole("ADMIN", "LIBRARIAN")
                     .requestMatchers("/api/users/professors/**").hasAnyRole("ADMIN", "HOD")
@@ -106,7 +107,7 @@ public class SecurityConfig {
         // configuration.setAllowedOrigins(Arrays.asList("http://10.24.229.246:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "x-query-stats", "x-qr-job-id", "link"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
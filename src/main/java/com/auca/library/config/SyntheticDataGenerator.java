@@ -0,0 +1,322 @@
+package com.auca.library.config;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills an empty database with a synthetic campus for load testing: students,
+ * seats and rooms per location, equipment units, a semester of seat and room
+ * bookings up to a week ahead, waitlists and notifications. Only exists under
+ * the synthetic profile, which also requires synthetic-data.password to be
+ * given explicitly; never meant for a real database.
+ *
+ * Bookings follow the library's peaks: a morning wave from 08:00 and a larger
+ * afternoon one, quieter weekends and busier exam weeks at the end of the
+ * semester. Everything is inserted with INSERT ... SELECT so hundreds of
+ * thousands of rows take seconds. Runs after DataInitializer has created the
+ * roles, and does nothing if synthetic users already exist.
+ */
+@Component
+@Profile("synthetic")
+public class SyntheticDataGenerator {
+
+    public static final String EMAIL_PATTERN = "synthetic%@auca.test";
+
+    // Start hours drawn uniformly from these, so repeats weight the peaks.
+    // Morning bookings end by 14:00 and afternoon ones start at 14:00, so a
+    // seat never gets overlapping bookings.
+    private static final int[] MORNING_START_HOURS = {8, 8, 8, 9, 9, 9, 9, 10, 10, 11};
+    private static final int[] AFTERNOON_START_HOURS = {14, 14, 14, 15, 15, 15, 16, 16, 17, 18, 19};
+
+    private static final String NOTIFICATION_TYPES = "ARRAY['SEAT', 'ROOM', 'BOOKING_UPDATE', 'WAITLIST_AVAILABLE']";
+    private static final String NOTIFICATION_TITLES =
+            "ARRAY['Booking reminder', 'Room booking confirmed', 'Booking updated', 'Seat available']";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${synthetic-data.users:2000}")
+    private int users;
+
+    // No default: a known password on generated accounts must never ship
+    @Value("${synthetic-data.password}")
+    private String password;
+
+    @Value("${synthetic-data.seats-per-location:1000}")
+    private int seatsPerLocation;
+
+    @Value("${synthetic-data.rooms-per-location:20}")
+    private int roomsPerLocation;
+
+    @Value("${synthetic-data.equipment-units-per-location:200}")
+    private int equipmentUnitsPerLocation;
+
+    @Value("${synthetic-data.semester-weeks:16}")
+    private int semesterWeeks;
+
+    // Share of weekday seat slots booked at the peaks; weekends get a third
+    @Value("${synthetic-data.seat-occupancy:0.6}")
+    private double seatOccupancy;
+
+    @Value("${synthetic-data.waitlist-entries:600}")
+    private int waitlistEntries;
+
+    @Value("${synthetic-data.notifications-per-user:10}")
+    private int notificationsPerUser;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void generate() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE email LIKE ?", Integer.class, EMAIL_PATTERN);
+        if (existing != null && existing > 0) {
+            System.out.println("Synthetic data already present, skipping generation");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        insertLibrarySchedules();
+        long firstUserId = insertUsers();
+        insertSeats();
+        insertRooms();
+        insertEquipment();
+        int bookings = insertSeatBookings(firstUserId, MORNING_START_HOURS, seatOccupancy * 0.8)
+                + insertSeatBookings(firstUserId, AFTERNOON_START_HOURS, seatOccupancy);
+        int roomBookings = insertRoomBookings(firstUserId);
+        int waitlists = insertWaitlists(firstUserId);
+        int notifications = insertNotifications();
+        jdbcTemplate.execute("ANALYZE");
+
+        System.out.println("Synthetic data generated in " + (System.currentTimeMillis() - start) + " ms: "
+                + users + " users, " + seatsPerLocation * 2 + " seats, " + roomsPerLocation * 2 + " rooms, "
+                + bookings + " bookings, " + roomBookings + " room bookings, " + waitlists + " waitlist entries, "
+                + notifications + " notifications");
+    }
+
+    // Only when no hours are configured yet; bookings rely on the library being open 07:00-22:00
+    private void insertLibrarySchedules() {
+        jdbcTemplate.update("""
+                INSERT INTO library_schedules (day_of_week, open_time, close_time, location, open, last_modified)
+                SELECT d, TIME '07:00', TIME '22:00', l, true, now()
+                FROM unnest(ARRAY['MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY']) d
+                CROSS JOIN unnest(ARRAY['GISHUSHU', 'MASORO']) l
+                WHERE NOT EXISTS (SELECT 1 FROM library_schedules)
+                """);
+    }
+
+    private long insertUsers() {
+        // Hashing is deliberately slow, so every synthetic student shares one hash
+        jdbcTemplate.update("""
+                INSERT INTO users (created_at, full_name, email, password, location, email_verified, student_id,
+                                   must_change_password, active_this_week, active_today,
+                                   is_default_librarian, professor_approved)
+                SELECT now() - random() * INTERVAL '180 days', 'Synthetic Student ' || g,
+                       'synthetic' || g || '@auca.test', ?,
+                       CASE WHEN g % 2 = 0 THEN 'GISHUSHU' ELSE 'MASORO' END,
+                       true, 'SYN' || g, false, false, false, false, false
+                FROM generate_series(1, ?) g
+                """, passwordEncoder.encode(password), users);
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u CROSS JOIN roles r
+                WHERE r.name = 'ROLE_USER' AND u.email LIKE ?
+                """, EMAIL_PATTERN);
+        return jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'synthetic1@auca.test'", Long.class);
+    }
+
+    private void insertSeats() {
+        jdbcTemplate.update("""
+                INSERT INTO seats (id, seat_number, location, zone_type, has_desktop, is_disabled, floar, qr_version)
+                SELECT nextval('seats_seq'), 'SYN-' || l.code || '-' || g, l.location,
+                       CASE WHEN random() < 0.3 THEN 'COLLABORATION' ELSE 'SILENT' END,
+                       random() < 0.2, random() < 0.02, g % 4, 1
+                FROM (VALUES ('GISHUSHU', 'GSH'), ('MASORO', 'MSR')) AS l(location, code)
+                CROSS JOIN generate_series(1, ?) g
+                """, seatsPerLocation);
+    }
+
+    private void insertRooms() {
+        jdbcTemplate.update("""
+                INSERT INTO rooms (room_number, name, category, capacity, max_booking_hours, max_bookings_per_day,
+                                   advance_booking_days, available, location, building, qr_version,
+                                   requires_approval, created_at, updated_at)
+                SELECT 'SYN-' || l.code || '-R' || g, 'Synthetic Room ' || l.code || ' ' || g,
+                       (ARRAY['LIBRARY_ROOM', 'STUDY_ROOM', 'CLASS_ROOM'])[1 + g % 3],
+                       4 + (g % 5) * 6, 3, 2, 7, true, l.location, 'Synthetic Block', 1,
+                       g % 10 = 0, now(), now()
+                FROM (VALUES ('GISHUSHU', 'GSH'), ('MASORO', 'MSR')) AS l(location, code)
+                CROSS JOIN generate_series(1, ?) g
+                """, roomsPerLocation);
+    }
+
+    private void insertEquipment() {
+        jdbcTemplate.update("""
+                INSERT INTO equipment (name, description, available, allowed_to_students, quantity,
+                                       available_quantity, version, location)
+                SELECT 'Synthetic ' || t.name || ' ' || l.code, 'Synthetic load-test equipment', true,
+                       t.students, 0, 0, 0, l.location
+                FROM (VALUES ('Projector', false), ('Laptop', true), ('HDMI Cable', true),
+                             ('Portable Speaker', false), ('Extension Cord', true), ('Document Camera', false))
+                     AS t(name, students)
+                CROSS JOIN (VALUES ('GISHUSHU', 'GSH'), ('MASORO', 'MSR')) AS l(location, code)
+                """);
+        int unitsPerEquipment = Math.max(1, equipmentUnitsPerLocation / 6);
+        jdbcTemplate.update("""
+                INSERT INTO equipment_units (equipment_id, serial_number, status, created_at, condition, purchase_date)
+                SELECT e.id, 'SYN-' || e.id || '-' || g,
+                       CASE WHEN random() < 0.95 THEN 'AVAILABLE' ELSE 'MAINTENANCE' END,
+                       now(), 'GOOD', current_date - (random() * 1000)::int
+                FROM equipment e
+                CROSS JOIN generate_series(1, ?) g
+                WHERE e.name LIKE 'Synthetic %'
+                """, unitsPerEquipment);
+        jdbcTemplate.update("""
+                UPDATE equipment e
+                SET quantity = c.total, available_quantity = c.available
+                FROM (SELECT equipment_id, count(*) AS total,
+                             count(*) FILTER (WHERE status = 'AVAILABLE') AS available
+                      FROM equipment_units GROUP BY equipment_id) c
+                WHERE c.equipment_id = e.id AND e.name LIKE 'Synthetic %'
+                """);
+    }
+
+    /**
+     * At most one booking per seat per day in the given wave. Past bookings
+     * end up completed, no-shows or cancelled; upcoming ones stay reserved.
+     */
+    private int insertSeatBookings(long firstUserId, int[] startHours, double weekdayOccupancy) {
+        String sql = """
+                INSERT INTO bookings (id, user_id, seat_id, start_time, end_time, created_at, status,
+                                      checked_in, checked_in_time, warning_sent, extension_requested, extended)
+                SELECT nextval('bookings_seq'), b.user_id, b.seat_id, b.start_time, b.end_time,
+                       b.start_time - (1 + floor(random() * 72)) * INTERVAL '1 hour',
+                       CASE WHEN b.end_time > now() THEN 'RESERVED'
+                            WHEN b.roll < 0.08 THEN 'NO_SHOW'
+                            WHEN b.roll < 0.13 THEN 'CANCELLED'
+                            ELSE 'COMPLETED' END,
+                       b.end_time <= now() AND b.roll >= 0.13,
+                       CASE WHEN b.end_time <= now() AND b.roll >= 0.13
+                            THEN b.start_time + floor(random() * 15) * INTERVAL '1 minute' END,
+                       false, false, false
+                FROM (
+                    SELECT s.id AS seat_id, ? + floor(random() * ?)::bigint AS user_id, start_time,
+                           start_time + (1 + floor(random() * 3)) * INTERVAL '1 hour' AS end_time,
+                           random() AS roll
+                    FROM (
+                        SELECT s.id, days.day + (%s)[1 + floor(random() * %d)::int] * INTERVAL '1 hour' AS start_time
+                        FROM seats s
+                        CROSS JOIN (
+                            SELECT day, %s AS occupancy
+                            FROM %s AS day
+                        ) days
+                        WHERE s.seat_number LIKE 'SYN-%%' AND random() < days.occupancy
+                    ) s
+                ) b
+                """.formatted(intArray(startHours), startHours.length, occupancy(weekdayOccupancy), semesterDays());
+        return jdbcTemplate.update(sql, firstUserId, users);
+    }
+
+    /**
+     * Two-hour slots through the day, the late-morning and mid-afternoon ones
+     * most in demand
+     */
+    private int insertRoomBookings(long firstUserId) {
+        String sql = """
+                INSERT INTO room_bookings (id, room_id, user_id, start_time, end_time, status, title,
+                                           max_participants, is_public, allow_joining, requires_check_in,
+                                           checked_in_at, auto_check_in_enabled, requires_approval,
+                                           created_at, updated_at, reminder_enabled)
+                SELECT nextval('room_bookings_seq'), b.room_id, b.user_id, b.start_time,
+                       b.start_time + INTERVAL '2 hours',
+                       CASE WHEN b.start_time + INTERVAL '2 hours' > now() THEN 'CONFIRMED'
+                            WHEN b.roll < 0.08 THEN 'NO_SHOW'
+                            WHEN b.roll < 0.15 THEN 'CANCELLED'
+                            ELSE 'COMPLETED' END,
+                       'Synthetic group study', 4, b.roll < 0.3, b.roll < 0.3, true,
+                       CASE WHEN b.start_time + INTERVAL '2 hours' <= now() AND b.roll >= 0.15
+                            THEN b.start_time + floor(random() * 10) * INTERVAL '1 minute' END,
+                       false, false, b.start_time - INTERVAL '2 days', b.start_time - INTERVAL '2 days', true
+                FROM (
+                    SELECT r.id AS room_id, ? + floor(random() * ?)::bigint AS user_id,
+                           days.day + slots.hour * INTERVAL '1 hour' AS start_time, random() AS roll
+                    FROM rooms r
+                    CROSS JOIN (
+                        SELECT day, %s AS occupancy
+                        FROM %s AS day
+                    ) days
+                    CROSS JOIN (VALUES (8, 0.5), (10, 0.9), (13, 0.6), (15, 0.9), (17, 0.6), (19, 0.3))
+                         AS slots(hour, demand)
+                    WHERE r.room_number LIKE 'SYN-%%' AND random() < days.occupancy * slots.demand
+                ) b
+                """.formatted(occupancy(seatOccupancy), semesterDays());
+        return jdbcTemplate.update(sql, firstUserId, users);
+    }
+
+    // A queue of one to three students behind a sample of upcoming seat bookings
+    private int insertWaitlists(long firstUserId) {
+        return jdbcTemplate.update("""
+                INSERT INTO wait_lists (user_id, seat_id, requested_start_time, requested_end_time, created_at,
+                                        queue_position, notified, status)
+                SELECT ? + floor(random() * ?)::bigint, b.seat_id, b.start_time, b.end_time,
+                       now() - (4 - q.position) * INTERVAL '20 minutes', q.position, false, 'WAITING'
+                FROM (
+                    SELECT bk.seat_id, bk.start_time, bk.end_time, 1 + floor(random() * 3)::int AS queue_length
+                    FROM bookings bk JOIN seats s ON s.id = bk.seat_id
+                    WHERE bk.status = 'RESERVED' AND bk.start_time > now() AND s.seat_number LIKE 'SYN-%'
+                    ORDER BY random()
+                    LIMIT ?
+                ) b
+                CROSS JOIN LATERAL generate_series(1, b.queue_length) AS q(position)
+                """, firstUserId, users, Math.max(1, waitlistEntries / 2));
+    }
+
+    private int insertNotifications() {
+        String sql = """
+                INSERT INTO notifications (id, user_id, title, message, type, created_at, expires_at, read)
+                SELECT nextval('notifications_seq'), n.user_id, (%s)[n.kind],
+                       'Synthetic notification ' || n.g, (%s)[n.kind],
+                       n.created_at, n.created_at + INTERVAL '30 days',
+                       n.created_at < now() - INTERVAL '2 days' AND random() < 0.8
+                FROM (
+                    SELECT u.id AS user_id, g, 1 + floor(random() * 4)::int AS kind,
+                           now() - random() * ? * INTERVAL '1 week' AS created_at
+                    FROM users u
+                    CROSS JOIN generate_series(1, ?) g
+                    WHERE u.email LIKE ?
+                ) n
+                """.formatted(NOTIFICATION_TITLES, NOTIFICATION_TYPES);
+        return jdbcTemplate.update(sql, semesterWeeks, notificationsPerUser, EMAIL_PATTERN);
+    }
+
+    // The semester so far plus the bookable week ahead
+    private String semesterDays() {
+        return "generate_series(CAST(current_date AS timestamp) - INTERVAL '" + semesterWeeks * 7 + " days', "
+                + "CAST(current_date AS timestamp) + INTERVAL '6 days', INTERVAL '1 day')";
+    }
+
+    // Weekends a third as busy; the last two weeks before the end of the semester run hotter
+    private String occupancy(double weekdayOccupancy) {
+        return "LEAST(0.95, " + weekdayOccupancy
+                + " * CASE WHEN extract(isodow FROM day) >= 6 THEN 0.33 ELSE 1 END"
+                + " * CASE WHEN day >= current_date - INTERVAL '14 days' THEN 1.3 ELSE 1 END)";
+    }
+
+    private static String intArray(int[] values) {
+        return Arrays.stream(values).mapToObj(String::valueOf)
+                .collect(Collectors.joining(", ", "ARRAY[", "]"));
+    }
+}
@@ -4,12 +4,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.auca.library.dto.response.MailDispatchStatsResponse;
 import com.auca.library.dto.response.MessageResponse;
+import com.auca.library.service.MailDispatchService;
 import com.auca.library.service.NotificationService;
 
 import lombok.Data;
@@ -22,12 +25,20 @@ public class AdminNotificationController {
 
     @Autowired
     private NotificationService notificationService;
+
+    @Autowired
+    private MailDispatchService mailDispatchService;
     
     @PostMapping("/library-info")
     public ResponseEntity<MessageResponse> sendLibraryInfo(@RequestBody LibraryInfoRequest request) {
         notificationService.sendLibraryInfoNotification(request.getTitle(), request.getMessage());
         return ResponseEntity.ok(new MessageResponse("Library information notification sent to all active users"));
     }
+
+    @GetMapping("/mail/stats")
+    public ResponseEntity<MailDispatchStatsResponse> getMailDispatchStats() {
+        return ResponseEntity.ok(mailDispatchService.getStats());
+    }
 }
 
 @Data
@@ -16,13 +16,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.auca.library.dto.request.QRBulkGenerationRequest;
 import com.auca.library.dto.response.BulkQRGenerationResponse;
 import com.auca.library.dto.response.QRCodeGenerationResponse;
 import com.auca.library.dto.response.QRCodeLogResponse;
 import com.auca.library.dto.response.QRCodeStatisticsResponse;
+import com.auca.library.dto.response.QRGenerationJobResponse;
+import com.auca.library.dto.response.QRScanAuditStatsResponse;
 import com.auca.library.service.AdminQRCodeService;
+import com.auca.library.service.QRCodeBulkGenerationService.BulkGenerationResult;
+import com.auca.library.service.QRScanAuditService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,6 +44,9 @@ public class AdminQRCodeController {
     @Autowired
     private AdminQRCodeService adminQRCodeService;
 
+    @Autowired
+    private QRScanAuditService scanAuditService;
+
 
     // ========== SINGLE QR CODE GENERATION ==========
 
@@ -99,13 +107,14 @@ public class AdminQRCodeController {
         
         try {
             String adminEmail = authentication.getName();
-            BulkQRGenerationResponse response = adminQRCodeService.bulkGenerateSeatQRCodes(request, adminEmail);
+            BulkGenerationResult result = adminQRCodeService.bulkGenerateSeatQRCodesWithImages(request, adminEmail);
+            BulkQRGenerationResponse response = result.response();
             
             // If generateAndDownload is true, return downloadable ZIP
             if (request.isGenerateAndDownload() && 
-                !response.getGeneratedQRCodes().isEmpty()) {
+                !result.imagePaths().isEmpty()) {
                 try {
-                    return adminQRCodeService.downloadBulkQRCodes(response.getGeneratedQRCodes(), "SEATS");
+                    return adminQRCodeService.downloadBulkQRCodes(result.imagePaths(), "SEATS");
                 } catch (Exception e) {
                     // Fall back to regular response if download fails
                     response.setDownloadAvailable(false);
@@ -134,13 +143,14 @@ public class AdminQRCodeController {
         
         try {
             String adminEmail = authentication.getName();
-            BulkQRGenerationResponse response = adminQRCodeService.bulkGenerateRoomQRCodes(request, adminEmail);
+            BulkGenerationResult result = adminQRCodeService.bulkGenerateRoomQRCodesWithImages(request, adminEmail);
+            BulkQRGenerationResponse response = result.response();
             
             // If generateAndDownload is true, return downloadable ZIP
             if (request.isGenerateAndDownload() && 
-                !response.getGeneratedQRCodes().isEmpty()) {
+                !result.imagePaths().isEmpty()) {
                 try {
-                    return adminQRCodeService.downloadBulkQRCodes(response.getGeneratedQRCodes(), "ROOMS");
+                    return adminQRCodeService.downloadBulkQRCodes(result.imagePaths(), "ROOMS");
                 } catch (Exception e) {
                     // Fall back to regular response if download fails
                     response.setDownloadAvailable(false);
@@ -156,6 +166,51 @@ public class AdminQRCodeController {
         }
     }
 
+    // ========== BACKGROUND BULK GENERATION JOBS ==========
+
+    @PostMapping("/generate/bulk/seats/jobs")
+    @Operation(summary = "Start background seat QR generation", 
+               description = "Queue bulk seat QR generation and return a job that can be polled or cancelled")
+    public ResponseEntity<QRGenerationJobResponse> startBulkSeatGenerationJob(
+            @Valid @RequestBody QRBulkGenerationRequest request,
+            Authentication authentication) {
+        
+        QRGenerationJobResponse job = adminQRCodeService.startBulkSeatGenerationJob(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping("/generate/bulk/rooms/jobs")
+    @Operation(summary = "Start background room QR generation", 
+               description = "Queue bulk room QR generation and return a job that can be polled or cancelled")
+    public ResponseEntity<QRGenerationJobResponse> startBulkRoomGenerationJob(
+            @Valid @RequestBody QRBulkGenerationRequest request,
+            Authentication authentication) {
+        
+        QRGenerationJobResponse job = adminQRCodeService.startBulkRoomGenerationJob(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/generate/jobs")
+    @Operation(summary = "List bulk QR generation jobs")
+    public ResponseEntity<List<QRGenerationJobResponse>> getBulkGenerationJobs() {
+        return ResponseEntity.ok(adminQRCodeService.getBulkGenerationJobs());
+    }
+
+    @GetMapping("/generate/jobs/{jobId}")
+    @Operation(summary = "Get bulk QR generation progress")
+    public ResponseEntity<QRGenerationJobResponse> getBulkGenerationJob(
+            @Parameter(description = "Job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(adminQRCodeService.getBulkGenerationJob(jobId));
+    }
+
+    @PostMapping("/generate/jobs/{jobId}/cancel")
+    @Operation(summary = "Cancel a bulk QR generation job", 
+               description = "Stops scheduling new items; codes already rendered are still saved")
+    public ResponseEntity<QRGenerationJobResponse> cancelBulkGenerationJob(
+            @Parameter(description = "Job ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(adminQRCodeService.cancelBulkGenerationJob(jobId));
+    }
+
     // ========== QR CODE DOWNLOAD ==========
 
     @GetMapping("/download/{type}/{resourceId}")
@@ -185,7 +240,7 @@ public class AdminQRCodeController {
         @ApiResponse(responseCode = "404", description = "No QR codes found"),
         @ApiResponse(responseCode = "500", description = "Download failed")
     })
-    public ResponseEntity<Resource> downloadBulkQRCodes(
+    public ResponseEntity<StreamingResponseBody> downloadBulkQRCodes(
             @Valid @RequestBody QRBulkDownloadRequest request) {
         
         try {
@@ -231,6 +286,13 @@ public class AdminQRCodeController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/scan-audit/stats")
+    @Operation(summary = "Get QR scan audit pipeline counters", 
+               description = "Buffered, written, dropped and failed scan audit events")
+    public ResponseEntity<QRScanAuditStatsResponse> getScanAuditStats() {
+        return ResponseEntity.ok(scanAuditService.getStats());
+    }
+
     // ========== QUICK ACTIONS ==========
 
     @PostMapping("/generate/all-missing")
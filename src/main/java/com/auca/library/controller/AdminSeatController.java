@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -42,6 +43,8 @@ import jakarta.validation.Valid;
 @PreAuthorize("hasRole('ADMIN')  or hasRole('LIBRARIAN') ")
 public class AdminSeatController {
 
+    public static final String QR_JOB_HEADER = "X-QR-Job-Id";
+
     @Autowired
     private SeatService seatService;
 
@@ -103,15 +106,23 @@ public class AdminSeatController {
     }
 
     @PostMapping("/bulk-create")
-    @Operation(summary = "Bulk create seats", description = "Create multiple seats at once")
+    @Operation(summary = "Bulk create seats", description = "Create multiple seats at once. "
+            + "Their QR codes are generated in the background; the job id is in the X-QR-Job-Id header "
+            + "and its status URL in the Link header")
     public ResponseEntity<List<SeatDTO>> bulkCreateSeats(
             @Valid @RequestBody BulkSeatCreationRequest request,
             Authentication authentication) {
         
         try {
             Location userLocation = getCurrentUserLocation(authentication);
-            List<SeatDTO> createdSeats = seatService.bulkCreateSeats(request, userLocation);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdSeats);
+            SeatService.BulkSeatCreationResult result = seatService.bulkCreateSeats(request, userLocation);
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+            if (result.qrJob() != null) {
+                String jobId = result.qrJob().getJobId();
+                response.header(QR_JOB_HEADER, jobId)
+                        .header(HttpHeaders.LINK, "</api/admin/qr/generate/jobs/" + jobId + ">; rel=\"qr-job\"");
+            }
+            return response.body(result.seats());
         } catch (Exception e) {
             throw new IllegalArgumentException("Bulk seat creation failed: " + e.getMessage());
         }
@@ -4,12 +4,16 @@ import com.auca.library.service.QRCodeStorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/qr/image")
@@ -17,32 +21,48 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "QR Code Images", description = "Public endpoints for serving QR code images")
 public class QRCodeImageController {
 
+    // A stored QR image never changes; regeneration writes a new, content-named file
+    private static final CacheControl QR_IMAGE_CACHE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable();
+
     @Autowired
     private QRCodeStorageService qrStorageService;
 
     /**
-     * Serve QR code image - Public endpoint
+     * Serve QR code image - Public endpoint.
+     * Answers If-None-Match with 304 before touching disk; Range requests on
+     * the returned resource are handled by Spring MVC.
      */
     @GetMapping("/{type}/{filename}")
     @Operation(summary = "Get QR code image", description = "Retrieve QR code image by path")
     public ResponseEntity<Resource> getQRCodeImage(
             @PathVariable String type,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            WebRequest webRequest) {
         
         try {
             String path = type + "/" + filename;
-            byte[] imageData = qrStorageService.retrieveQRCode(path);
+            String eTag = qrStorageService.getImageETag(path);
+            
+            if (webRequest.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .cacheControl(QR_IMAGE_CACHE)
+                        .build();
+            }
             
-            ByteArrayResource resource = new ByteArrayResource(imageData);
+            Resource resource = qrStorageService.getQRCodeResource(path);
             
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
                     .contentType(MediaType.IMAGE_PNG)
-                    .contentLength(imageData.length)
+                    .eTag(eTag)
+                    .cacheControl(QR_IMAGE_CACHE)
                     .body(resource);
                     
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+}
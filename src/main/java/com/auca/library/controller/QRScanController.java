@@ -1,6 +1,7 @@
 package com.auca.library.controller;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -24,7 +25,9 @@ import com.auca.library.repository.BookingParticipantRepository;
 import com.auca.library.repository.BookingRepository;
 import com.auca.library.repository.RoomBookingRepository;
 import com.auca.library.repository.UserRepository;
+import com.auca.library.security.services.UserDetailsImpl;
 import com.auca.library.service.BookingService;
+import com.auca.library.service.QRScanAuditService;
 import com.auca.library.service.QRScanService;
 import com.auca.library.service.RoomBookingService;
 
@@ -61,6 +64,9 @@ public class QRScanController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QRScanAuditService scanAuditService;
+
     /**
      * Public QR code scan endpoint - accessible without authentication
      */
@@ -81,20 +87,19 @@ public class QRScanController {
             @RequestParam String token,
             Authentication authentication) {
         
-        // Get user email if authenticated (can be null for public scans)
-        String userEmail = authentication != null ? authentication.getName() : null;
+        long startedAt = System.nanoTime();
         
         try {
             // Process scan
-            QRScanResponse response = qrScanService.processScan(type, token, userEmail);
+            QRScanResponse response = processScanFor(type, token, authentication);
             
-            // Log scan (with better error handling)
-            logScanSafely(type, token, userEmail, response.isSuccess());
+            // Queue the audit event; nothing is written on the request thread
+            logScanSafely(type, token, authentication, response, startedAt);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             // Log error but don't fail the main operation
-            logScanSafely(type, token, userEmail, false);
+            logScanSafely(type, token, authentication, null, startedAt);
             
             // Return user-friendly error response
             QRScanResponse errorResponse = new QRScanResponse();
@@ -176,22 +181,22 @@ public class QRScanController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
         }
         
-        String userEmail = authentication.getName();
+        long startedAt = System.nanoTime();
         
         try {
             // Process the stored scan with user context
-            QRScanResponse response = qrScanService.processScan(
+            QRScanResponse response = processScanFor(
                 scanContext.getType(), 
                 scanContext.getToken(), 
-                userEmail
+                authentication
             );
             
             // Log the completion of stored scan
-            logScanSafely(scanContext.getType(), scanContext.getToken(), userEmail, response.isSuccess());
+            logScanSafely(scanContext.getType(), scanContext.getToken(), authentication, response, startedAt);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            logScanSafely(scanContext.getType(), scanContext.getToken(), userEmail, false);
+            logScanSafely(scanContext.getType(), scanContext.getToken(), authentication, null, startedAt);
             
             QRScanResponse errorResponse = new QRScanResponse();
             errorResponse.setSuccess(false);
@@ -201,13 +206,38 @@ public class QRScanController {
         }
     }
 
-        /**
-     * NEW: Safe logging method that doesn't cause transaction rollback
+
+    /**
+     * Resolve the scanning user from the JWT principal when available,
+     * falling back to an email lookup otherwise
+     */
+    private QRScanResponse processScanFor(String type, String token, Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return qrScanService.processScan(type, token, principal);
+        }
+        return qrScanService.processScan(type, token, authentication != null ? authentication.getName() : null);
+    }
+
+    /**
+     * Hand the scan to the audit buffer; a null response means processing failed
      */
-    private void logScanSafely(String type, String token, String userEmail, boolean success) {
+    private void logScanSafely(String type, String token, Authentication authentication,
+                               QRScanResponse response, long startedAt) {
         try {
-            // Use a separate transaction for logging to avoid rollback issues
-            qrScanService.logScanAsync(type, token, userEmail, success);
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            Long userId = response != null ? response.getUserId() : null;
+            if (userId == null && authentication != null
+                    && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+                userId = principal.getId();
+            }
+
+            if (response == null) {
+                scanAuditService.record(type, null, token, userId, false, "PROCESSING_ERROR", latencyMs);
+            } else {
+                String result = response.getErrorCode() != null ? response.getErrorCode() : response.getAction();
+                scanAuditService.record(type, response.getResourceId(), token, userId,
+                        response.isSuccess(), result, latencyMs);
+            }
         } catch (Exception e) {
             // Log to console but don't fail the main operation
             System.err.println("Failed to log QR scan: " + e.getMessage());
@@ -234,7 +264,6 @@ public ResponseEntity<QRValidationResponse> validateQRForCheckIn(
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
     
-    String userEmail = authentication.getName();
     QRValidationResponse response = new QRValidationResponse();
     
     // Extract token from scanned QR content
@@ -249,7 +278,7 @@ public ResponseEntity<QRValidationResponse> validateQRForCheckIn(
     String type = extractTypeFromQRContent(request.getQrContent());
     
     // Get scan response
-    QRScanResponse scanResponse = qrScanService.processScan(type, token, userEmail);
+    QRScanResponse scanResponse = processScanFor(type, token, authentication);
     
     // Check if this matches the expected booking
     if (request.getExpectedBookingId() != null) {
@@ -309,7 +338,7 @@ private Long extractBookingId(Object bookingDetails) {
             @RequestParam String token) {
         
         // Process scan without user context
-        QRScanResponse scanResponse = qrScanService.processScan(type, token, null);
+        QRScanResponse scanResponse = qrScanService.processScan(type, token, (String) null);
         
         QRInfoResponse infoResponse = new QRInfoResponse();
         infoResponse.setValid(scanResponse.isSuccess());
@@ -28,11 +28,13 @@ import com.auca.library.dto.request.ExtendBookingRequest;
 import com.auca.library.dto.request.InvitationResponseRequest;
 import com.auca.library.dto.request.InviteParticipantsRequest;
 import com.auca.library.dto.request.JoinBookingRequest;
+import com.auca.library.dto.request.RecurringSeriesOperationRequest;
 import com.auca.library.dto.request.RoomBookingRequest;
 import com.auca.library.dto.response.BookingHistoryResponse;
 import com.auca.library.dto.response.InvitationResponse;
 import com.auca.library.dto.response.MessageResponse;
 import com.auca.library.dto.response.RecurringBookingSeriesResponse;
+import com.auca.library.dto.response.RecurringSeriesOperationResponse;
 import com.auca.library.dto.response.RoomAvailabilityResponse;
 import com.auca.library.dto.response.RoomBookingResponse;
 import com.auca.library.dto.response.RoomResponse;
@@ -317,6 +319,20 @@ public ResponseEntity<List<InvitationResponse>> getMyPendingInvitations(
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{bookingId}/recurring-series/operations")
+    @Operation(summary = "Change entire recurring series", description = "Cancel, shift or move all future bookings in the recurring series at once")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    public ResponseEntity<RecurringSeriesOperationResponse> applyRecurringSeriesOperation(
+            @Parameter(description = "Booking ID") @PathVariable Long bookingId,
+            @Valid @RequestBody RecurringSeriesOperationRequest request,
+            Authentication authentication) {
+        
+        String userEmail = authentication.getName();
+        RecurringSeriesOperationResponse response =
+                roomBookingService.applyRecurringSeriesOperation(bookingId, request, userEmail);
+        return ResponseEntity.ok(response);
+    }
+
     // ========== SEARCH AND FILTER ==========
 
     @GetMapping("/search")
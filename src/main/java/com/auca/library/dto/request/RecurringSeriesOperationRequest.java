@@ -0,0 +1,24 @@
+package com.auca.library.dto.request;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RecurringSeriesOperationRequest {
+    @NotNull(message = "Operation is required")
+    private Operation operation;
+
+    private Integer shiftMinutes; // SHIFT: positive moves later, negative earlier
+
+    private Long newRoomId; // CHANGE_ROOM
+
+    private LocalDateTime fromTime; // Only occurrences starting after this; defaults to now
+
+    private String reason;
+
+    public enum Operation {
+        CANCEL, SHIFT, CHANGE_ROOM
+    }
+}
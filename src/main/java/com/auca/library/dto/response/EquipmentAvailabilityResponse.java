@@ -14,6 +14,10 @@ public class EquipmentAvailabilityResponse {
     private Integer availableQuantity;
     private Integer reservedQuantity;
     
+    // Most units reserved at once during the requested period, and what is left
+    private Integer peakReservedQuantity;
+    private Integer freeQuantityForPeriod;
+    
     // Current reservations
     private List<EquipmentReservation> currentReservations;
     
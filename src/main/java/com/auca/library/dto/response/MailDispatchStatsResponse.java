@@ -0,0 +1,18 @@
+package com.auca.library.dto.response;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class MailDispatchStatsResponse {
+    private long pendingInOutbox;
+    private long failedInOutbox;     // gave up after the last retry
+    private int queued;              // ids waiting in the in-memory dispatch queue
+    private int queueCapacity;
+    private long queueOverflows;     // ids left for the outbox sweep because the queue was full
+    private long sent;
+    private long sendErrors;         // failed attempts, including ones that were retried
+    private double averageSendLatencyMs;
+    private long maxSendLatencyMs;
+    private LocalDateTime lastSentAt;
+}
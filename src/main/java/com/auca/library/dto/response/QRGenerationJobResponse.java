@@ -0,0 +1,22 @@
+package com.auca.library.dto.response;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class QRGenerationJobResponse {
+    private String jobId;
+    private String resourceType; // SEAT or ROOM
+    private String status; // QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    private Integer totalRequested;
+    private Integer processedCount;
+    private Integer successCount;
+    private Integer failureCount;
+    private Integer skippedCount;
+    private Integer progressPercent;
+    private boolean cancelRequested;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private List<String> errors;
+}
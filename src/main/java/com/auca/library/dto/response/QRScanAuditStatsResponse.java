@@ -0,0 +1,16 @@
+package com.auca.library.dto.response;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class QRScanAuditStatsResponse {
+    private int bufferCapacity;
+    private int buffered;          // events waiting for the writer
+    private long recorded;         // events accepted into the buffer
+    private long written;          // events persisted
+    private long dropped;          // events rejected because the buffer was full
+    private long failed;           // events lost to a failed batch insert
+    private long batchesWritten;
+    private LocalDateTime lastFlushAt;
+}
@@ -0,0 +1,14 @@
+package com.auca.library.dto.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class RecurringSeriesOperationResponse {
+    private Long seriesId;
+    private String operation;
+    private List<Long> affectedBookingIds;
+    private List<Long> skippedBookingIds; // Left unchanged because the target slot is taken
+    private String message;
+}
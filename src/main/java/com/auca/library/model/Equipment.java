@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -42,6 +43,11 @@ public class Equipment {
     private Integer quantity;
     private Integer availableQuantity;
 
+    // Bumped by every write, including the bulk reserve/release updates, so stale saves fail
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     // Location field
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
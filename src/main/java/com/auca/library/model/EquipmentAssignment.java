@@ -13,6 +13,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,7 +26,8 @@ import lombok.Setter;
 @NoArgsConstructor
 public class EquipmentAssignment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipment_assignments_seq")
+    @SequenceGenerator(name = "equipment_assignments_seq", sequenceName = "equipment_assignments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
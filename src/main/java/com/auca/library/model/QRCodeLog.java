@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class QRCodeLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qr_code_logs_seq")
+    @SequenceGenerator(name = "qr_code_logs_seq", sequenceName = "qr_code_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "resource_type", nullable = false, length = 50)
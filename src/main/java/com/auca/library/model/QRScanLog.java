@@ -0,0 +1,51 @@
+package com.auca.library.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit record of a single QR scan. Kept apart from QRCodeLog so scans do not
+ * show up in the generation history of a seat or room.
+ */
+@Entity
+@Table(name = "qr_scan_logs", indexes = {
+    @Index(name = "idx_qr_scan_logs_resource", columnList = "resource_type, resource_id"),
+    @Index(name = "idx_qr_scan_logs_scanned_at", columnList = "scanned_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class QRScanLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qr_scan_log_seq")
+    @SequenceGenerator(name = "qr_scan_log_seq", sequenceName = "qr_scan_logs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "resource_type", nullable = false, length = 50)
+    private String resourceType; // SEAT, ROOM or whatever was requested
+
+    @Column(name = "resource_id")
+    private Long resourceId; // null when the token did not resolve
+
+    @Column(name = "token", length = 100)
+    private String token;
+
+    @Column(name = "user_id")
+    private Long userId; // null for anonymous scans
+
+    @Column(name = "success", nullable = false)
+    private boolean success;
+
+    @Column(name = "result", length = 50)
+    private String result; // response action or error code
+
+    @Column(name = "latency_ms", nullable = false)
+    private long latencyMs;
+
+    @Column(name = "scanned_at", nullable = false)
+    private LocalDateTime scannedAt;
+}
@@ -43,7 +43,7 @@ public class WaitList {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    // Position in the queue for this seat
+    // No longer maintained: the live position is the entry's rank by createdAt (see SeatWaitListQueue)
     private int queuePosition;
 
     // Whether the user has been notified of availability
@@ -1,5 +1,6 @@
 package com.auca.library.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,5 +31,10 @@ public interface BookingParticipantRepository extends JpaRepository<BookingParti
     @Query("SELECT bp FROM BookingParticipant bp WHERE bp.status = 'INVITED' AND " +
            "bp.notificationSent = false")
     List<BookingParticipant> findPendingInvitationNotifications();
+
+    // [email, bookingCount] of accepted participants across many bookings, for one notification per person
+    @Query("SELECT bp.user.email, COUNT(bp) FROM BookingParticipant bp WHERE bp.booking.id IN :bookingIds " +
+           "AND bp.status = 'ACCEPTED' GROUP BY bp.user.email")
+    List<Object[]> countAcceptedParticipantsByEmail(@Param("bookingIds") Collection<Long> bookingIds);
 }
 
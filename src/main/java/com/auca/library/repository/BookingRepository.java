@@ -1,7 +1,9 @@
 package com.auca.library.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -48,6 +50,15 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                         @Param("startTime") LocalDateTime startTime, 
                                         @Param("endTime") LocalDateTime endTime);
     
+    // Same overlap rule as findOverlappingBookings, for many seats at once
+    @Query("SELECT DISTINCT b.seat.id FROM Booking b WHERE b.seat.id IN :seatIds AND " +
+           "((b.startTime <= :endTime AND b.endTime >= :startTime) OR " +
+           "(b.startTime >= :startTime AND b.startTime <= :endTime)) AND " +
+           "b.status IN ('RESERVED', 'CHECKED_IN')")
+    List<Long> findSeatIdsWithOverlappingBookings(@Param("seatIds") Collection<Long> seatIds,
+                                                  @Param("startTime") LocalDateTime startTime,
+                                                  @Param("endTime") LocalDateTime endTime);
+    
     List<Booking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
     
     List<Booking> findByEndTimeAfterAndStartTimeBeforeAndStatusIn(
@@ -168,5 +179,34 @@ List<Booking> findTodaysActiveBookingsByLocation(
                                         @Param("startTime") LocalDateTime startTime,
                                         @Param("endTime") LocalDateTime endTime);
 
-}
+    // ========== QR SCAN FAST PATH ==========
+
+    // The user's active booking on this seat whose check-in window (start +/- 10 min) contains now
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.seat.id = :seatId AND " +
+           "b.status IN ('RESERVED', 'CHECKED_IN') AND " +
+           "b.startTime > :windowFrom AND b.startTime < :windowTo ORDER BY b.startTime")
+    List<Booking> findUserBookingsForSeatInCheckInWindow(@Param("userId") Long userId,
+                                                         @Param("seatId") Long seatId,
+                                                         @Param("windowFrom") LocalDateTime windowFrom,
+                                                         @Param("windowTo") LocalDateTime windowTo);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.seat WHERE b.user.id = :userId AND b.seat.id <> :seatId AND " +
+           "b.status IN ('RESERVED', 'CHECKED_IN') AND b.endTime > :now AND " +
+           "b.startTime >= :dayStart AND b.startTime < :dayEnd ORDER BY b.startTime")
+    List<Booking> findUserActiveBookingsOnOtherSeatsForDay(@Param("userId") Long userId,
+                                                           @Param("seatId") Long seatId,
+                                                           @Param("now") LocalDateTime now,
+                                                           @Param("dayStart") LocalDateTime dayStart,
+                                                           @Param("dayEnd") LocalDateTime dayEnd);
 
+    @Query("SELECT b FROM Booking b WHERE b.seat.id = :seatId AND " +
+           "b.status IN ('RESERVED', 'CHECKED_IN') AND b.endTime > :now ORDER BY b.startTime LIMIT 1")
+    Optional<Booking> findNextActiveBookingForSeat(@Param("seatId") Long seatId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.seat.id = :seatId AND " +
+           "b.status IN ('RESERVED', 'CHECKED_IN') AND b.startTime > :from AND b.startTime < :to")
+    boolean existsActiveBookingStartingBetween(@Param("seatId") Long seatId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+}
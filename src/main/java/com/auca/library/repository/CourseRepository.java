@@ -23,4 +23,9 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     @Query("SELECT c FROM Course c JOIN c.professors p WHERE p.id = :professorId")
     List<Course> findByProfessorId(@Param("professorId") Long professorId);
-}
\ No newline at end of file
+
+    long countByActiveTrue();
+
+    @Query("SELECT COUNT(c) FROM Course c WHERE c.professors IS NOT EMPTY")
+    long countCoursesWithProfessors();
+}
@@ -0,0 +1,24 @@
+package com.auca.library.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.auca.library.model.EmailOutbox;
+import com.auca.library.model.EmailOutbox.OutboxStatus;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            OutboxStatus status, LocalDateTime now, Pageable pageable);
+
+    // Pending digestible mail for these recipients, due or not, to fold into one digest each
+    List<EmailOutbox> findByRecipientInAndStatusAndDigestibleTrue(Collection<String> recipients, OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+}
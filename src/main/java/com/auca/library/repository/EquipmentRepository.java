@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +18,21 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     Optional<Equipment> findByName(String name);
     
     boolean existsByName(String name);
+
+    @Query("SELECT CASE WHEN e.available = true THEN COALESCE(e.availableQuantity, 0) ELSE 0 END " +
+           "FROM Equipment e WHERE e.id = :id")
+    Optional<Integer> findReservableQuantity(@Param("id") Long id);
+
+    // Check and decrement in one statement so concurrent reservations cannot oversell
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Equipment e SET e.availableQuantity = e.availableQuantity - :quantity, e.version = e.version + 1 " +
+           "WHERE e.id = :id AND e.available = true AND e.availableQuantity >= :quantity")
+    int reserveQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Equipment e SET e.availableQuantity = CASE WHEN e.availableQuantity + :quantity > e.quantity " +
+           "THEN e.quantity ELSE e.availableQuantity + :quantity END, e.version = e.version + 1 WHERE e.id = :id")
+    int releaseQuantity(@Param("id") Long id, @Param("quantity") int quantity);
     
     List<Equipment> findByAvailableTrue();
     
@@ -75,5 +91,7 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
      
     @Query("SELECT COUNT(e) FROM Equipment e WHERE e.location = :location ")
     int countByLocation(@Param("location") Location location);
-    
-}
\ No newline at end of file
+
+    @Query("SELECT COUNT(e) FROM Equipment e WHERE e.availableQuantity < :threshold")
+    long countLowInventoryEquipment(@Param("threshold") Integer threshold);
+}
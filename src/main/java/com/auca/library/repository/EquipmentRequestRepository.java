@@ -1,9 +1,11 @@
 package com.auca.library.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,6 +15,8 @@ import com.auca.library.model.User;
 import com.auca.library.model.Location;
 import com.auca.library.model.RoomBooking;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface EquipmentRequestRepository extends JpaRepository<EquipmentRequest, Long> {
     
@@ -75,6 +79,13 @@ List<EquipmentRequest> findByStatusAndReturnedAtIsNotNull(@Param("status") Equip
 List<EquipmentRequest> findConflictingRequests(@Param("equipmentId") Long equipmentId, 
                                                @Param("startTime") LocalDateTime startTime, 
                                                @Param("endTime") LocalDateTime endTime); 
+
+// [id, startTime, endTime, requestedQuantity] of requests holding units after a point in time; loads EquipmentReservationLedger
+@Query("SELECT er.id, er.startTime, er.endTime, er.requestedQuantity FROM EquipmentRequest er " +
+       "WHERE er.equipment.id = :equipmentId AND er.status IN :statuses AND er.endTime > :from")
+List<Object[]> findHoldsForEquipment(@Param("equipmentId") Long equipmentId,
+                                     @Param("statuses") Collection<EquipmentRequest.RequestStatus> statuses,
+                                     @Param("from") LocalDateTime from);
                                                
                                                
 @Query("SELECT COUNT(er) FROM EquipmentRequest er WHERE er.equipment.location = :location AND " +
@@ -103,5 +114,24 @@ List<EquipmentRequest> findConflictingRequests(@Param("equipmentId") Long equipm
                                                  @Param("endTime") LocalDateTime endTime);   
     
     List<EquipmentRequest> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);                                            
-                                     
+
+    // Locked in id order, so a concurrent approval of the same requests waits and then sees them approved
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT er FROM EquipmentRequest er JOIN FETCH er.equipment JOIN FETCH er.user WHERE er.id IN :ids " +
+           "ORDER BY er.id")
+    List<EquipmentRequest> lockAllByIdWithEquipmentAndUser(@Param("ids") Collection<Long> ids);
+
+    // Dashboard aggregates: counted by the database instead of loading every request
+    @Query("SELECT CAST(er.createdAt AS LocalDate), COUNT(er) FROM EquipmentRequest er " +
+           "WHERE er.createdAt >= :since GROUP BY CAST(er.createdAt AS LocalDate)")
+    List<Object[]> countCreatedPerDaySince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT er.status, COUNT(er) FROM EquipmentRequest er GROUP BY er.status")
+    List<Object[]> countGroupedByStatus();
+
+    long countByEscalatedToHodTrue();
+
+    long countByStatusAndCreatedAtBefore(EquipmentRequest.RequestStatus status, LocalDateTime before);
+
+    List<EquipmentRequest> findTop10ByStatusOrderByCreatedAtAsc(EquipmentRequest.RequestStatus status);
 }
@@ -1,10 +1,13 @@
 package com.auca.library.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,9 @@ import com.auca.library.model.Equipment;
 import com.auca.library.model.EquipmentUnit;
 import com.auca.library.model.Location;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface EquipmentUnitRepository extends JpaRepository<EquipmentUnit, Long> {
     
@@ -55,4 +61,11 @@ public interface EquipmentUnitRepository extends JpaRepository<EquipmentUnit, Lo
     @Query("SELECT COUNT(eu) FROM EquipmentUnit eu WHERE eu.equipment = :equipment AND eu.status = :status")
     int countByEquipmentAndStatus(@Param("equipment") Equipment equipment, 
                                  @Param("status") EquipmentUnit.UnitStatus status);
-}
\ No newline at end of file
+    
+    // Lock timeout -2 is Hibernate's SKIP LOCKED: units held by a concurrent approval are left out, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT eu FROM EquipmentUnit eu WHERE eu.equipment.id IN :equipmentIds AND eu.status = 'AVAILABLE' " +
+           "ORDER BY eu.id")
+    List<EquipmentUnit> lockAvailableUnits(@Param("equipmentIds") Collection<Long> equipmentIds);
+}
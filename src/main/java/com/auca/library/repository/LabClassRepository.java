@@ -55,5 +55,6 @@ boolean isLabAvailableForBooking(
     @Param("startTime") LocalDateTime startTime,
     @Param("endTime") LocalDateTime endTime
 );
-                 
-}
\ No newline at end of file
+
+    long countByAvailableTrue();
+}
@@ -1,6 +1,7 @@
 package com.auca.library.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -36,4 +37,9 @@ public interface QRCodeLogRepository extends JpaRepository<QRCodeLog, Long> {
     @Transactional
     @Query("UPDATE QRCodeLog q SET q.isCurrent = false WHERE q.resourceType = :resourceType AND q.resourceId = :resourceId")
     void markAllAsNotCurrentForResource(@Param("resourceType") String resourceType, @Param("resourceId") Long resourceId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE QRCodeLog q SET q.isCurrent = false WHERE q.resourceType = :resourceType AND q.resourceId IN :resourceIds")
+    void markAllAsNotCurrentForResources(@Param("resourceType") String resourceType, @Param("resourceIds") Collection<Long> resourceIds);
 }
\ No newline at end of file
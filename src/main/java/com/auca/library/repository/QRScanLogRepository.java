@@ -0,0 +1,10 @@
+package com.auca.library.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.auca.library.model.QRScanLog;
+
+@Repository
+public interface QRScanLogRepository extends JpaRepository<QRScanLog, Long> {
+}
@@ -19,7 +19,9 @@ public interface RecurringBookingSeriesRepository extends JpaRepository<Recurrin
     
     List<RecurringBookingSeries> findByRoomAndIsActiveTrue(Room room);
     
-    @Query("SELECT rbs FROM RecurringBookingSeries rbs WHERE rbs.isActive = true AND " +
+    // Fetches what expansion and booking inserts read, so the weekly run does not go N+1
+    @Query("SELECT DISTINCT rbs FROM RecurringBookingSeries rbs JOIN FETCH rbs.user " +
+           "LEFT JOIN FETCH rbs.daysOfWeek WHERE rbs.isActive = true AND " +
            "(rbs.lastGeneratedDate IS NULL OR rbs.lastGeneratedDate < :cutoffDate)")
     List<RecurringBookingSeries> findSeriesNeedingGeneration(@Param("cutoffDate") LocalDateTime cutoffDate);
     
@@ -1,12 +1,14 @@
 package com.auca.library.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -30,6 +32,14 @@ public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long>
                                                @Param("now") LocalDateTime now, 
                                                @Param("endTime") LocalDateTime endTime);
     
+    @Query("SELECT COUNT(rb) FROM RoomBooking rb WHERE rb.room = :room AND " +
+           "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND " +
+           "rb.endTime > :startTime AND rb.startTime < :endTime AND rb.id <> :excludeBookingId")
+    long countActiveBookingsForRoomExcluding(@Param("room") Room room,
+                                             @Param("startTime") LocalDateTime startTime,
+                                             @Param("endTime") LocalDateTime endTime,
+                                             @Param("excludeBookingId") Long excludeBookingId);
+    
     @Query("SELECT rb FROM RoomBooking rb WHERE rb.room = :room AND " +
            "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND " +
            "rb.startTime >= :weekStart AND rb.startTime < :weekEnd " +
@@ -69,6 +79,22 @@ public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long>
     Long countConflictingBookings(@Param("room") Room room, 
                                  @Param("startTime") LocalDateTime startTime,
                                  @Param("endTime") LocalDateTime endTime);
+
+    // [roomId, startTime, endTime] of blocking bookings in several rooms, for in-memory conflict checks
+    @Query("SELECT rb.room.id, rb.startTime, rb.endTime FROM RoomBooking rb WHERE rb.room.id IN :roomIds " +
+           "AND rb.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+           "AND rb.startTime < :to AND rb.endTime > :from")
+    List<Object[]> findBookedIntervals(@Param("roomIds") Collection<Long> roomIds,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT rb.room.id, rb.startTime, rb.endTime FROM RoomBooking rb WHERE rb.room.id IN :roomIds " +
+           "AND rb.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+           "AND rb.startTime < :to AND rb.endTime > :from AND rb.id NOT IN :excludeIds")
+    List<Object[]> findBookedIntervalsExcluding(@Param("roomIds") Collection<Long> roomIds,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("excludeIds") Collection<Long> excludeIds);
     
     @Query("SELECT COUNT(rb) FROM RoomBooking rb WHERE rb.room = :room " +
            "AND rb.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
@@ -88,6 +114,25 @@ public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long>
            "DATE(rb.startTime) = DATE(:date)")
     Long countUserBookingsForDate(@Param("user") User user, @Param("date") LocalDateTime date);
     
+    // Everything booking limit validation needs in one round trip:
+    // [bookings on the day, whole hours booked in the week, active recurring series]
+    @Query(value = "SELECT " +
+           "CAST((SELECT COUNT(*) FROM room_bookings rb WHERE rb.user_id = :userId " +
+           "AND rb.status IN ('CONFIRMED', 'CHECKED_IN') " +
+           "AND rb.start_time >= :dayStart AND rb.start_time < :dayEnd) AS bigint), " +
+           "CAST((SELECT COALESCE(SUM(FLOOR(EXTRACT(EPOCH FROM (rb.end_time - rb.start_time)) / 3600)), 0) " +
+           "FROM room_bookings rb WHERE rb.user_id = :userId " +
+           "AND rb.status IN ('CONFIRMED', 'CHECKED_IN') " +
+           "AND rb.start_time BETWEEN :weekStart AND :weekEnd) AS bigint), " +
+           "CAST((SELECT COUNT(*) FROM recurring_booking_series rbs WHERE rbs.user_id = :userId " +
+           "AND rbs.is_active = true) AS bigint)",
+           nativeQuery = true)
+    List<Object[]> findBookingQuotaUsage(@Param("userId") Long userId,
+                                         @Param("dayStart") LocalDateTime dayStart,
+                                         @Param("dayEnd") LocalDateTime dayEnd,
+                                         @Param("weekStart") LocalDateTime weekStart,
+                                         @Param("weekEnd") LocalDateTime weekEnd);
+    
     @Query("SELECT COUNT(rb) FROM RoomBooking rb WHERE rb.user = :user AND " +
            "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND " +
            "rb.startTime >= :weekStart AND rb.startTime < :weekEnd")
@@ -180,6 +225,37 @@ public interface RoomBookingRepository extends JpaRepository<RoomBooking, Long>
            "SUM(CASE WHEN rb.status = 'NO_SHOW' THEN 1 ELSE 0 END)) " +
            "FROM RoomBooking rb WHERE rb.recurringBookingSeries = :series")
     RecurringSeriesStats getRecurringSeriesStats(@Param("series") RecurringBookingSeries series);
+
+    // [id, roomId, startTime, endTime] of the series' bookings a bulk series operation may touch
+    @Query("SELECT rb.id, rb.room.id, rb.startTime, rb.endTime FROM RoomBooking rb " +
+           "WHERE rb.recurringBookingSeries.id = :seriesId AND rb.startTime > :from " +
+           "AND rb.status IN ('PENDING', 'CONFIRMED') ORDER BY rb.startTime")
+    List<Object[]> findOpenSeriesOccurrences(@Param("seriesId") Long seriesId, @Param("from") LocalDateTime from);
+
+    // Bulk updates bypass @PreUpdate, so updatedAt is set explicitly
+    @Modifying
+    @Query("UPDATE RoomBooking rb SET rb.status = :status, rb.updatedAt = :now " +
+           "WHERE rb.id IN :ids AND rb.status IN ('PENDING', 'CONFIRMED')")
+    int updateOpenBookingStatus(@Param("ids") Collection<Long> ids,
+                                @Param("status") RoomBooking.BookingStatus status,
+                                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE room_bookings SET start_time = start_time + :minutes * INTERVAL '1 minute', " +
+           "end_time = end_time + :minutes * INTERVAL '1 minute', updated_at = :now WHERE id IN (:ids)",
+           nativeQuery = true)
+    int shiftBookings(@Param("ids") Collection<Long> ids,
+                      @Param("minutes") int minutes,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT MAX(rb.maxParticipants) FROM RoomBooking rb WHERE rb.id IN :ids")
+    Integer findMaxParticipants(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE RoomBooking rb SET rb.room = :room, rb.updatedAt = :now WHERE rb.id IN :ids")
+    int moveBookingsToRoom(@Param("ids") Collection<Long> ids,
+                           @Param("room") Room room,
+                           @Param("now") LocalDateTime now);
     
     // ========== PERIOD QUERIES ==========
     
@@ -348,5 +424,34 @@ List<RoomBooking> findBookingsInPeriod(@Param("startTime") LocalDateTime startTi
            "rb.startTime >= :startTime AND rb.endTime <= :endTime")
     List<RoomBooking> findByUserAndTimeRange(@Param("user") User user,
                                             @Param("startTime") LocalDateTime startTime,
-                                            @Param("endTime") LocalDateTime endTime);                               
-}
\ No newline at end of file
+                                            @Param("endTime") LocalDateTime endTime);
+
+    // ========== QR SCAN FAST PATH ==========
+
+    // The user's own booking of this room whose check-in window (start +/- 10 min) contains now
+    @Query("SELECT rb FROM RoomBooking rb WHERE rb.user.id = :userId AND rb.room.id = :roomId AND " +
+           "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND " +
+           "rb.startTime > :windowFrom AND rb.startTime < :windowTo ORDER BY rb.startTime")
+    List<RoomBooking> findUserBookingsForRoomInCheckInWindow(@Param("userId") Long userId,
+                                                            @Param("roomId") Long roomId,
+                                                            @Param("windowFrom") LocalDateTime windowFrom,
+                                                            @Param("windowTo") LocalDateTime windowTo);
+
+    // Bookings of this room in the check-in window where the user is an accepted participant
+    @Query("SELECT rb FROM RoomBooking rb JOIN rb.participants p WHERE rb.room.id = :roomId AND " +
+           "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND p.user.id = :userId AND p.status = 'ACCEPTED' AND " +
+           "rb.startTime > :windowFrom AND rb.startTime < :windowTo ORDER BY rb.startTime")
+    List<RoomBooking> findParticipantBookingsForRoomInCheckInWindow(@Param("userId") Long userId,
+                                                                   @Param("roomId") Long roomId,
+                                                                   @Param("windowFrom") LocalDateTime windowFrom,
+                                                                   @Param("windowTo") LocalDateTime windowTo);
+
+    @Query("SELECT rb FROM RoomBooking rb JOIN FETCH rb.room WHERE rb.user.id = :userId AND rb.room.id <> :roomId AND " +
+           "rb.status IN ('CONFIRMED', 'CHECKED_IN') AND rb.endTime > :now AND " +
+           "rb.startTime >= :dayStart AND rb.startTime < :dayEnd ORDER BY rb.startTime")
+    List<RoomBooking> findUserActiveBookingsOnOtherRoomsForDay(@Param("userId") Long userId,
+                                                              @Param("roomId") Long roomId,
+                                                              @Param("now") LocalDateTime now,
+                                                              @Param("dayStart") LocalDateTime dayStart,
+                                                              @Param("dayEnd") LocalDateTime dayEnd);
+}
@@ -1,9 +1,11 @@
 package com.auca.library.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -30,4 +32,23 @@ public interface RoomWaitlistRepository extends JpaRepository<RoomWaitlist, Long
     
     @Query("SELECT rw FROM RoomWaitlist rw WHERE rw.expiresAt <= :now")
     List<RoomWaitlist> findExpiredWaitlistEntries(@Param("now") LocalDateTime now);
+
+    // Entries that can still be offered a slot; loads RoomWaitlistIndex
+    @Query("SELECT rw FROM RoomWaitlist rw WHERE rw.room.id = :roomId AND rw.isActive = true AND " +
+           "rw.notificationSent = false AND (rw.expiresAt IS NULL OR rw.expiresAt > :now)")
+    List<RoomWaitlist> findOpenWaitlistForRoom(@Param("roomId") Long roomId, @Param("now") LocalDateTime now);
+
+    // Claims the entries that are still open and returns only those, so when two
+    // offers race for the same entry exactly one of them gets it back and notifies
+    @Query(value = "UPDATE room_waitlists SET notification_sent = true WHERE id IN (:ids) AND " +
+                   "is_active = true AND notification_sent = false RETURNING id",
+           nativeQuery = true)
+    List<Long> claimForNotification(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT rw FROM RoomWaitlist rw JOIN FETCH rw.user JOIN FETCH rw.room WHERE rw.id IN :ids")
+    List<RoomWaitlist> findAllByIdWithUserAndRoom(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE RoomWaitlist rw SET rw.isActive = false WHERE rw.id IN :ids")
+    int deactivate(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
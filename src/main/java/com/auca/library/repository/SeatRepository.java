@@ -1,5 +1,6 @@
 package com.auca.library.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,6 +62,9 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     List<Seat> findByLocationAndZoneTypeAndHasDesktop(Location location, String zoneType, boolean hasDesktop);
 
     boolean existsBySeatNumber(String seatNumber);
+    
+    @Query("SELECT s.seatNumber FROM Seat s WHERE s.seatNumber IN :seatNumbers")
+    List<String> findExistingSeatNumbers(@Param("seatNumbers") Collection<String> seatNumbers);
 
 
     @Query("SELECT COUNT(s) FROM Seat s WHERE s.location = :location")
@@ -216,5 +216,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u JOIN u.roles r WHERE u.location = :location AND r.name = 'ROLE_PROFESSOR'")
     List<User> findProfessorsByLocation(@Param("location") Location location);
-                                     
-}
\ No newline at end of file
+
+    @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.roles r WHERE r.name = 'ROLE_PROFESSOR' AND u.professorApproved = true")
+    long countApprovedProfessors();
+
+    @Query("SELECT COUNT(DISTINCT u) FROM User u JOIN u.roles r WHERE r.name = 'ROLE_PROFESSOR' " +
+           "AND EXISTS (SELECT er FROM EquipmentRequest er WHERE er.user = u AND er.createdAt >= :since)")
+    long countActiveProfessors(@Param("since") LocalDateTime since);
+}
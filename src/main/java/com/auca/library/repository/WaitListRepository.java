@@ -4,9 +4,13 @@ import com.auca.library.model.Seat;
 import com.auca.library.model.User;
 import com.auca.library.model.WaitList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,7 +19,8 @@ public interface WaitListRepository extends JpaRepository<WaitList, Long> {
     
     List<WaitList> findBySeatAndStatusOrderByQueuePositionAsc(Seat seat, WaitList.WaitListStatus status);
     
-    @Query("SELECT w FROM WaitList w WHERE w.seat.id = ?1 AND w.status = 'WAITING' ORDER BY w.queuePosition ASC")
+    // Queue order is join order; position is the rank in this list
+    @Query("SELECT w FROM WaitList w WHERE w.seat.id = ?1 AND w.status = 'WAITING' ORDER BY w.createdAt ASC, w.id ASC")
     List<WaitList> findWaitingListForSeat(Long seatId);
     
     @Query("SELECT COUNT(w) FROM WaitList w WHERE w.seat.id = ?1 AND w.status = 'WAITING'")
@@ -23,4 +28,20 @@ public interface WaitListRepository extends JpaRepository<WaitList, Long> {
     
     @Query("SELECT w FROM WaitList w WHERE w.user.id = ?1 AND w.seat.id = ?2 AND w.status = 'WAITING'")
     List<WaitList> findActiveWaitListItemByUserAndSeat(Long userId, Long seatId);
-}
\ No newline at end of file
+
+    // Batched queue transitions; the status guard skips entries another transaction already moved
+    @Modifying
+    @Query("UPDATE WaitList w SET w.status = :status WHERE w.id IN :ids AND w.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") WaitList.WaitListStatus status);
+
+    @Modifying
+    @Query("UPDATE WaitList w SET w.status = :status, w.notified = true, w.notifiedAt = :notifiedAt " +
+           "WHERE w.id IN :ids AND w.status = 'WAITING'")
+    int markNotified(@Param("ids") Collection<Long> ids,
+                     @Param("status") WaitList.WaitListStatus status,
+                     @Param("notifiedAt") LocalDateTime notifiedAt);
+
+    @Query("SELECT w FROM WaitList w JOIN FETCH w.user JOIN FETCH w.seat WHERE w.id IN :ids AND w.status = :status")
+    List<WaitList> findByIdInAndStatusWithUserAndSeat(@Param("ids") Collection<Long> ids,
+                                                      @Param("status") WaitList.WaitListStatus status);
+}
@@ -23,7 +23,6 @@ import com.auca.library.model.Booking.BookingStatus;
 import com.auca.library.model.Location;
 import com.auca.library.model.WaitList;
 import com.auca.library.repository.BookingRepository;
-import com.auca.library.repository.WaitListRepository;
 
 import jakarta.mail.MessagingException;
 
@@ -40,7 +39,7 @@ public class AdminBookingService {
     private EmailService emailService;
     
     @Autowired
-    private WaitListRepository waitListRepository;
+    private WaitListService waitListService;
 
     @Autowired
     private NotificationService notificationService;
@@ -241,48 +240,32 @@ public BookingDTO markAsNoShow(Long id, String cancellationReason) {
     
     // Create our own waitlist notification method since the original is private
     private void notifyWaitListUsers(Long seatId, LocalDateTime startTime, LocalDateTime endTime) {
-        // Find users waiting for this seat with overlapping time
-        List<WaitList> waitingList = waitListRepository.findWaitingListForSeat(seatId);
-
-        for (WaitList waitItem : waitingList) {
-            if (isTimeOverlapping(waitItem.getRequestedStartTime(), waitItem.getRequestedEndTime(), 
-                                startTime, endTime) && !waitItem.isNotified()) {
-                
-                // Update wait list item
-                waitItem.setNotified(true);
-                waitItem.setNotifiedAt(LocalDateTime.now());
-                waitItem.setStatus(WaitList.WaitListStatus.NOTIFIED);
-                waitListRepository.save(waitItem);
-
-                 // Send notification via NotificationService
-                notificationService.sendWaitListNotification(
+        // Users waiting for this seat with overlapping time, marked notified in one update
+        List<WaitList> notifiedList = waitListService.notifyOverlapping(seatId, startTime, endTime);
+
+        for (WaitList waitItem : notifiedList) {
+            // Send notification via NotificationService
+            notificationService.sendWaitListNotification(
                 waitItem.getUser(),
                 waitItem.getSeat(),
                 waitItem.getRequestedStartTime(),
                 waitItem.getRequestedEndTime()
             );
-                
-                // Send notification email
-                try {
-                    emailService.sendWaitListNotification(
-                        waitItem.getUser().getEmail(),
-                        waitItem.getSeat().getSeatNumber(),
-                        waitItem.getRequestedStartTime(),
-                        waitItem.getRequestedEndTime());
-                } catch (MessagingException e) {
-                    // Log error but continue processing
-                    System.err.println("Failed to send wait list notification: " + e.getMessage());
-                }
+
+            // Send notification email
+            try {
+                emailService.sendWaitListNotification(
+                    waitItem.getUser().getEmail(),
+                    waitItem.getSeat().getSeatNumber(),
+                    waitItem.getRequestedStartTime(),
+                    waitItem.getRequestedEndTime());
+            } catch (MessagingException e) {
+                // Log error but continue processing
+                System.err.println("Failed to send wait list notification: " + e.getMessage());
             }
         }
     }
     
-    // Helper method to check time overlap
-    private boolean isTimeOverlapping(LocalDateTime start1, LocalDateTime end1, 
-                                LocalDateTime start2, LocalDateTime end2) {
-        return start1.isBefore(end2) && end1.isAfter(start2);
-    }
-    
      
 
     
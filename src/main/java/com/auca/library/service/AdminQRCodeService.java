@@ -6,28 +6,39 @@ import com.auca.library.dto.response.*;
 import com.auca.library.exception.ResourceNotFoundException;
 import com.auca.library.model.*;
 import com.auca.library.repository.*;
+import com.auca.library.service.QRCodeBulkGenerationService.BulkGenerationResult;
 import com.google.zxing.WriterException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 @Service
 public class AdminQRCodeService {
 
+    private static final int ZIP_BUFFER_SIZE = 64 * 1024;
+
     @Autowired
     private SeatRepository seatRepository;
 
@@ -46,6 +57,12 @@ public class AdminQRCodeService {
     @Autowired
     private QRCodeStorageService qrStorageService;
 
+    @Autowired
+    private QRCodeBulkGenerationService bulkGenerationService;
+
+    @Autowired
+    private QRTokenCacheService qrTokenCache;
+
     /**
      * Generate QR code for a seat
      */
@@ -84,6 +101,7 @@ public class AdminQRCodeService {
         Integer currentVersion = seat.getQrVersion();
         seat.setQrVersion(currentVersion == null ? 1 : currentVersion + 1);
         seatRepository.save(seat);
+        qrTokenCache.evictSeats(List.of(seatId));
         
         qrCodeLogRepository.markAllAsNotCurrentForResource("SEAT", seatId);
         // Log generation
@@ -155,6 +173,7 @@ public class AdminQRCodeService {
         Integer currentVersion = room.getQrVersion();
         room.setQrVersion(currentVersion == null ? 1 : currentVersion + 1);
         roomRepository.save(room);
+        qrTokenCache.evictRooms(List.of(roomId));
         
         // Log generation
         QRCodeLog log = new QRCodeLog("ROOM", roomId, admin, newToken);
@@ -208,74 +227,29 @@ public class AdminQRCodeService {
 
     
 // bulk set QRcode generation
-@Transactional
 public BulkQRGenerationResponse bulkGenerateSeatQRCodes(QRBulkGenerationRequest request, String adminEmail) {
+    return bulkGenerateSeatQRCodesWithImages(request, adminEmail).response();
+}
+
+/**
+ * Bulk seat generation that also returns the stored images for a ZIP download
+ */
+public BulkGenerationResult bulkGenerateSeatQRCodesWithImages(QRBulkGenerationRequest request, String adminEmail) {
     User admin = userRepository.findByEmail(adminEmail)
             .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
     
-    BulkQRGenerationResponse response = new BulkQRGenerationResponse();
-    response.setStartTime(LocalDateTime.now());
-    
-    List<Long> successfulIds = new ArrayList<>();
-    List<String> errors = new ArrayList<>();
-    Map<String, byte[]> generatedQRCodes = new HashMap<>();
-    
-    List<Seat> seats = getSeatsForBulkGeneration(request);
-    
-    for (Seat seat : seats) {
-        try {
-            boolean shouldGenerate = request.isRegenerateExisting() || 
-                                   seat.getQrImagePath() == null || 
-                                   seat.getQrImagePath().trim().isEmpty();
-            
-            if (!shouldGenerate) {
-                continue; // Skip this seat
-            }
-            
-            // Generate QR code
-            String newToken = qrGenerationService.generateUniqueToken();
-            String qrUrl = qrGenerationService.generateSeatQRUrl(newToken);
-            byte[] qrImage = qrGenerationService.generateQRCodeImage(qrUrl, seat.getSeatNumber());
-            String filename = qrGenerationService.generateAndSaveQRCode(qrUrl, "SEAT", seat.getSeatNumber());
-            String imagePath = qrStorageService.storeQRCode(qrImage, filename, "seat");
-            
-            // Update seat
-            seat.setQrCodeToken(newToken);
-            seat.setQrCodeUrl(qrUrl);
-            seat.setQrImagePath(imagePath);
-            seat.setQrGeneratedAt(LocalDateTime.now());
-            seat.setQrVersion(seat.getQrVersion() != null ? seat.getQrVersion() + 1 : 1);
-            seatRepository.save(seat);
-            
-            // Log generation
-            QRCodeLog log = new QRCodeLog("SEAT", seat.getId(), admin, newToken);
-            log.setGenerationReason("Bulk generation");
-            log.setQrVersion(seat.getQrVersion());
-            qrCodeLogRepository.save(log);
-            
-            successfulIds.add(seat.getId());
-            
-            // Store for download if requested
-            if (request.isGenerateAndDownload()) {
-                generatedQRCodes.put(seat.getSeatNumber() + "_QR.png", qrImage);
-            }
-            
-        } catch (Exception e) {
-            errors.add("Failed to generate QR for seat " + seat.getSeatNumber() + ": " + e.getMessage());
-        }
-    }
-    
-    response.setEndTime(LocalDateTime.now());
-    response.setTotalRequested(seats.size());
-    response.setSuccessCount(successfulIds.size());
-    response.setFailureCount(errors.size());
-    response.setSuccessfulResourceIds(successfulIds);
-    response.setErrors(errors);
-    response.setGeneratedQRCodes(generatedQRCodes);
-    response.setDownloadAvailable(request.isGenerateAndDownload() && !generatedQRCodes.isEmpty());
-    response.setDownloadMessage(response.getSuccessCount() + " QR codes generated successfully");
+    // Rendering, storage and batched commits happen in the bulk pipeline
+    return bulkGenerationService.generateSeatQRCodes(getSeatsForBulkGeneration(request), request, admin);
+}
+
+/**
+ * Start seat QR generation as a background job with progress tracking
+ */
+public QRGenerationJobResponse startBulkSeatGenerationJob(QRBulkGenerationRequest request, String adminEmail) {
+    User admin = userRepository.findByEmail(adminEmail)
+            .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
     
-    return response;
+    return bulkGenerationService.startSeatJob(getSeatsForBulkGeneration(request), request, admin);
 }
 
 
@@ -296,94 +270,58 @@ public BulkQRGenerationResponse bulkGenerateSeatQRCodes(QRBulkGenerationRequest
 }
 
     // bulkGenerateRoomQRCodes 
-@Transactional
 public BulkQRGenerationResponse bulkGenerateRoomQRCodes(QRBulkGenerationRequest request, String adminEmail) {
+    return bulkGenerateRoomQRCodesWithImages(request, adminEmail).response();
+}
+
+/**
+ * Bulk room generation that also returns the stored images for a ZIP download
+ */
+public BulkGenerationResult bulkGenerateRoomQRCodesWithImages(QRBulkGenerationRequest request, String adminEmail) {
     User admin = userRepository.findByEmail(adminEmail)
             .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
     
-    BulkQRGenerationResponse response = new BulkQRGenerationResponse();
-    response.setStartTime(LocalDateTime.now());
-    
-    List<Long> successfulIds = new ArrayList<>();
-    List<String> errors = new ArrayList<>();
-    Map<String, byte[]> generatedQRCodes = new HashMap<>();
-    
-    List<Room> rooms = getRoomsForBulkGeneration(request);
-    
-    for (Room room : rooms) {
-        try {
-            boolean shouldGenerate = request.isRegenerateExisting() || 
-                                   room.getQrImagePath() == null || 
-                                   room.getQrImagePath().trim().isEmpty();
-            
-            if (!shouldGenerate) {
-                continue; // Skip this room
-            }
-            
-            // Generate QR code
-            String newToken = qrGenerationService.generateUniqueToken();
-            String qrUrl = qrGenerationService.generateRoomQRUrl(newToken);
-            byte[] qrImage = qrGenerationService.generateQRCodeImage(qrUrl, room.getRoomNumber());
-            String filename = qrGenerationService.generateAndSaveQRCode(qrUrl, "ROOM", room.getRoomNumber());
-            String imagePath = qrStorageService.storeQRCode(qrImage, filename, "room");
-            
-            // Update room
-            room.setQrCodeToken(newToken);
-            room.setQrCodeUrl(qrUrl);
-            room.setQrImagePath(imagePath);
-            room.setQrGeneratedAt(LocalDateTime.now());
-            room.setQrVersion(room.getQrVersion() != null ? room.getQrVersion() + 1 : 1);
-            roomRepository.save(room);
-            
-            // Log generation
-            QRCodeLog log = new QRCodeLog("ROOM", room.getId(), admin, newToken);
-            log.setGenerationReason("Bulk generation");
-            log.setQrVersion(room.getQrVersion());
-            qrCodeLogRepository.save(log);
-            
-            successfulIds.add(room.getId());
-            
-            // Store for download if requested
-            if (request.isGenerateAndDownload()) {
-                generatedQRCodes.put(room.getRoomNumber() + "_QR.png", qrImage);
-            }
-            
-        } catch (Exception e) {
-            errors.add("Failed to generate QR for room " + room.getRoomNumber() + ": " + e.getMessage());
-            e.printStackTrace(); // For debugging
-        }
-    }
-    
-    response.setEndTime(LocalDateTime.now());
-    response.setTotalRequested(rooms.size());
-    response.setSuccessCount(successfulIds.size());
-    response.setFailureCount(errors.size());
-    response.setSuccessfulResourceIds(successfulIds);
-    response.setErrors(errors);
-    response.setGeneratedQRCodes(generatedQRCodes);
-    response.setDownloadAvailable(request.isGenerateAndDownload() && !generatedQRCodes.isEmpty());
-    response.setDownloadMessage(response.getSuccessCount() + " QR codes generated successfully");
-    
-    return response;
+    return bulkGenerationService.generateRoomQRCodes(getRoomsForBulkGeneration(request), request, admin);
 }
 
-// Helper method to check if QR should be generated for room
-private boolean shouldGenerateQRForRoom(Room room, QRBulkGenerationRequest request) {
-    // Always generate if regenerateExisting is true
-    if (request.isRegenerateExisting()) {
-        return true;
-    }
+/**
+ * Start room QR generation as a background job with progress tracking
+ */
+public QRGenerationJobResponse startBulkRoomGenerationJob(QRBulkGenerationRequest request, String adminEmail) {
+    User admin = userRepository.findByEmail(adminEmail)
+            .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
     
-    if (room.getQrImagePath() == null || room.getQrImagePath().trim().isEmpty()) {
-        return true;
-    }
-    if (!qrStorageService.exists(room.getQrImagePath())) {
-        return true;
+    return bulkGenerationService.startRoomJob(getRoomsForBulkGeneration(request), request, admin);
+}
+
+/**
+ * Get progress of a bulk generation job
+ */
+public QRGenerationJobResponse getBulkGenerationJob(String jobId) {
+    QRGenerationJobResponse job = bulkGenerationService.getJobStatus(jobId);
+    if (job == null) {
+        throw new ResourceNotFoundException("QR generation job not found: " + jobId);
     }
-    
-    return false;
+    return job;
 }
 
+/**
+ * Get all tracked bulk generation jobs, newest first
+ */
+public List<QRGenerationJobResponse> getBulkGenerationJobs() {
+    return bulkGenerationService.getJobs();
+}
+
+/**
+ * Cancel a running bulk generation job
+ */
+public QRGenerationJobResponse cancelBulkGenerationJob(String jobId) {
+    QRGenerationJobResponse job = bulkGenerationService.cancelJob(jobId);
+    if (job == null) {
+        throw new ResourceNotFoundException("QR generation job not found: " + jobId);
+    }
+    return job;
+}
 
     
 
@@ -391,7 +329,7 @@ private boolean shouldGenerateQRForRoom(Room room, QRBulkGenerationRequest reque
      * Download QR code image
      */
     public ResponseEntity<Resource> downloadQRCode(String type, Long resourceId) throws IOException {
-        byte[] qrImage;
+        Resource resource;
         String filename;
         
         if ("seat".equalsIgnoreCase(type)) {
@@ -402,7 +340,7 @@ private boolean shouldGenerateQRForRoom(Room room, QRBulkGenerationRequest reque
                 throw new ResourceNotFoundException("QR code not generated for this seat");
             }
             
-            qrImage = qrStorageService.retrieveQRCode(seat.getQrImagePath());
+            resource = qrStorageService.getQRCodeResource(seat.getQrImagePath());
             filename = "QR_SEAT_" + seat.getSeatNumber() + ".png";
             
         } else if ("room".equalsIgnoreCase(type)) {
@@ -413,19 +351,17 @@ private boolean shouldGenerateQRForRoom(Room room, QRBulkGenerationRequest reque
                 throw new ResourceNotFoundException("QR code not generated for this room");
             }
             
-            qrImage = qrStorageService.retrieveQRCode(room.getQrImagePath());
+            resource = qrStorageService.getQRCodeResource(room.getQrImagePath());
             filename = "QR_ROOM_" + room.getRoomNumber() + ".png";
             
         } else {
             throw new IllegalArgumentException("Invalid resource type");
         }
         
-        ByteArrayResource resource = new ByteArrayResource(qrImage);
-        
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .contentType(MediaType.IMAGE_PNG)
-                .contentLength(qrImage.length)
+                .contentLength(resource.contentLength())
                 .body(resource);
     }
 
@@ -433,21 +369,16 @@ private boolean shouldGenerateQRForRoom(Room room, QRBulkGenerationRequest reque
     /**
  * Download selected QR codes as ZIP
  */
-public ResponseEntity<Resource> downloadSelectedQRCodes(QRBulkDownloadRequest request) throws IOException {
-    Map<String, byte[]> qrCodes = new HashMap<>();
+public ResponseEntity<StreamingResponseBody> downloadSelectedQRCodes(QRBulkDownloadRequest request) throws IOException {
+    // Only names and paths are collected here; image bytes are streamed from disk
+    Map<String, String> qrCodePaths = new LinkedHashMap<>();
     
     if ("SEAT".equalsIgnoreCase(request.getType()) || "SEATS".equalsIgnoreCase(request.getType())) {
         List<Seat> seats = getSeatsForDownload(request);
         
         for (Seat seat : seats) {
             if (seat.getQrImagePath() != null && !seat.getQrImagePath().isEmpty()) {
-                try {
-                    byte[] qrImage = qrStorageService.retrieveQRCode(seat.getQrImagePath());
-                    qrCodes.put(seat.getSeatNumber() + "_QR.png", qrImage);
-                } catch (Exception e) {
-                    System.err.println("Failed to read QR code for seat " + seat.getSeatNumber() + ": " + e.getMessage());
-                    // Continue with other QR codes
-                }
+                qrCodePaths.put(seat.getSeatNumber() + "_QR.png", seat.getQrImagePath());
             }
         }
         
@@ -456,24 +387,14 @@ public ResponseEntity<Resource> downloadSelectedQRCodes(QRBulkDownloadRequest re
         
         for (Room room : rooms) {
             if (room.getQrImagePath() != null && !room.getQrImagePath().isEmpty()) {
-                try {
-                    byte[] qrImage = qrStorageService.retrieveQRCode(room.getQrImagePath());
-                    qrCodes.put(room.getRoomNumber() + "_QR.png", qrImage);
-                } catch (Exception e) {
-                    System.err.println("Failed to read QR code for room " + room.getRoomNumber() + ": " + e.getMessage());
-                    // Continue with other QR codes
-                }
+                qrCodePaths.put(room.getRoomNumber() + "_QR.png", room.getQrImagePath());
             }
         }
     } else {
         throw new IllegalArgumentException("Invalid resource type: " + request.getType());
     }
     
-    if (qrCodes.isEmpty()) {
-        throw new FileNotFoundException("No QR codes found for download");
-    }
-    
-    return createZipDownload(qrCodes, request.getType());
+    return createZipDownload(qrCodePaths, request.getType());
 }
 
 /**
@@ -503,22 +424,40 @@ private List<Room> getRoomsForDownload(QRBulkDownloadRequest request) {
 }
 
 /**
- * Create ZIP file from QR codes map
+ * Stream a ZIP of stored QR codes. Files are checked up front so a missing
+ * image is skipped instead of breaking the archive half way through.
  */
-private ResponseEntity<Resource> createZipDownload(Map<String, byte[]> qrCodes, String type) throws IOException {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+private ResponseEntity<StreamingResponseBody> createZipDownload(Map<String, String> qrCodePaths, String type) throws IOException {
+    Map<String, Path> files = new LinkedHashMap<>();
     
-    try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-        for (Map.Entry<String, byte[]> entry : qrCodes.entrySet()) {
-            ZipEntry zipEntry = new ZipEntry(entry.getKey());
-            zos.putNextEntry(zipEntry);
-            zos.write(entry.getValue());
-            zos.closeEntry();
+    for (Map.Entry<String, String> entry : qrCodePaths.entrySet()) {
+        try {
+            Path file = qrStorageService.getLocalPath(entry.getValue());
+            if (Files.isReadable(file)) {
+                files.put(entry.getKey(), file);
+            } else {
+                System.err.println("QR code file not found for " + entry.getKey() + ": " + entry.getValue());
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to read QR code for " + entry.getKey() + ": " + e.getMessage());
+            // Continue with other QR codes
         }
     }
     
-    byte[] zipBytes = baos.toByteArray();
-    ByteArrayResource resource = new ByteArrayResource(zipBytes);
+    if (files.isEmpty()) {
+        throw new FileNotFoundException("No QR codes found for download");
+    }
+    
+    StreamingResponseBody body = outputStream -> {
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(outputStream, ZIP_BUFFER_SIZE))) {
+            WritableByteChannel zipChannel = Channels.newChannel(zos);
+            ByteBuffer buffer = ByteBuffer.allocate(ZIP_BUFFER_SIZE);
+            
+            for (Map.Entry<String, Path> entry : files.entrySet()) {
+                writeStoredZipEntry(zos, zipChannel, buffer, entry.getKey(), entry.getValue());
+            }
+        }
+    };
     
     String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
     String fileName = type.toLowerCase() + "_qrcodes_" + timestamp + ".zip";
@@ -526,19 +465,50 @@ private ResponseEntity<Resource> createZipDownload(Map<String, byte[]> qrCodes,
     return ResponseEntity.ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
             .contentType(MediaType.APPLICATION_OCTET_STREAM)
-            .contentLength(zipBytes.length)
-            .body(resource);
+            .body(body);
+}
+
+/**
+ * Copy one PNG into the archive without recompressing it. STORED entries need
+ * their CRC and size before the data, so the file is read once for the CRC and
+ * then transferred through the channel.
+ */
+private void writeStoredZipEntry(ZipOutputStream zos, WritableByteChannel zipChannel, ByteBuffer buffer,
+                                 String entryName, Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        long size = channel.size();
+        CRC32 crc = new CRC32();
+        buffer.clear();
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            crc.update(buffer);
+            buffer.clear();
+        }
+        
+        ZipEntry zipEntry = new ZipEntry(entryName);
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(size);
+        zipEntry.setCompressedSize(size);
+        zipEntry.setCrc(crc.getValue());
+        zos.putNextEntry(zipEntry);
+        
+        long position = 0;
+        while (position < size) {
+            position += channel.transferTo(position, size - position, zipChannel);
+        }
+        zos.closeEntry();
+    }
 }
 
     
      // Download bulk QR codes as ZIP
      
-     public ResponseEntity<Resource> downloadBulkQRCodes(Map<String, byte[]> qrCodes, String type) throws IOException {
-    if (qrCodes.isEmpty()) {
+     public ResponseEntity<StreamingResponseBody> downloadBulkQRCodes(Map<String, String> qrCodePaths, String type) throws IOException {
+    if (qrCodePaths.isEmpty()) {
         throw new IOException("No QR codes available for download");
     }
     
-    return createZipDownload(qrCodes, type);
+    return createZipDownload(qrCodePaths, type);
 }
 
     /**
@@ -27,6 +27,8 @@ public class AdminRoomBookingService {
     private BookingParticipantRepository participantRepository;
     @Autowired
     private NotificationService notificationService;
+    @Autowired
+    private WaitListService waitListService;
 
     public List<EnhancedAdminBookingResponse> getAllBookings() {
         List<RoomBooking> bookings = roomBookingRepository.findAll();
@@ -296,6 +298,7 @@ public class AdminRoomBookingService {
         // Store admin cancellation info (you might want to add these fields to RoomBooking entity)
         booking.setRejectionReason("Admin Cancelled: " + request.getCancellationReason());
         roomBookingRepository.save(booking);
+        waitListService.processWaitlistForAvailableSlot(booking.getRoom(), booking.getStartTime(), booking.getEndTime());
         
         // Notify booking owner
         notificationService.addNotification(
@@ -332,6 +335,7 @@ public class AdminRoomBookingService {
         int successCount = 0;
         int failureCount = 0;
         List<String> errors = new ArrayList<>();
+        List<RoomWaitlistIndex.FreedWindow> freedWindows = new ArrayList<>();
         
         for (RoomBooking booking : bookings) {
             try {
@@ -369,6 +373,8 @@ public class AdminRoomBookingService {
                     });
                 }
                 
+                freedWindows.add(new RoomWaitlistIndex.FreedWindow(
+                        booking.getRoom().getId(), booking.getStartTime(), booking.getEndTime()));
                 successCount++;
                 
             } catch (Exception e) {
@@ -378,6 +384,8 @@ public class AdminRoomBookingService {
         }
         
         roomBookingRepository.saveAll(bookings);
+        // Every freed window is offered to the waitlist in one pass
+        waitListService.processFreedRoomSlots(freedWindows);
         return new BulkOperationResponse(successCount, failureCount, errors);
     }
 
@@ -50,6 +50,9 @@ public class AdminRoomService {
     @Autowired
     private QRCodeLogRepository qrCodeLogRepository;
 
+    @Autowired
+    private QRTokenCacheService qrTokenCache;
+
     // === Room CRUD Operations ===
 
     public List<RoomResponse> getAllRooms() {
@@ -160,6 +163,7 @@ public class AdminRoomService {
         }
 
         room = roomRepository.save(room);
+        qrTokenCache.evictRooms(List.of(id));
         return mapToResponse(room);
     }
 
@@ -167,6 +171,7 @@ public class AdminRoomService {
     public MessageResponse deleteRoom(Long id) {
         Room room = findRoomById(id);
         roomRepository.delete(room);
+        qrTokenCache.evictRooms(List.of(id));
         return new MessageResponse("Room deleted successfully");
     }
 
@@ -177,6 +182,7 @@ public class AdminRoomService {
         Room room = findRoomById(id);
         room.setAvailable(!room.isAvailable());
         room = roomRepository.save(room);
+        qrTokenCache.evictRooms(List.of(id));
         return mapToResponse(room);
     }
 
@@ -187,6 +193,7 @@ public class AdminRoomService {
         room.setMaintenanceEnd(endTime);
         room.setMaintenanceNotes(notes);
         room = roomRepository.save(room);
+        qrTokenCache.evictRooms(List.of(id));
         return mapToResponse(room);
     }
 
@@ -197,6 +204,7 @@ public class AdminRoomService {
         room.setMaintenanceEnd(null);
         room.setMaintenanceNotes(null);
         room = roomRepository.save(room);
+        qrTokenCache.evictRooms(List.of(id));
         return mapToResponse(room);
     }
 
@@ -270,6 +278,7 @@ public class AdminRoomService {
         }
 
         roomRepository.saveAll(rooms);
+        qrTokenCache.evictRooms(request.getRoomIds());
         return new MessageResponse("Bulk operation completed successfully on " + rooms.size() + " rooms");
     }
 
@@ -22,6 +22,9 @@ public class AvailabilityService {
     @Autowired
     private EquipmentRequestRepository equipmentRequestRepository;
 
+    @Autowired
+    private EquipmentReservationLedger reservationLedger;
+
     public EquipmentAvailabilityResponse getEquipmentAvailability(Long equipmentId, LocalDateTime startTime, LocalDateTime endTime) {
         Equipment equipment = equipmentRepository.findById(equipmentId)
                 .orElseThrow(() -> new RuntimeException("Equipment not found"));
@@ -54,6 +57,13 @@ public class AvailabilityService {
                 })
                 .collect(Collectors.toList()));
         
+        // Peak concurrent reservation in the period; requests that never overlap
+        // each other do not add up
+        int peakReserved = reservationLedger.maxReserved(equipmentId, startTime, endTime)
+                .orElseGet(() -> conflicts.stream().mapToInt(EquipmentRequest::getRequestedQuantity).sum());
+        response.setPeakReservedQuantity(peakReserved);
+        response.setFreeQuantityForPeriod(Math.max(0, equipment.getQuantity() - peakReserved));
+        
         return response;
     }
 
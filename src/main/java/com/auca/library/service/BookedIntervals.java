@@ -0,0 +1,40 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Booked time of one room as disjoint intervals keyed by start. Used to check
+ * many candidate slots against bookings loaded in bulk instead of issuing a
+ * conflict query per slot. Intervals are half-open, so back-to-back bookings
+ * do not conflict.
+ */
+final class BookedIntervals {
+
+    private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> before = intervals.lowerEntry(end);
+        return before != null && before.getValue().isAfter(start);
+    }
+
+    void add(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> previous = intervals.floorEntry(start);
+        if (previous != null && !previous.getValue().isBefore(start)) {
+            start = previous.getKey();
+            end = later(end, previous.getValue());
+            intervals.remove(previous.getKey());
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> next;
+        while ((next = intervals.ceilingEntry(start)) != null && !next.getKey().isAfter(end)) {
+            end = later(end, next.getValue());
+            intervals.remove(next.getKey());
+        }
+        intervals.put(start, end);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
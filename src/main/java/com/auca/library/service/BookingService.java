@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +21,7 @@ import com.auca.library.dto.request.CreateBookingRequest;
 import com.auca.library.dto.request.ExtensionRequest;
 import com.auca.library.dto.response.BookingDTO;
 import com.auca.library.exception.BadRequestException;
+import com.auca.library.exception.BookingConflictException;
 import com.auca.library.exception.ResourceNotFoundException;
 import com.auca.library.model.Booking;
 import com.auca.library.model.Seat;
@@ -28,7 +30,7 @@ import com.auca.library.model.WaitList;
 import com.auca.library.repository.BookingRepository;
 import com.auca.library.repository.SeatRepository;
 import com.auca.library.repository.UserRepository;
-import com.auca.library.repository.WaitListRepository;
+import com.auca.library.util.ExclusionViolations;
 
 import jakarta.mail.MessagingException;
 
@@ -45,7 +47,7 @@ public class BookingService {
     private UserRepository userRepository;
 
     @Autowired
-    private WaitListRepository waitListRepository;
+    private WaitListService waitListService;
 
     @Autowired
     private SeatService seatService;
@@ -90,19 +92,10 @@ public class BookingService {
         Booking booking = new Booking(user, seat, request.getStartTime(), request.getEndTime());
         booking.setNotes(request.getNotes());
 
-        booking = bookingRepository.save(booking);
+        booking = saveWithoutOverlap(booking, "The seat is not available for the requested time period");
 
-        // Check if there are people on the wait list for this seat
-        // and the booking time overlaps with their requested time
-        List<WaitList> waitingUsers = waitListRepository.findWaitingListForSeat(seat.getId());
-        for (WaitList waitItem : waitingUsers) {
-            if (isTimeOverlapping(waitItem.getRequestedStartTime(), waitItem.getRequestedEndTime(),
-                    request.getStartTime(), request.getEndTime())) {
-                // Remove this person from the wait list since the seat is now booked
-                waitItem.setStatus(WaitList.WaitListStatus.FULFILLED);
-                waitListRepository.save(waitItem);
-            }
-        }
+        // Anyone waiting for an overlapping slot on this seat leaves the wait list
+        waitListService.fulfillOverlapping(seat.getId(), request.getStartTime(), request.getEndTime());
 
         return mapBookingToDTO(booking);
     }
@@ -306,36 +299,26 @@ public class BookingService {
             booking.setEndTime(newEndTime);
         }
 
-        booking = bookingRepository.save(booking);
+        booking = saveWithoutOverlap(booking, "The seat is not available for extension");
 
         return mapBookingToDTO(booking);
     }
 
     private void notifyWaitListUsers(Long seatId, LocalDateTime startTime, LocalDateTime endTime) {
-        // Find users waiting for this seat with overlapping time
-        List<WaitList> waitingList = waitListRepository.findWaitingListForSeat(seatId);
-
-        for (WaitList waitItem : waitingList) {
-            if (isTimeOverlapping(waitItem.getRequestedStartTime(), waitItem.getRequestedEndTime(),
-                    startTime, endTime) && !waitItem.isNotified()) {
-
-                // Update wait list item
-                waitItem.setNotified(true);
-                waitItem.setNotifiedAt(LocalDateTime.now());
-                waitItem.setStatus(WaitList.WaitListStatus.NOTIFIED);
-                waitListRepository.save(waitItem);
-
-                // Send notification email
-                try {
-                    emailService.sendWaitListNotification(
-                            waitItem.getUser().getEmail(),
-                            waitItem.getSeat().getSeatNumber(),
-                            waitItem.getRequestedStartTime(),
-                            waitItem.getRequestedEndTime());
-                } catch (MessagingException e) {
-                    // Log error but continue processing
-                    System.err.println("Failed to send wait list notification: " + e.getMessage());
-                }
+        // Users waiting for this seat with overlapping time, marked notified in one update
+        List<WaitList> notifiedList = waitListService.notifyOverlapping(seatId, startTime, endTime);
+
+        for (WaitList waitItem : notifiedList) {
+            // Send notification email
+            try {
+                emailService.sendWaitListNotification(
+                        waitItem.getUser().getEmail(),
+                        waitItem.getSeat().getSeatNumber(),
+                        waitItem.getRequestedStartTime(),
+                        waitItem.getRequestedEndTime());
+            } catch (MessagingException e) {
+                // Log error but continue processing
+                System.err.println("Failed to send wait list notification: " + e.getMessage());
             }
         }
     }
@@ -507,11 +490,23 @@ public BookingDTO extendBooking(Long bookingId, Integer additionalHours) {
     // Update booking
     booking.setEndTime(newEndTime);
     booking.setExtended(true);
-    booking = bookingRepository.save(booking);
+    booking = saveWithoutOverlap(booking, "The seat is not available for the requested extension time");
 
     return mapBookingToDTO(booking);
 }
 
+    // The seat exclusion constraint catches overlaps that passed the availability check concurrently
+    private Booking saveWithoutOverlap(Booking booking, String conflictMessage) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (ExclusionViolations.isExclusionViolation(e)) {
+                throw new BookingConflictException(conflictMessage);
+            }
+            throw e;
+        }
+    }
+
     private BookingDTO mapBookingToDTO(Booking booking) {
         BookingDTO dto = new BookingDTO();
 
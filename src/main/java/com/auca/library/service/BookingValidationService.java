@@ -5,7 +5,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,10 +14,8 @@ import com.auca.library.exception.BookingConflictException;
 import com.auca.library.exception.BookingLimitExceededException;
 import com.auca.library.model.Role;
 import com.auca.library.model.Room;
-import com.auca.library.model.RoomBooking;
 import com.auca.library.model.Seat;
 import com.auca.library.model.User;
-import com.auca.library.repository.RecurringBookingSeriesRepository;
 import com.auca.library.repository.RoomBookingRepository;
 
 @Service
@@ -31,15 +28,29 @@ public class BookingValidationService {
     
     @Autowired private RoomBookingRepository roomBookingRepository;
     @Autowired private LibraryScheduleService libraryScheduleService;
-    @Autowired private RecurringBookingSeriesRepository recurringSeriesRepository;
+    
+    // Usage counted against the limits, loaded with a single query
+    private record QuotaUsage(long dailyBookings, long weeklyHours, long activeRecurringSeries) {
+    }
     
     public void validateBookingRequest(RoomBookingRequest request, User user, Room room, Seat seat) {
         validateBookingTimes(request, room);
         validateLibrarySchedule(request, seat);
-        validateUserBookingLimits(request, user, room);
+        QuotaUsage usage = loadQuotaUsage(request, user);
+        validateUserBookingLimits(request, user, room, usage);
         validateRoomCapacity(request, room);
         validateBookingWindow(request);
-        validateRecurringBookingLimits(request, user);
+        validateRecurringBookingLimits(request, user, usage);
+    }
+    
+    private QuotaUsage loadQuotaUsage(RoomBookingRequest request, User user) {
+        LocalDate bookingDate = request.getStartTime().toLocalDate();
+        LocalDateTime weekStart = getWeekStart(bookingDate);
+        Object[] row = roomBookingRepository.findBookingQuotaUsage(user.getId(),
+                bookingDate.atStartOfDay(), bookingDate.plusDays(1).atStartOfDay(),
+                weekStart, weekStart.plusWeeks(1)).get(0);
+        return new QuotaUsage(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue());
     }
     
     private void validateBookingTimes(RoomBookingRequest request, Room room) {
@@ -84,40 +95,19 @@ public class BookingValidationService {
         if (!libraryScheduleService.isLibraryOpenAt(bookingDate, request.getEndTime().toLocalTime(), seat.getLocation())) {
             throw new BookingConflictException("Library is closed at the requested end time");
         }
-        
-        // Validate entire booking period is within library hours
-        if (!libraryScheduleService.isValidBookingTime(
-                bookingDate, 
-                request.getStartTime().toLocalTime(), 
-                request.getEndTime().toLocalTime(), seat.getLocation() )) {
-            throw new BookingConflictException("Booking time is outside library operating hours");
-        }
     }
     
     // FIXED: Enhanced user booking limits with role-based limits
-    private void validateUserBookingLimits(RoomBookingRequest request, User user, Room room) {
-        LocalDate bookingDate = request.getStartTime().toLocalDate();
-        
+    private void validateUserBookingLimits(RoomBookingRequest request, User user, Room room, QuotaUsage usage) {
         // Daily booking limit
-        Long dailyBookings = roomBookingRepository.countUserBookingsForDate(user, bookingDate.atStartOfDay());
-        if (dailyBookings >= room.getMaxBookingsPerDay()) {
+        if (usage.dailyBookings() >= room.getMaxBookingsPerDay()) {
             throw new BookingLimitExceededException(
                 String.format("User has reached daily booking limit of %d for this room", room.getMaxBookingsPerDay())
             );
         }
         
         // FIXED: Role-based weekly booking limits
-        LocalDateTime weekStart = getWeekStart(bookingDate);
-        LocalDateTime weekEnd = weekStart.plusWeeks(1);
-        
-        List<RoomBooking> weeklyBookings = roomBookingRepository.findByUserAndStartTimeBetweenAndStatusIn(
-            user, weekStart, weekEnd, 
-            List.of(RoomBooking.BookingStatus.CONFIRMED, RoomBooking.BookingStatus.CHECKED_IN)
-        );
-        
-        long totalWeeklyHours = weeklyBookings.stream()
-            .mapToLong(booking -> ChronoUnit.HOURS.between(booking.getStartTime(), booking.getEndTime()))
-            .sum();
+        long totalWeeklyHours = usage.weeklyHours();
         
         long requestedHours = ChronoUnit.HOURS.between(request.getStartTime(), request.getEndTime());
         
@@ -176,10 +166,10 @@ public class BookingValidationService {
         }
     }
     
-    private void validateRecurringBookingLimits(RoomBookingRequest request, User user) {
+    private void validateRecurringBookingLimits(RoomBookingRequest request, User user, QuotaUsage usage) {
         if (request.isRecurring()) {
             // Check if user has reached recurring booking limit
-            Long activeRecurringSeries = recurringSeriesRepository.countActiveSeriesForUser(user);
+            long activeRecurringSeries = usage.activeRecurringSeries();
             int maxRecurringSeries = user.hasRole(Role.ERole.ROLE_ADMIN) ? 10 : 3; // Admins get more
             
             if (activeRecurringSeries >= maxRecurringSeries) {
@@ -0,0 +1,106 @@
+package com.auca.library.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.repository.EquipmentRequestRepository;
+import com.auca.library.util.AfterCommit;
+
+/**
+ * Equipment requests created per day over the last month, so the dashboards'
+ * today/week/month figures are a sum of at most 31 buckets instead of a scan
+ * of the whole request history. Loaded with one grouped query on first use,
+ * bumped by EquipmentRequestService after each new request commits, and
+ * rebuilt every midnight, which also drops the day that left the window.
+ *
+ * Assumes a single application instance: requests created through another
+ * instance are only counted after the next rebuild.
+ */
+@Component
+public class DashboardCounters {
+
+    public static final int RETAINED_DAYS = 31;
+
+    @Autowired
+    private EquipmentRequestRepository equipmentRequestRepository;
+
+    private final Object loadLock = new Object();
+
+    private volatile Map<LocalDate, LongAdder> requestsCreatedPerDay = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Guarded by this: whether a load query is running, and how many requests committed meanwhile
+    private boolean loading;
+    private int committedWhileLoading;
+
+    /**
+     * Requests created from the start of the given day onwards; the day must be
+     * within the last RETAINED_DAYS days
+     */
+    public long requestsCreatedSince(LocalDate firstDay) {
+        ensureLoaded();
+        long total = 0;
+        for (Map.Entry<LocalDate, LongAdder> day : requestsCreatedPerDay.entrySet()) {
+            if (!day.getKey().isBefore(firstDay)) {
+                total += day.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    public void recordRequestCreatedAfterCommit(LocalDateTime createdAt) {
+        LocalDate day = createdAt.toLocalDate();
+        Runnable apply = () -> {
+            synchronized (this) {
+                if (loaded) {
+                    requestsCreatedPerDay.computeIfAbsent(day, d -> new LongAdder()).increment();
+                } else if (loading) {
+                    committedWhileLoading++;
+                }
+            }
+        };
+        AfterCommit.run(apply);
+    }
+
+    @Scheduled(cron = "0 0 0 * * *") // Slide the window forward every midnight
+    public synchronized void reset() {
+        loaded = false;
+        requestsCreatedPerDay = new ConcurrentHashMap<>();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            while (!loaded) {
+                synchronized (this) {
+                    loading = true;
+                    committedWhileLoading = 0;
+                }
+                Map<LocalDate, LongAdder> counts = new ConcurrentHashMap<>();
+                LocalDate firstDay = LocalDate.now().minusDays(RETAINED_DAYS - 1);
+                for (Object[] row : equipmentRequestRepository.countCreatedPerDaySince(firstDay.atStartOfDay())) {
+                    LongAdder count = new LongAdder();
+                    count.add((Long) row[1]);
+                    counts.put((LocalDate) row[0], count);
+                }
+                synchronized (this) {
+                    // A request committed during the query may or may not be in it, so count again
+                    if (committedWhileLoading == 0) {
+                        requestsCreatedPerDay = counts;
+                        loaded = true;
+                        loading = false;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -5,8 +5,11 @@ import com.auca.library.model.*;
 import com.auca.library.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +30,9 @@ public class DashboardService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
     public ProfessorDashboardResponse getProfessorDashboard(String professorEmail) {
         User professor = findUserByEmail(professorEmail);
         ProfessorDashboardResponse dashboard = new ProfessorDashboardResponse();
@@ -63,8 +69,8 @@ public class DashboardService {
                 .collect(Collectors.toList()));
         
         // Available resources
-        dashboard.setAvailableEquipmentCount(equipmentRepository.findByAvailableTrue().size());
-        dashboard.setAvailableLabClassCount(labClassRepository.findByAvailableTrue().size());
+        dashboard.setAvailableEquipmentCount(equipmentRepository.countAvailableEquipment().intValue());
+        dashboard.setAvailableLabClassCount((int) labClassRepository.countByAvailableTrue());
         
         // Alerts
         dashboard.setHasRejectedRequests(allRequests.stream()
@@ -81,43 +87,32 @@ public class DashboardService {
         
         // Basic counts
         dashboard.setTotalEquipment((int) equipmentRepository.count());
-        dashboard.setAvailableEquipment(equipmentRepository.findByAvailableTrue().size());
+        dashboard.setAvailableEquipment(equipmentRepository.countAvailableEquipment().intValue());
         dashboard.setTotalLabClasses((int) labClassRepository.count());
-        dashboard.setAvailableLabClasses(labClassRepository.findByAvailableTrue().size());
+        dashboard.setAvailableLabClasses((int) labClassRepository.countByAvailableTrue());
         dashboard.setTotalCourses((int) courseRepository.count());
-        dashboard.setActiveCourses(courseRepository.findByActiveTrue().size());
+        dashboard.setActiveCourses((int) courseRepository.countByActiveTrue());
         
         // Request statistics
-        List<EquipmentRequest> allRequests = equipmentRequestRepository.findAll();
-        dashboard.setPendingRequests(equipmentRequestRepository.findPendingRequests().size());
-        
-        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
-        LocalDateTime weekStart = today.minusDays(7);
-        LocalDateTime monthStart = today.minusDays(30);
+        Map<EquipmentRequest.RequestStatus, Long> requestsByStatus = countRequestsByStatus();
+        dashboard.setPendingRequests(requestsByStatus.getOrDefault(EquipmentRequest.RequestStatus.PENDING, 0L).intValue());
         
-        dashboard.setTodaysRequests((int) allRequests.stream()
-                .filter(req -> req.getCreatedAt().isAfter(today))
-                .count());
-        dashboard.setThisWeekRequests((int) allRequests.stream()
-                .filter(req -> req.getCreatedAt().isAfter(weekStart))
-                .count());
-        dashboard.setThisMonthRequests((int) allRequests.stream()
-                .filter(req -> req.getCreatedAt().isAfter(monthStart))
-                .count());
+        LocalDate today = LocalDate.now();
+        dashboard.setTodaysRequests((int) dashboardCounters.requestsCreatedSince(today));
+        dashboard.setThisWeekRequests((int) dashboardCounters.requestsCreatedSince(today.minusDays(7)));
+        dashboard.setThisMonthRequests((int) dashboardCounters.requestsCreatedSince(today.minusDays(30)));
         
         // Recent requests
-        dashboard.setRecentRequests(equipmentRequestRepository.findPendingRequests().stream()
-                .limit(10)
+        dashboard.setRecentRequests(equipmentRequestRepository
+                .findTop10ByStatusOrderByCreatedAtAsc(EquipmentRequest.RequestStatus.PENDING).stream()
                 .map(this::mapToEquipmentRequestResponse)
                 .collect(Collectors.toList()));
         
         // Alerts
-        dashboard.setLowInventoryAlerts(equipmentRepository.findLowInventoryEquipment(2).size());
-        dashboard.setOverdueApprovals((int) allRequests.stream()
-                .filter(req -> req.getStatus() == EquipmentRequest.RequestStatus.PENDING &&
-                              req.getCreatedAt().isBefore(LocalDateTime.now().minusHours(24)))
-                .count());
-        dashboard.setHasHodEscalations(!equipmentRequestRepository.findEscalatedRequests().isEmpty());
+        dashboard.setLowInventoryAlerts((int) equipmentRepository.countLowInventoryEquipment(2));
+        dashboard.setOverdueApprovals((int) equipmentRequestRepository.countByStatusAndCreatedAtBefore(
+                EquipmentRequest.RequestStatus.PENDING, LocalDateTime.now().minusHours(24)));
+        dashboard.setHasHodEscalations(requestsByStatus.getOrDefault(EquipmentRequest.RequestStatus.ESCALATED, 0L) > 0);
         
         return dashboard;
     }
@@ -126,44 +121,49 @@ public class DashboardService {
         HodDashboardResponse dashboard = new HodDashboardResponse();
         
         // Pending approvals
-        dashboard.setPendingProfessorApprovals(userRepository.findPendingProfessors().size());
-        dashboard.setEscalatedEquipmentRequests(equipmentRequestRepository.findEscalatedRequests().size());
+        List<User> pendingProfessors = userRepository.findPendingProfessors();
+        List<EquipmentRequest> escalatedRequests = equipmentRequestRepository.findEscalatedRequests();
+        dashboard.setPendingProfessorApprovals(pendingProfessors.size());
+        dashboard.setEscalatedEquipmentRequests(escalatedRequests.size());
         
         // Professor statistics
-        List<User> allProfessors = userRepository.findApprovedProfessors();
-        dashboard.setTotalProfessors(allProfessors.size());
-        dashboard.setApprovedProfessors(allProfessors.size());
+        int approvedProfessors = (int) userRepository.countApprovedProfessors();
+        dashboard.setTotalProfessors(approvedProfessors);
+        dashboard.setApprovedProfessors(approvedProfessors);
         
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        dashboard.setActiveProfessors(userRepository.findActiveProfessors(thirtyDaysAgo).size());
+        dashboard.setActiveProfessors((int) userRepository.countActiveProfessors(thirtyDaysAgo));
         
         // Course statistics
         dashboard.setTotalCourses((int) courseRepository.count());
-        dashboard.setCoursesWithProfessors((int) courseRepository.findAll().stream()
-                .filter(course -> !course.getProfessors().isEmpty())
-                .count());
+        dashboard.setCoursesWithProfessors((int) courseRepository.countCoursesWithProfessors());
         
         // Equipment oversight
-        List<EquipmentRequest> allRequests = equipmentRequestRepository.findAll();
-        dashboard.setTotalEquipmentRequests(allRequests.size());
+        long totalRequests = equipmentRequestRepository.count();
+        dashboard.setTotalEquipmentRequests((int) totalRequests);
         
-        long totalRequests = allRequests.size();
-        long escalatedCount = allRequests.stream()
-                .filter(req -> req.isEscalatedToHod())
-                .count();
+        long escalatedCount = equipmentRequestRepository.countByEscalatedToHodTrue();
         dashboard.setEscalationRate(totalRequests > 0 ? (int)((escalatedCount * 100) / totalRequests) : 0);
         
         // Recent activity requiring attention
-        dashboard.setPendingProfessors(userRepository.findPendingProfessors().stream()
+        dashboard.setPendingProfessors(pendingProfessors.stream()
                 .map(this::mapToProfessorResponse)
                 .collect(Collectors.toList()));
-        dashboard.setEscalatedRequests(equipmentRequestRepository.findEscalatedRequests().stream()
+        dashboard.setEscalatedRequests(escalatedRequests.stream()
                 .map(this::mapToEquipmentRequestResponse)
                 .collect(Collectors.toList()));
         
         return dashboard;
     }
 
+    private Map<EquipmentRequest.RequestStatus, Long> countRequestsByStatus() {
+        Map<EquipmentRequest.RequestStatus, Long> counts = new EnumMap<>(EquipmentRequest.RequestStatus.class);
+        for (Object[] row : equipmentRequestRepository.countGroupedByStatus()) {
+            counts.put((EquipmentRequest.RequestStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
     // Helper methods
     private User findUserByEmail(String email) {
         return userRepository.findByEmail(email)
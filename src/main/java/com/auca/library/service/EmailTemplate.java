@@ -0,0 +1,81 @@
+package com.auca.library.service;
+
+/**
+ * Email bodies sent by the library. Placeholders are positional ({{0}}, {{1}}, ...)
+ * and are resolved against the arguments passed to EmailTemplateRegistry.render.
+ * Digestible mail may be held briefly and merged with other mail to the same
+ * recipient; time-critical mail is always sent on its own.
+ */
+public enum EmailTemplate {
+
+    VERIFICATION("Verify your AUCA Library Account", false,
+            "<h2>AUCA Library Account Verification</h2>"
+            + "<p>Thank you for registering. Please click the link below to verify your account:</p>"
+            + "<a href='http://localhost:3000/verify?token={{0}}'>Verify your account</a>"
+            + "<p>This link will expire in 24 hours.</p>"),
+
+    BOOKING_CONFIRMATION("Your AUCA Library Seat Booking Confirmation", true,
+            "<h2>AUCA Library Seat Booking Confirmation</h2>"
+            + "<p>Your seat booking has been confirmed with the following details:</p>"
+            + "<ul>"
+            + "<li><strong>Seat Number:</strong> {{0}}</li>"
+            + "<li><strong>Start Time:</strong> {{1}}</li>"
+            + "<li><strong>End Time:</strong> {{2}}</li>"
+            + "</ul>"
+            + "<p>Please arrive on time and check in using the library booking system.</p>"),
+
+    EXTENSION("Your AUCA Library Booking is Ending Soon", false,
+            "<h2>AUCA Library Booking Notification</h2>"
+            + "<p>Your booking for seat {{0}} is ending in 10 minutes.</p>"
+            + "<p>Would you like to extend your booking by 1 hour?</p>"
+            + "<p>"
+            + "<a href='http://localhost:3000/bookings' style='background-color: #4CAF50; color: white; "
+            + "padding: 10px 15px; text-decoration: none; margin-right: 10px;'>Extend</a>"
+            + "</p>"
+            + "<p>Please respond within 5 minutes. If you don't respond, your booking will end as scheduled.</p>"),
+
+    WAITLIST_AVAILABLE("Your Waitlisted AUCA Library Seat is Available", false,
+            "<h2>AUCA Library Wait List Notification</h2>"
+            + "<p>Good news! The seat you were waiting for is now available:</p>"
+            + "<ul>"
+            + "<li><strong>Seat Number:</strong> {{0}}</li>"
+            + "<li><strong>Time Period:</strong> {{1}} to {{2}}</li>"
+            + "</ul>"
+            + "<p>Please visit the booking system to reserve your seat before someone else does:</p>"
+            + "<a href='http://localhost:3000/seats' style='background-color: #4CAF50; color: white; "
+            + "padding: 10px 15px; text-decoration: none;'>Book Now</a>"),
+
+    NO_SHOW("AUCA Library Booking Cancelled - No Show", true,
+            "<h2>AUCA Library Booking Cancellation Notice</h2>"
+            + "<p>Your booking has been automatically cancelled because you did not check in within 20 minutes of the start time:</p>"
+            + "<ul>"
+            + "<li><strong>Seat Number:</strong> {{0}}</li>"
+            + "<li><strong>Start Time:</strong> {{1}}</li>"
+            + "</ul>"
+            + "<p>The seat is now available for other users.</p>"
+            + "<p>If you still need a seat, you can make a new booking:</p>"
+            + "<a href='http://localhost:3000/seats' style='background-color: #4CAF50; color: white; "
+            + "padding: 10px 15px; text-decoration: none;'>Book Again</a>");
+
+    private final String subject;
+    private final boolean digestible;
+    private final String source;
+
+    EmailTemplate(String subject, boolean digestible, String source) {
+        this.subject = subject;
+        this.digestible = digestible;
+        this.source = source;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public boolean isDigestible() {
+        return digestible;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,144 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Compiles every EmailTemplate once at startup into literal segments and
+ * argument indexes, so rendering is a single pre-sized StringBuilder pass.
+ * Also owns the page layout and the digest wrapper used by MailDispatchService.
+ */
+@Component
+public class EmailTemplateRegistry {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final String LAYOUT_SOURCE = "<html><body>{{0}}</body></html>";
+
+    private static final String DIGEST_SOURCE =
+            "<h2>AUCA Library Updates</h2>"
+            + "<p>You have {{0}} new messages from the library:</p>"
+            + "{{1}}";
+
+    private static final String DIGEST_SEPARATOR = "<hr/>";
+
+    private final Map<EmailTemplate, CompiledTemplate> compiled = new EnumMap<>(EmailTemplate.class);
+    private CompiledTemplate layout;
+    private CompiledTemplate digest;
+
+    @PostConstruct
+    public void init() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            compiled.put(template, CompiledTemplate.compile(template.getSource()));
+        }
+        layout = CompiledTemplate.compile(LAYOUT_SOURCE);
+        digest = CompiledTemplate.compile(DIGEST_SOURCE);
+    }
+
+    /**
+     * Render a template body; values are formatted and HTML-escaped
+     */
+    public String render(EmailTemplate template, Object... values) {
+        String[] args = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            args[i] = HtmlUtils.htmlEscape(format(values[i]));
+        }
+        return compiled.get(template).render(args);
+    }
+
+    /**
+     * Wrap a rendered body into a complete HTML document
+     */
+    public String page(String body) {
+        return layout.render(body);
+    }
+
+    public String digestSubject(int count) {
+        return "Your AUCA Library updates (" + count + ")";
+    }
+
+    /**
+     * Merge several rendered bodies to the same recipient into one digest body
+     */
+    public String digest(List<String> bodies) {
+        return digest.render(String.valueOf(bodies.size()), String.join(DIGEST_SEPARATOR, bodies));
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(DATE_TIME_FORMATTER);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Template split into literals around positional placeholders
+     */
+    static final class CompiledTemplate {
+        private final String[] literals;     // literals.length == argIndexes.length + 1
+        private final int[] argIndexes;
+        private final int literalLength;
+
+        private CompiledTemplate(String[] literals, int[] argIndexes) {
+            this.literals = literals;
+            this.argIndexes = argIndexes;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static CompiledTemplate compile(String source) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = source.indexOf("{{", position);
+                if (open < 0) {
+                    break;
+                }
+                int close = source.indexOf("}}", open);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed placeholder in email template at " + open);
+                }
+                literals.add(source.substring(position, open));
+                indexes.add(Integer.parseInt(source.substring(open + 2, close).trim()));
+                position = close + 2;
+            }
+            literals.add(source.substring(position));
+            return new CompiledTemplate(literals.toArray(new String[0]),
+                    indexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String render(String... args) {
+            int length = literalLength;
+            for (int index : argIndexes) {
+                length += index < args.length && args[index] != null ? args[index].length() : 0;
+            }
+            StringBuilder out = new StringBuilder(length);
+            for (int i = 0; i < argIndexes.length; i++) {
+                out.append(literals[i]);
+                int index = argIndexes[i];
+                if (index < args.length && args[index] != null) {
+                    out.append(args[index]);
+                }
+            }
+            out.append(literals[literals.length - 1]);
+            return out.toString();
+        }
+    }
+}
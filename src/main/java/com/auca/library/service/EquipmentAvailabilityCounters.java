@@ -0,0 +1,59 @@
+package com.auca.library.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.repository.EquipmentRepository;
+
+/**
+ * Reservable quantity per equipment for availability reads, held in LongAdders
+ * so concurrent reservations do not contend on a single counter. Loaded from
+ * the database on first read; EquipmentService applies a reservation's delta
+ * once its conditional UPDATE has committed and evicts the entry whenever the
+ * quantity is set outright. The UPDATE, not this cache, decides whether a
+ * reservation succeeds, and all entries are reloaded periodically.
+ */
+@Component
+public class EquipmentAvailabilityCounters {
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public int available(Long equipmentId) {
+        return (int) Math.max(0, counters.computeIfAbsent(equipmentId, this::load).sum());
+    }
+
+    public boolean isAvailable(Long equipmentId, int quantity) {
+        return available(equipmentId) >= quantity;
+    }
+
+    public void reserved(Long equipmentId, int quantity) {
+        LongAdder counter = counters.get(equipmentId);
+        if (counter != null) {
+            counter.add(-quantity);
+        }
+    }
+
+    public void evict(Long equipmentId) {
+        counters.remove(equipmentId);
+    }
+
+    // Bounds any drift from deltas applied around a concurrent reload
+    @Scheduled(fixedRateString = "${equipment.availability-cache.resync-ms:60000}")
+    public void resync() {
+        counters.clear();
+    }
+
+    private LongAdder load(Long equipmentId) {
+        LongAdder counter = new LongAdder();
+        counter.add(equipmentRepository.findReservableQuantity(equipmentId).orElse(0));
+        return counter;
+    }
+}
@@ -54,6 +54,12 @@ public class EquipmentRequestService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private EquipmentReservationLedger reservationLedger;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
     // Create standalone equipment request (professors)
     @Transactional
     public EquipmentRequestResponse createEquipmentRequest(EquipmentRequestRequest request, String userEmail) {
@@ -74,7 +80,7 @@ public class EquipmentRequestService {
         }
         
         // Check equipment availability
-        if (!equipment.isAvailableInQuantity(request.getRequestedQuantity())) {
+        if (!equipment.isAvailable() || !equipmentService.isAvailableInQuantity(equipment.getId(), request.getRequestedQuantity())) {
             throw new IllegalArgumentException("Requested quantity not available");
         }
 
@@ -114,9 +120,13 @@ public class EquipmentRequestService {
         }
         
         equipmentRequest = equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
+        dashboardCounters.recordRequestCreatedAfterCommit(equipmentRequest.getCreatedAt());
         
-        // Reserve equipment quantity immediately
-        equipmentService.reserveEquipment(equipment.getId(), request.getRequestedQuantity());
+        // Reserve equipment quantity immediately; losing a race for the last units rolls the request back
+        if (!equipmentService.reserveEquipment(equipment.getId(), request.getRequestedQuantity())) {
+            throw new IllegalArgumentException("Requested quantity not available");
+        }
         
         // Send notification to equipment admin
         notificationService.addNotification(
@@ -181,6 +191,7 @@ public class EquipmentRequestService {
         }
         
         equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
         return new MessageResponse("Equipment request processed successfully");
     }
 
@@ -208,6 +219,7 @@ public class EquipmentRequestService {
         equipmentRequest.setEscalatedAt(LocalDateTime.now());
         
         equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
         
         // Notify HOD
         notificationService.addNotification(
@@ -237,13 +249,11 @@ public class EquipmentRequestService {
         if (request.isApproved()) {
             equipmentRequest.setStatus(EquipmentRequest.RequestStatus.HOD_APPROVED);
             
-            // Re-reserve equipment if available
-            if (equipmentRequest.getEquipment().isAvailableInQuantity(equipmentRequest.getRequestedQuantity())) {
-                equipmentService.reserveEquipment(
-                    equipmentRequest.getEquipment().getId(), 
-                    equipmentRequest.getRequestedQuantity()
-                );
-            }
+            // Re-reserve equipment if available; the conditional update skips it otherwise
+            equipmentService.reserveEquipment(
+                equipmentRequest.getEquipment().getId(), 
+                equipmentRequest.getRequestedQuantity()
+            );
             
             // Notify professor
             notificationService.addNotification(
@@ -277,6 +287,7 @@ public class EquipmentRequestService {
         }
         
         equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
         return new MessageResponse("Escalation reviewed successfully");
     }
 
@@ -316,6 +327,7 @@ public class EquipmentRequestService {
             
             request.setStatus(EquipmentRequest.RequestStatus.COMPLETED);
             equipmentRequestRepository.save(request);
+            reservationLedger.trackAfterCommit(request);
             
             // Release equipment
             equipmentService.releaseEquipment(
@@ -437,6 +449,7 @@ public MessageResponse cancelRequest(Long requestId, String userEmail) {
     
     request.setStatus(EquipmentRequest.RequestStatus.CANCELLED);
     equipmentRequestRepository.save(request);
+    reservationLedger.trackAfterCommit(request);
     
     // Release reserved equipment
     equipmentService.releaseEquipment(request.getEquipment().getId(), request.getRequestedQuantity());
@@ -609,6 +622,7 @@ public MessageResponse respondToSuggestion(Long requestId, EquipmentRequestReque
     equipmentRequest.setSuggestionResponseAt(LocalDateTime.now());
     
     equipmentRequestRepository.save(equipmentRequest);
+    reservationLedger.trackAfterCommit(equipmentRequest);
     
     // Notify equipment admin
     String responseType = request.getSuggestionAcknowledged() ? "acknowledged" : "rejected";
@@ -673,6 +687,7 @@ public MessageResponse requestExtension(Long requestId, EquipmentRequestRequest
     equipmentRequest.setExtensionHoursRequested(request.getExtensionHoursRequested());
     
     equipmentRequestRepository.save(equipmentRequest);
+    reservationLedger.trackAfterCommit(equipmentRequest);
     
     // Check for conflicts in extended time slot
     LocalDateTime newEndTime = equipmentRequest.getEndTime().plusHours(request.getExtensionHoursRequested().longValue())
@@ -757,6 +772,7 @@ public MessageResponse handleExtensionRequest(Long requestId, EquipmentRequestRe
     }
     
     equipmentRequestRepository.save(equipmentRequest);
+    reservationLedger.trackAfterCommit(equipmentRequest);
     return new MessageResponse("Extension request processed successfully");
 }
 
@@ -791,6 +807,7 @@ public MessageResponse markEquipmentReturned(Long requestId, EquipmentRequestReq
     equipmentRequest.setStatus(EquipmentRequest.RequestStatus.RETURNED);
     
     equipmentRequestRepository.save(equipmentRequest);
+    reservationLedger.trackAfterCommit(equipmentRequest);
     
     // Release equipment
     equipmentService.releaseEquipment(
@@ -843,6 +860,7 @@ public void markReturnedRequestsAsCompleted() {
     for (EquipmentRequest request : returnedRequests) {
         request.setStatus(EquipmentRequest.RequestStatus.COMPLETED);
         equipmentRequestRepository.save(request);
+        reservationLedger.trackAfterCommit(request);
     }
 }
 
@@ -854,6 +872,7 @@ private void updateRequestStatusIfNeeded(EquipmentRequest request) {
         request.getStartTime().isBefore(now)) {
         request.setStatus(EquipmentRequest.RequestStatus.IN_USE);
         equipmentRequestRepository.save(request);
+        reservationLedger.trackAfterCommit(request);
     }
     
     // Mark as late return if overdue
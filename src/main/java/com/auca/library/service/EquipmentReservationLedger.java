@@ -0,0 +1,202 @@
+package com.auca.library.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.model.EquipmentRequest;
+import com.auca.library.repository.EquipmentRequestRepository;
+import com.auca.library.util.AfterCommit;
+import com.auca.library.util.LazyMirror;
+
+/**
+ * Reserved quantity per equipment in 30-minute buckets, from yesterday up to a
+ * configurable horizon. Each equipment's buckets live in a segment tree with
+ * range add and range max, so "most units reserved at any point in
+ * [start, end)" costs O(log n) instead of a scan of the overlapping requests.
+ * Loaded lazily per equipment; EquipmentRequestService and EquipmentService
+ * report every request change after commit. Holds are keyed by request id, so
+ * replaying a change is harmless, and changes committed while a ledger is
+ * loading are replayed on top of it (see LazyMirror, which also documents the
+ * single-instance assumption). Rebuilt nightly as the horizon slides.
+ */
+@Component
+public class EquipmentReservationLedger {
+
+    private static final int BUCKET_MINUTES = 30;
+    private static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+
+    // Same statuses findConflictingRequests treats as holding equipment
+    private static final Set<EquipmentRequest.RequestStatus> HOLDING_STATUSES = EnumSet.of(
+            EquipmentRequest.RequestStatus.PENDING,
+            EquipmentRequest.RequestStatus.APPROVED,
+            EquipmentRequest.RequestStatus.IN_USE,
+            EquipmentRequest.RequestStatus.HOD_APPROVED);
+
+    @Autowired
+    private EquipmentRequestRepository equipmentRequestRepository;
+
+    @Value("${equipment.ledger.horizon-days:60}")
+    private int horizonDays;
+
+    private final LazyMirror<Long, Ledger, Hold> ledgers = new LazyMirror<>(this::load, Ledger::put);
+
+    private record Hold(LocalDateTime start, LocalDateTime end, int quantity) {
+    }
+
+    /**
+     * Highest quantity held in any bucket touching [start, end), or empty when the
+     * window falls outside the ledger's horizon and the caller must query instead
+     */
+    public OptionalInt maxReserved(Long equipmentId, LocalDateTime start, LocalDateTime end) {
+        Ledger ledger = ledger(equipmentId);
+        synchronized (ledger) {
+            if (start.isBefore(ledger.base) || end.isAfter(ledger.base.plusDays(horizonDays))) {
+                return OptionalInt.empty();
+            }
+            if (!start.isBefore(end)) {
+                return OptionalInt.of(0);
+            }
+            return OptionalInt.of(ledger.max(ledger.firstBucket(start), ledger.lastBucket(end)));
+        }
+    }
+
+    /**
+     * Record a request's current window and status once the surrounding transaction commits
+     */
+    public void trackAfterCommit(EquipmentRequest request) {
+        Long requestId = request.getId();
+        Long equipmentId = request.getEquipment().getId();
+        Hold hold = HOLDING_STATUSES.contains(request.getStatus())
+                ? new Hold(request.getStartTime(), request.getEndTime(),
+                        request.getRequestedQuantity() != null ? request.getRequestedQuantity() : 0)
+                : null;
+
+        Runnable apply = () -> track(equipmentId, requestId, hold);
+        AfterCommit.run(apply);
+    }
+
+    public void evict(Long equipmentId) {
+        ledgers.evict(equipmentId);
+    }
+
+    @Scheduled(cron = "0 0 0 * * *") // Slide the horizon forward every midnight
+    public void reset() {
+        ledgers.clear();
+    }
+
+    private void track(Long equipmentId, Long requestId, Hold hold) {
+        ledgers.update(equipmentId, requestId, hold);
+    }
+
+    private Ledger ledger(Long equipmentId) {
+        return ledgers.get(equipmentId);
+    }
+
+    private Ledger load(Long equipmentId) {
+        Ledger ledger = new Ledger(LocalDate.now().minusDays(1).atStartOfDay(), horizonDays * BUCKETS_PER_DAY);
+        for (Object[] row : equipmentRequestRepository.findHoldsForEquipment(equipmentId, HOLDING_STATUSES, ledger.base)) {
+            ledger.put((Long) row[0], new Hold((LocalDateTime) row[1], (LocalDateTime) row[2],
+                    row[3] != null ? (Integer) row[3] : 0));
+        }
+        return ledger;
+    }
+
+    /**
+     * Buckets [0, size) starting at base. A node's max includes its own pending
+     * add, so updates never need to be pushed down to the children.
+     */
+    private static final class Ledger {
+        private final LocalDateTime base;
+        private final int size;
+        private final int[] max;
+        private final int[] add;
+        private final Map<Long, Hold> holds = new HashMap<>();
+
+        Ledger(LocalDateTime base, int size) {
+            this.base = base;
+            this.size = size;
+            this.max = new int[4 * size];
+            this.add = new int[4 * size];
+        }
+
+        void put(Long requestId, Hold hold) {
+            Hold previous = hold != null ? holds.put(requestId, hold) : holds.remove(requestId);
+            if (previous != null) {
+                apply(previous, -previous.quantity());
+            }
+            if (hold != null) {
+                apply(hold, hold.quantity());
+            }
+        }
+
+        int firstBucket(LocalDateTime time) {
+            return (int) (Duration.between(base, time).toMinutes() / BUCKET_MINUTES);
+        }
+
+        // Bucket holding the last instant before an exclusive end
+        int lastBucket(LocalDateTime end) {
+            long seconds = Duration.between(base, end).getSeconds();
+            long bucketSeconds = BUCKET_MINUTES * 60L;
+            return (int) ((seconds + bucketSeconds - 1) / bucketSeconds) - 1;
+        }
+
+        int max(int from, int to) {
+            from = Math.max(0, from);
+            to = Math.min(size - 1, to);
+            return from <= to ? query(1, 0, size - 1, from, to) : 0;
+        }
+
+        private void apply(Hold hold, int delta) {
+            if (delta == 0 || !hold.start().isBefore(hold.end())) {
+                return;
+            }
+            int from = hold.start().isBefore(base) ? 0 : firstBucket(hold.start());
+            int to = Math.min(size - 1, hold.end().isAfter(base) ? lastBucket(hold.end()) : -1);
+            if (from <= to) {
+                update(1, 0, size - 1, from, to, delta);
+            }
+        }
+
+        private void update(int node, int lo, int hi, int from, int to, int delta) {
+            if (to < lo || hi < from) {
+                return;
+            }
+            if (from <= lo && hi <= to) {
+                max[node] += delta;
+                add[node] += delta;
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            update(2 * node, lo, mid, from, to, delta);
+            update(2 * node + 1, mid + 1, hi, from, to, delta);
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]) + add[node];
+        }
+
+        // Requires lo <= from <= to <= hi
+        private int query(int node, int lo, int hi, int from, int to) {
+            if (from <= lo && hi <= to) {
+                return max[node];
+            }
+            int mid = (lo + hi) >>> 1;
+            int best = Integer.MIN_VALUE;
+            if (from <= mid) {
+                best = query(2 * node, lo, mid, from, Math.min(to, mid));
+            }
+            if (to > mid) {
+                best = Math.max(best, query(2 * node + 1, mid + 1, hi, Math.max(from, mid + 1), to));
+            }
+            return best + add[node];
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.auca.library.service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +41,7 @@ import com.auca.library.repository.EquipmentRepository;
 import com.auca.library.repository.EquipmentRequestRepository;
 import com.auca.library.repository.EquipmentUnitRepository;
 import com.auca.library.repository.UserRepository;
+import com.auca.library.util.AfterCommit;
 
 @Service
 public class EquipmentService {
@@ -64,6 +70,12 @@ public class EquipmentService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private EquipmentAvailabilityCounters availabilityCounters;
+
+    @Autowired
+    private EquipmentReservationLedger reservationLedger;
+
     
 
     // Location-based methods for equipment admin
@@ -162,6 +174,7 @@ public class EquipmentService {
         equipment.setDescription(request.getDescription());
         equipment.setAvailable(request.isAvailable());
         equipment.setAllowedToStudents(request.isAllowedToStudents());
+        AfterCommit.run(() -> availabilityCounters.evict(id));
         
         // Update quantity - be careful with inventory
         if (request.getQuantity() != null && request.getQuantity() > 0) {
@@ -190,6 +203,10 @@ public class EquipmentService {
         equipmentUnitRepository.deleteAll(units);
         
         equipmentRepository.delete(equipment);
+        AfterCommit.run(() -> {
+            availabilityCounters.evict(id);
+            reservationLedger.evict(id);
+        });
         return new MessageResponse("Equipment deleted successfully");
     }
 
@@ -306,6 +323,8 @@ public class EquipmentService {
         Integer availableQty = inventoryRepository.getAvailableQuantityForEquipment(equipment);
         equipment.setAvailableQuantity(availableQty != null ? availableQty : 0);
         equipmentRepository.save(equipment);
+        Long equipmentId = equipment.getId();
+        AfterCommit.run(() -> availabilityCounters.evict(equipmentId));
     }
 
      private Equipment findEquipmentById(Long id) {
@@ -351,26 +370,40 @@ public class EquipmentService {
         Equipment equipment = findEquipmentById(id);
         equipment.setAvailable(!equipment.isAvailable());
         equipment = equipmentRepository.save(equipment);
+        AfterCommit.run(() -> availabilityCounters.evict(id));
         return mapToResponseWithInventory(equipment);
     }
 
     @Transactional
     public boolean reserveEquipment(Long equipmentId, int quantity) {
-        Equipment equipment = findEquipmentById(equipmentId);
-        if (equipment.isAvailableInQuantity(quantity)) {
-            equipment.setAvailableQuantity(equipment.getAvailableQuantity() - quantity);
-            equipmentRepository.save(equipment);
-            return true;
+        if (equipmentRepository.reserveQuantity(equipmentId, quantity) == 0) {
+            if (!equipmentRepository.existsById(equipmentId)) {
+                throw new ResourceNotFoundException("Equipment not found: " + equipmentId);
+            }
+            return false;
         }
-        return false;
+        AfterCommit.run(() -> availabilityCounters.reserved(equipmentId, quantity));
+        return true;
     }
 
     @Transactional
     public void releaseEquipment(Long equipmentId, int quantity) {
-        Equipment equipment = findEquipmentById(equipmentId);
-        int newAvailable = Math.min(equipment.getAvailableQuantity() + quantity, equipment.getQuantity());
-        equipment.setAvailableQuantity(newAvailable);
-        equipmentRepository.save(equipment);
+        if (equipmentRepository.releaseQuantity(equipmentId, quantity) == 0) {
+            throw new ResourceNotFoundException("Equipment not found: " + equipmentId);
+        }
+        // Release is capped at the total quantity, so reload rather than add
+        AfterCommit.run(() -> availabilityCounters.evict(equipmentId));
+    }
+
+    /**
+     * Quantity that can currently be reserved, served from the counter cache
+     */
+    public int getReservableQuantity(Long equipmentId) {
+        return availabilityCounters.available(equipmentId);
+    }
+
+    public boolean isAvailableInQuantity(Long equipmentId, int quantity) {
+        return availabilityCounters.isAvailable(equipmentId, quantity);
     }
 
     public List<EquipmentResponse> searchEquipment(String keyword) {
@@ -438,6 +471,7 @@ public class EquipmentService {
             );
             
             equipmentRequestRepository.save(equipmentRequest);
+            reservationLedger.trackAfterCommit(equipmentRequest);
             return new MessageResponse("Equipment request approved successfully with serial number tracking");
             
         } else {
@@ -460,6 +494,7 @@ public class EquipmentService {
         }
         
         equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
         return new MessageResponse("Equipment request processed successfully");
     }
 
@@ -516,6 +551,7 @@ public class EquipmentService {
         equipmentRequest.setReturnCondition(returnCondition);
         equipmentRequest.setReturnNotes(returnNotes);
         equipmentRequestRepository.save(equipmentRequest);
+        reservationLedger.trackAfterCommit(equipmentRequest);
         
         // Notify requester
         notificationService.addNotification(
@@ -575,45 +611,118 @@ public class EquipmentService {
         Equipment equipment = findEquipmentById(equipmentId);
         
         // Count available units
-        List<EquipmentUnit> availableUnits = equipmentUnitRepository.findAvailableByEquipment(equipment);
+        int availableUnits = equipmentUnitRepository.countByEquipmentAndStatus(equipment, EquipmentUnit.UnitStatus.AVAILABLE);
         
-        // Count units that will be available during the requested time
-        List<com.auca.library.model.EquipmentRequest> conflictingRequests = equipmentRequestRepository
-                .findConflictingRequests(equipmentId, startTime, endTime);
+        // Peak quantity reserved at any point of the requested time; the ledger
+        // only covers its horizon, beyond it fall back to summing the overlaps
+        int reservedDuringPeriod = reservationLedger.maxReserved(equipmentId, startTime, endTime)
+                .orElseGet(() -> equipmentRequestRepository
+                        .findConflictingRequests(equipmentId, startTime, endTime).stream()
+                        .mapToInt(com.auca.library.model.EquipmentRequest::getRequestedQuantity)
+                        .sum());
         
-        int reservedDuringPeriod = conflictingRequests.stream()
-                .mapToInt(com.auca.library.model.EquipmentRequest::getRequestedQuantity)
-                .sum();
-        
-        int actuallyAvailable = availableUnits.size() - reservedDuringPeriod;
+        int actuallyAvailable = availableUnits - reservedDuringPeriod;
         
         return actuallyAvailable >= requestedQuantity;
     }
 
-    // Bulk assignment for multiple requests
+    // Bulk assignment for multiple requests. Requests missing from the mapping get
+    // the next free unit of their equipment. The requests are locked first, so one
+    // that a concurrent approval already took is skipped as no longer pending. Candidate
+    // units are then locked once with SKIP LOCKED, so a concurrent approval never blocks
+    // this one or gets the same unit.
     @Transactional
     public MessageResponse bulkApproveRequestsWithSerials(List<Long> requestIds, 
             Map<Long, Long> requestToUnitMapping, String adminEmail) {
         
         User admin = findUserByEmail(adminEmail);
-        int successCount = 0;
         List<String> errors = new ArrayList<>();
         
-        for (Long requestId : requestIds) {
-            try {
-                Long unitId = requestToUnitMapping.get(requestId);
-                if (unitId != null) {
-                    EquipmentRequestApprovalRequest approvalRequest = new EquipmentRequestApprovalRequest();
-                    approvalRequest.setApproved(true);
-                    
-                    handleEquipmentRequestApprovalWithSerial(requestId, approvalRequest, unitId, adminEmail);
-                    successCount++;
-                }
-            } catch (Exception e) {
-                errors.add("Request " + requestId + ": " + e.getMessage());
+        Map<Long, com.auca.library.model.EquipmentRequest> requestsById = new HashMap<>();
+        for (com.auca.library.model.EquipmentRequest request :
+                equipmentRequestRepository.lockAllByIdWithEquipmentAndUser(requestIds)) {
+            requestsById.put(request.getId(), request);
+        }
+        
+        List<com.auca.library.model.EquipmentRequest> pending = new ArrayList<>();
+        for (Long requestId : new LinkedHashSet<>(requestIds)) {
+            com.auca.library.model.EquipmentRequest request = requestsById.get(requestId);
+            if (request == null) {
+                errors.add("Request " + requestId + ": Equipment request not found: " + requestId);
+            } else if (request.getStatus() != com.auca.library.model.EquipmentRequest.RequestStatus.PENDING) {
+                errors.add("Request " + requestId + ": Only pending requests can be processed");
+            } else {
+                pending.add(request);
             }
         }
         
+        // Free units per equipment, in id order
+        Map<Long, Map<Long, EquipmentUnit>> freeUnits = new HashMap<>();
+        if (!pending.isEmpty()) {
+            Set<Long> equipmentIds = pending.stream()
+                    .map(request -> request.getEquipment().getId())
+                    .collect(Collectors.toSet());
+            for (EquipmentUnit unit : equipmentUnitRepository.lockAvailableUnits(equipmentIds)) {
+                freeUnits.computeIfAbsent(unit.getEquipment().getId(), id -> new LinkedHashMap<>())
+                        .put(unit.getId(), unit);
+            }
+        }
+        
+        // Explicit picks first so auto-allocation cannot take a unit someone chose
+        Map<com.auca.library.model.EquipmentRequest, EquipmentUnit> allocation = new LinkedHashMap<>();
+        List<com.auca.library.model.EquipmentRequest> unmapped = new ArrayList<>();
+        for (com.auca.library.model.EquipmentRequest request : pending) {
+            Long unitId = requestToUnitMapping != null ? requestToUnitMapping.get(request.getId()) : null;
+            if (unitId == null) {
+                unmapped.add(request);
+                continue;
+            }
+            EquipmentUnit unit = freeUnits.getOrDefault(request.getEquipment().getId(), Map.of()).get(unitId);
+            if (unit == null) {
+                errors.add("Request " + request.getId() + ": Selected equipment unit " + unitId + 
+                        " is not available for " + request.getEquipment().getName());
+                continue;
+            }
+            freeUnits.get(request.getEquipment().getId()).remove(unitId);
+            allocation.put(request, unit);
+        }
+        for (com.auca.library.model.EquipmentRequest request : unmapped) {
+            Iterator<EquipmentUnit> units = freeUnits.getOrDefault(request.getEquipment().getId(), Map.of())
+                    .values().iterator();
+            if (!units.hasNext()) {
+                errors.add("Request " + request.getId() + ": No available unit of " + request.getEquipment().getName());
+                continue;
+            }
+            allocation.put(request, units.next());
+            units.remove();
+        }
+        
+        // Unit and request changes are flushed as batched updates at commit
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<String>> approvedByRequester = new LinkedHashMap<>();
+        allocation.forEach((request, unit) -> {
+            unit.setStatus(EquipmentUnit.UnitStatus.IN_REQUEST);
+            request.setAssignedEquipmentUnit(unit);
+            request.setApprovedBy(admin);
+            request.setApprovedAt(now);
+            request.setStatus(com.auca.library.model.EquipmentRequest.RequestStatus.APPROVED);
+            reservationLedger.trackAfterCommit(request);
+            approvedByRequester.computeIfAbsent(request.getUser().getEmail(), email -> new ArrayList<>())
+                    .add(String.format("%s (Serial: %s)", request.getEquipment().getName(), unit.getSerialNumber()));
+        });
+        insertRequestAssignments(allocation, admin, now);
+        
+        // One notification per requester covering all of their approved requests
+        approvedByRequester.forEach((email, items) -> notificationService.addNotification(
+            email,
+            items.size() == 1 ? "Equipment Request Approved" : "Equipment Requests Approved",
+            items.size() == 1
+                ? "Your request for " + items.get(0) + " has been approved"
+                : "Your requests have been approved: " + String.join(", ", items),
+            "EQUIPMENT_APPROVED"
+        ));
+        
+        int successCount = allocation.size();
         if (errors.isEmpty()) {
             return new MessageResponse(successCount + " requests approved successfully");
         } else {
@@ -622,6 +731,22 @@ public class EquipmentService {
         }
     }
 
+    // Sequence ids let Hibernate send these inserts as JDBC batches at flush
+    private void insertRequestAssignments(Map<com.auca.library.model.EquipmentRequest, EquipmentUnit> allocation,
+            User admin, LocalDateTime now) {
+        List<EquipmentAssignment> assignments = new ArrayList<>(allocation.size());
+        allocation.forEach((request, unit) -> {
+            EquipmentAssignment assignment = new EquipmentAssignment(
+                    unit, EquipmentAssignment.AssignmentType.REQUEST_ASSIGNMENT, admin);
+            assignment.setEquipmentRequest(request);
+            assignment.setAssignedToName(request.getUser().getFullName());
+            assignment.setAssignedAt(now);
+            assignment.setStartDate(now);
+            assignments.add(assignment);
+        });
+        assignmentRepository.saveAll(assignments);
+    }
+
     // HELPER METHODS (your existing ones)
     private User findUserByEmail(String email) {
         return userRepository.findByEmail(email)
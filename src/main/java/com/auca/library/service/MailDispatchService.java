@@ -0,0 +1,381 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.response.MailDispatchStatsResponse;
+import com.auca.library.model.EmailOutbox;
+import com.auca.library.model.EmailOutbox.OutboxStatus;
+import com.auca.library.repository.EmailOutboxRepository;
+import com.auca.library.util.AfterCommit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Outbox based mail dispatch. Mail is stored in the email_outbox table as part
+ * of the caller's transaction and its id is offered to a bounded in-memory
+ * queue once that transaction commits. A single dispatcher thread sends queued
+ * mail in batches over one SMTP connection, retries failures with jittered
+ * exponential backoff and sweeps the outbox for anything the queue did not
+ * hold (overflow, retries, mail left over from before a restart).
+ * Digestible mail skips the queue and waits out a short window in the outbox;
+ * the sweep then sends everything pending for a recipient as one digest.
+ */
+@Service
+public class MailDispatchService {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailTemplateRegistry templates;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${mail.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mail.dispatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${mail.dispatch.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${mail.dispatch.digest-window-seconds:60}")
+    private long digestWindowSeconds;
+
+    @Value("${mail.dispatch.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.dispatch.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${mail.dispatch.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${spring.mail.username:}")
+    private String fromAddress;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService dispatcher;
+    private TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private final AtomicLong queueOverflows = new AtomicLong();
+    private final AtomicLong totalSendLatencyMs = new AtomicLong();
+    private final AtomicLong maxSendLatencyMs = new AtomicLong();
+    private volatile LocalDateTime lastSentAt;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "mail-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.execute(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher == null) {
+            return;
+        }
+        // Let an in-flight batch finish; whatever is unsent stays PENDING for the next start
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(pollIntervalMs * 2, TimeUnit.MILLISECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Store a rendered email body in the outbox. Joins the caller's transaction,
+     * so the mail is only sent if that transaction commits.
+     */
+    public void enqueue(String to, String subject, String body, boolean digestible) {
+        EmailOutbox mail = new EmailOutbox(to, subject, body, digestible);
+        if (digestible) {
+            // Left for the sweep, which merges it with anything else for this recipient
+            mail.setNextAttemptAt(mail.getCreatedAt().plusSeconds(digestWindowSeconds));
+            outboxRepository.save(mail);
+            return;
+        }
+
+        Long id = outboxRepository.save(mail).getId();
+
+        AfterCommit.run(() -> offer(id));
+    }
+
+    public MailDispatchStatsResponse getStats() {
+        MailDispatchStatsResponse stats = new MailDispatchStatsResponse();
+        stats.setPendingInOutbox(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        stats.setFailedInOutbox(outboxRepository.countByStatus(OutboxStatus.FAILED));
+        stats.setQueued(queue.size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setQueueOverflows(queueOverflows.get());
+        long sentCount = sent.get();
+        stats.setSent(sentCount);
+        stats.setSendErrors(sendErrors.get());
+        stats.setAverageSendLatencyMs(sentCount == 0 ? 0 : (double) totalSendLatencyMs.get() / sentCount);
+        stats.setMaxSendLatencyMs(maxSendLatencyMs.get());
+        stats.setLastSentAt(lastSentAt);
+        return stats;
+    }
+
+    private void offer(Long id) {
+        if (!queue.offer(id)) {
+            // Still PENDING in the outbox; the next sweep will pick it up
+            queueOverflows.incrementAndGet();
+        }
+    }
+
+    // ========== DISPATCHER ==========
+
+    private void dispatchLoop() {
+        List<Long> ids = new ArrayList<>(batchSize);
+        long lastSweep = System.nanoTime();
+        while (running) {
+            try {
+                Long first = queue.poll(pollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    ids.add(first);
+                    queue.drainTo(ids, batchSize - 1);
+                    dispatch(loadPending(ids));
+                }
+                // Pick up due retries and anything the queue never held, even while busy
+                if (first == null || System.nanoTime() - lastSweep > TimeUnit.MILLISECONDS.toNanos(pollIntervalMs)) {
+                    dispatch(loadDue());
+                    lastSweep = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Mail dispatcher error: " + e.getMessage());
+            } finally {
+                ids.clear();
+            }
+        }
+    }
+
+    private List<EmailOutbox> loadPending(List<Long> ids) {
+        // Ids can be queued twice (after-commit offer plus a sweep), so re-check the status
+        return transactionTemplate.execute(status -> outboxRepository.findAllById(new HashSet<>(ids)).stream()
+                .filter(mail -> mail.getStatus() == OutboxStatus.PENDING)
+                .toList());
+    }
+
+    private List<EmailOutbox> loadDue() {
+        return transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                    OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+            // Whatever else is pending for a digest recipient goes out in the same digest
+            Set<String> digestRecipients = due.stream()
+                    .filter(EmailOutbox::isDigestible)
+                    .map(EmailOutbox::getRecipient)
+                    .collect(Collectors.toSet());
+            if (digestRecipients.isEmpty()) {
+                return due;
+            }
+            Map<Long, EmailOutbox> merged = new LinkedHashMap<>();
+            due.forEach(mail -> merged.put(mail.getId(), mail));
+            outboxRepository.findByRecipientInAndStatusAndDigestibleTrue(digestRecipients, OutboxStatus.PENDING)
+                    .forEach(mail -> merged.putIfAbsent(mail.getId(), mail));
+            return new ArrayList<>(merged.values());
+        });
+    }
+
+    /**
+     * One SMTP message: a single outbox row, or a digest of several for the same recipient
+     */
+    private record Delivery(String recipient, String subject, String html, List<EmailOutbox> parts) {
+    }
+
+    private List<Delivery> toDeliveries(List<EmailOutbox> batch) {
+        List<Delivery> deliveries = new ArrayList<>();
+        Map<String, List<EmailOutbox>> digests = new LinkedHashMap<>();
+        for (EmailOutbox mail : batch) {
+            if (mail.isDigestible()) {
+                digests.computeIfAbsent(mail.getRecipient(), r -> new ArrayList<>()).add(mail);
+            } else {
+                deliveries.add(new Delivery(mail.getRecipient(), mail.getSubject(),
+                        templates.page(mail.getBody()), List.of(mail)));
+            }
+        }
+        digests.forEach((recipient, parts) -> {
+            if (parts.size() == 1) {
+                EmailOutbox mail = parts.get(0);
+                deliveries.add(new Delivery(recipient, mail.getSubject(), templates.page(mail.getBody()), parts));
+            } else {
+                parts.sort(Comparator.comparing(EmailOutbox::getCreatedAt));
+                String body = templates.digest(parts.stream().map(EmailOutbox::getBody).toList());
+                deliveries.add(new Delivery(recipient, templates.digestSubject(parts.size()),
+                        templates.page(body), parts));
+            }
+        });
+        return deliveries;
+    }
+
+    /**
+     * Send a batch through a single SMTP connection and record the outcome of each outbox row
+     */
+    private void dispatch(List<EmailOutbox> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, Delivery> messages = new LinkedHashMap<>();
+        Map<Delivery, String> failures = new LinkedHashMap<>();
+        for (Delivery delivery : toDeliveries(batch)) {
+            try {
+                messages.put(toMimeMessage(delivery), delivery);
+            } catch (MessagingException e) {
+                failures.put(delivery, e.getMessage());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    Delivery delivery = messages.get(message);
+                    if (delivery != null) {
+                        failures.put(delivery, cause.getMessage());
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(delivery -> failures.put(delivery, e.getMessage()));
+                }
+            } catch (MailException e) {
+                // Connection or authentication failure: nothing in the batch went out
+                messages.values().forEach(delivery -> failures.put(delivery, e.getMessage()));
+            }
+            long delivered = messages.values().stream().filter(d -> !failures.containsKey(d)).count();
+            recordLatency(System.nanoTime() - start, (int) delivered);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Delivery delivery : messages.values()) {
+            if (!failures.containsKey(delivery)) {
+                sent.incrementAndGet();
+                lastSentAt = now;
+            }
+        }
+        sendErrors.addAndGet(failures.size());
+
+        List<EmailOutbox> updated = new ArrayList<>();
+        for (Delivery delivery : concat(messages.values(), failures.keySet())) {
+            String error = failures.get(delivery);
+            for (EmailOutbox mail : delivery.parts()) {
+                if (error == null) {
+                    mail.setStatus(OutboxStatus.SENT);
+                    mail.setSentAt(now);
+                    mail.setLastError(null);
+                } else {
+                    scheduleRetry(mail, error, now);
+                }
+                updated.add(mail);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(updated));
+    }
+
+    private static Set<Delivery> concat(Collection<Delivery> first, Collection<Delivery> second) {
+        Set<Delivery> all = new LinkedHashSet<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private MimeMessage toMimeMessage(Delivery delivery) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        if (fromAddress != null && !fromAddress.isEmpty()) {
+            helper.setFrom(fromAddress);
+        }
+        helper.setTo(delivery.recipient());
+        helper.setSubject(delivery.subject());
+        helper.setText(delivery.html(), true);
+        return message;
+    }
+
+    /**
+     * Exponential backoff with +/-50% jitter so a recovering SMTP server is not hit by every retry at once
+     */
+    private void scheduleRetry(EmailOutbox mail, String error, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(OutboxStatus.FAILED);
+            return;
+        }
+
+        long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        long jittered = (long) (backoff * (0.5 + ThreadLocalRandom.current().nextDouble()));
+        mail.setNextAttemptAt(now.plusSeconds(Math.max(1, jittered)));
+    }
+
+    private void recordLatency(long elapsedNanos, int delivered) {
+        if (delivered <= 0) {
+            return;
+        }
+        long perMessageMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos) / delivered;
+        totalSendLatencyMs.addAndGet(perMessageMs * delivered);
+        maxSendLatencyMs.accumulateAndGet(perMessageMs, Math::max);
+    }
+}
@@ -0,0 +1,599 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.request.QRBulkGenerationRequest;
+import com.auca.library.dto.response.BulkQRGenerationResponse;
+import com.auca.library.dto.response.QRGenerationJobResponse;
+import com.auca.library.model.QRCodeLog;
+import com.auca.library.model.Room;
+import com.auca.library.model.Seat;
+import com.auca.library.model.User;
+import com.auca.library.repository.QRCodeLogRepository;
+import com.auca.library.repository.RoomRepository;
+import com.auca.library.repository.SeatRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Parallel pipeline behind bulk seat and room QR code generation.
+ * Images are rendered on a bounded CPU pool, written to storage on a separate
+ * I/O pool, and entity updates plus generation logs are committed in batches
+ * so a full-library regeneration never holds one long transaction.
+ */
+@Service
+public class QRCodeBulkGenerationService {
+
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private QRCodeLogRepository qrCodeLogRepository;
+
+    @Autowired
+    private QRCodeGenerationService qrGenerationService;
+
+    @Autowired
+    private QRCodeStorageService qrStorageService;
+
+    @Autowired
+    private QRTokenCacheService qrTokenCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${qr.generation.bulk.batch-size:50}")
+    private int batchSize;
+
+    @Value("${qr.generation.bulk.render-threads:0}")
+    private int renderThreads; // 0 = one per available processor
+
+    @Value("${qr.generation.bulk.storage-threads:4}")
+    private int storageThreads;
+
+    private ThreadPoolExecutor renderExecutor;
+    private ThreadPoolExecutor storageExecutor;
+    private ExecutorService jobExecutor;
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, QRGenerationJob> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int cpuThreads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        renderExecutor = boundedPool("qr-render-", cpuThreads, batchSize * 2);
+        storageExecutor = boundedPool("qr-store-", storageThreads, batchSize * 2);
+        // Bulk jobs run one at a time so two admins cannot fight over the same pools
+        jobExecutor = Executors.newSingleThreadExecutor(namedThreads("qr-bulk-job-"));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(QRGenerationJob::requestCancel);
+        jobExecutor.shutdownNow();
+        renderExecutor.shutdown();
+        storageExecutor.shutdown();
+    }
+
+    /**
+     * Result of a synchronous run. imagePaths maps ZIP entry names to stored
+     * images for the generate-and-download stream; it stays on the server.
+     */
+    public record BulkGenerationResult(BulkQRGenerationResponse response, Map<String, String> imagePaths) {
+    }
+
+    // ========== PUBLIC API ==========
+
+    /**
+     * Generate seat QR codes on the job thread and wait for completion
+     */
+    public BulkGenerationResult generateSeatQRCodes(List<Seat> seats, QRBulkGenerationRequest request, User admin) {
+        QRGenerationJob job = createJob("SEAT", seats.size(), request.isGenerateAndDownload());
+        runAndWait(job, seatTargets(seats, request), admin);
+        return job.toBulkResult();
+    }
+
+    /**
+     * Generate room QR codes on the job thread and wait for completion
+     */
+    public BulkGenerationResult generateRoomQRCodes(List<Room> rooms, QRBulkGenerationRequest request, User admin) {
+        QRGenerationJob job = createJob("ROOM", rooms.size(), request.isGenerateAndDownload());
+        runAndWait(job, roomTargets(rooms, request), admin);
+        return job.toBulkResult();
+    }
+
+    /**
+     * Queue a background seat generation job and return its initial status
+     */
+    public QRGenerationJobResponse startSeatJob(List<Seat> seats, QRBulkGenerationRequest request, User admin) {
+        return submit(createJob("SEAT", seats.size(), false), seatTargets(seats, request), admin);
+    }
+
+    /**
+     * Register a seat generation job now and queue it once the current
+     * transaction commits, so the job's own transactions can see seats saved
+     * in it. The returned status carries the job id straight away; if the
+     * transaction rolls back the job ends CANCELLED without running.
+     */
+    public QRGenerationJobResponse startSeatJobAfterCommit(List<Seat> seats, QRBulkGenerationRequest request, User admin) {
+        QRGenerationJob job = createJob("SEAT", seats.size(), false);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return submit(job, seatTargets(seats, request), admin);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(job, seatTargets(seats, request), admin);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    job.errors.add("The seats were not saved");
+                    job.finish("CANCELLED");
+                }
+            }
+        });
+        return job.toJobResponse();
+    }
+
+    /**
+     * Queue a background room generation job and return its initial status
+     */
+    public QRGenerationJobResponse startRoomJob(List<Room> rooms, QRBulkGenerationRequest request, User admin) {
+        return submit(createJob("ROOM", rooms.size(), false), roomTargets(rooms, request), admin);
+    }
+
+    /**
+     * Current progress of a job, or null if unknown or expired
+     */
+    public QRGenerationJobResponse getJobStatus(String jobId) {
+        QRGenerationJob job = jobs.get(jobId);
+        return job != null ? job.toJobResponse() : null;
+    }
+
+    /**
+     * Request cancellation. Items already rendered are still committed so that
+     * stored files and database rows stay consistent.
+     */
+    public QRGenerationJobResponse cancelJob(String jobId) {
+        QRGenerationJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        job.requestCancel();
+        return job.toJobResponse();
+    }
+
+    public List<QRGenerationJobResponse> getJobs() {
+        return jobs.values().stream()
+                .sorted((a, b) -> b.startTime.compareTo(a.startTime))
+                .map(QRGenerationJob::toJobResponse)
+                .toList();
+    }
+
+    // ========== PIPELINE ==========
+
+    private QRGenerationJobResponse submit(QRGenerationJob job, List<Target> targets, User admin) {
+        try {
+            jobExecutor.submit(() -> run(job, targets, admin));
+        } catch (RejectedExecutionException e) {
+            job.finish("FAILED");
+            job.errors.add("Job could not be scheduled: " + e.getMessage());
+        }
+        return job.toJobResponse();
+    }
+
+    // Synchronous requests queue behind background jobs like any other run
+    private void runAndWait(QRGenerationJob job, List<Target> targets, User admin) {
+        try {
+            jobExecutor.submit(() -> run(job, targets, admin)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.requestCancel();
+            job.errors.add("Interrupted while waiting for bulk generation; the job was cancelled");
+        } catch (ExecutionException | RejectedExecutionException e) {
+            job.errors.add("Bulk generation aborted: " + rootMessage(e));
+            job.finish("FAILED");
+        }
+    }
+
+    private void run(QRGenerationJob job, List<Target> targets, User admin) {
+        job.start(targets.size());
+        try {
+            List<List<Target>> chunks = partition(targets, Math.max(batchSize, 1));
+            List<CompletableFuture<Outcome>> inFlight = chunks.isEmpty()
+                    ? List.of()
+                    : submitChunk(chunks.get(0), job);
+
+            // Render and store chunk i+1 while chunk i is being committed
+            for (int i = 0; !inFlight.isEmpty(); i++) {
+                List<CompletableFuture<Outcome>> next = (i + 1 < chunks.size() && !job.isCancelRequested())
+                        ? submitChunk(chunks.get(i + 1), job)
+                        : List.of();
+
+                List<Outcome> outcomes = inFlight.stream().map(CompletableFuture::join).toList();
+                commitChunk(outcomes, job, admin);
+                inFlight = next;
+            }
+
+            job.finish(job.isCancelRequested() ? "CANCELLED" : "COMPLETED");
+        } catch (RuntimeException e) {
+            job.errors.add("Bulk generation aborted: " + e.getMessage());
+            job.finish("FAILED");
+        }
+    }
+
+    private List<CompletableFuture<Outcome>> submitChunk(List<Target> chunk, QRGenerationJob job) {
+        List<CompletableFuture<Outcome>> futures = new ArrayList<>(chunk.size());
+        for (Target target : chunk) {
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> render(target, job), renderExecutor)
+                    .thenApplyAsync(this::store, storageExecutor)
+                    .exceptionally(e -> Outcome.failed(target, rootMessage(e))));
+        }
+        return futures;
+    }
+
+    private Outcome render(Target target, QRGenerationJob job) {
+        if (job.isCancelRequested()) {
+            return Outcome.skipped(target);
+        }
+        try {
+            String token = qrGenerationService.generateUniqueToken();
+            String qrUrl = "SEAT".equals(target.resourceType())
+                    ? qrGenerationService.generateSeatQRUrl(token)
+                    : qrGenerationService.generateRoomQRUrl(token);
+            byte[] image = qrGenerationService.generateQRCodeImage(qrUrl, target.identifier());
+            return new Outcome(target, token, qrUrl, image, null, null, false);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private Outcome store(Outcome rendered) {
+        if (rendered.skipped()) {
+            return rendered;
+        }
+        try {
+            Target target = rendered.target();
+            String filename = qrGenerationService.buildQRCodeFilename(target.resourceType(), target.identifier(),
+                    rendered.qrUrl());
+            String imagePath = qrStorageService.storeQRCode(rendered.image(), filename, target.resourceType().toLowerCase());
+            return rendered.withImagePath(imagePath);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void commitChunk(List<Outcome> outcomes, QRGenerationJob job, User admin) {
+        List<Outcome> stored = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.skipped()) {
+                job.skipped.incrementAndGet();
+            } else if (outcome.error() != null) {
+                job.recordFailure(outcome.target(), outcome.error());
+            } else {
+                stored.add(outcome);
+            }
+        }
+
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        Set<Long> applied;
+        try {
+            applied = transactionTemplate.execute(status -> applyChunk(stored, admin));
+        } catch (RuntimeException e) {
+            // Nothing from this batch was committed; drop the orphaned files
+            for (Outcome outcome : stored) {
+                qrStorageService.deleteQRCode(outcome.imagePath());
+                job.recordFailure(outcome.target(), "Database update failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (applied != null && !applied.isEmpty()) {
+            if ("SEAT".equals(stored.get(0).target().resourceType())) {
+                qrTokenCache.evictSeats(applied);
+            } else {
+                qrTokenCache.evictRooms(applied);
+            }
+        }
+
+        for (Outcome outcome : stored) {
+            if (applied != null && applied.contains(outcome.target().resourceId())) {
+                job.recordSuccess(outcome);
+            } else {
+                qrStorageService.deleteQRCode(outcome.imagePath());
+                job.recordFailure(outcome.target(), "Resource no longer exists");
+            }
+        }
+    }
+
+    /**
+     * Apply one batch of generated codes: update the resources, retire their
+     * previous logs with a single statement and insert the new logs together.
+     */
+    private Set<Long> applyChunk(List<Outcome> stored, User admin) {
+        String resourceType = stored.get(0).target().resourceType();
+        Map<Long, Outcome> byId = stored.stream()
+                .collect(Collectors.toMap(o -> o.target().resourceId(), Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<QRCodeLog> logs = new ArrayList<>();
+        Set<Long> applied = new HashSet<>();
+
+        if ("SEAT".equals(resourceType)) {
+            List<Seat> seats = seatRepository.findAllById(byId.keySet());
+            for (Seat seat : seats) {
+                Outcome outcome = byId.get(seat.getId());
+                String oldToken = seat.getQrCodeToken();
+                seat.setQrCodeToken(outcome.token());
+                seat.setQrCodeUrl(outcome.qrUrl());
+                seat.setQrImagePath(outcome.imagePath());
+                seat.setQrGeneratedAt(now);
+                seat.setQrVersion(seat.getQrVersion() != null ? seat.getQrVersion() + 1 : 1);
+                logs.add(buildLog(resourceType, seat.getId(), admin, outcome.token(), oldToken, seat.getQrVersion()));
+                applied.add(seat.getId());
+            }
+            seatRepository.saveAll(seats);
+        } else {
+            List<Room> rooms = roomRepository.findAllById(byId.keySet());
+            for (Room room : rooms) {
+                Outcome outcome = byId.get(room.getId());
+                String oldToken = room.getQrCodeToken();
+                room.setQrCodeToken(outcome.token());
+                room.setQrCodeUrl(outcome.qrUrl());
+                room.setQrImagePath(outcome.imagePath());
+                room.setQrGeneratedAt(now);
+                room.setQrVersion(room.getQrVersion() != null ? room.getQrVersion() + 1 : 1);
+                logs.add(buildLog(resourceType, room.getId(), admin, outcome.token(), oldToken, room.getQrVersion()));
+                applied.add(room.getId());
+            }
+            roomRepository.saveAll(rooms);
+        }
+
+        if (!applied.isEmpty()) {
+            qrCodeLogRepository.markAllAsNotCurrentForResources(resourceType, applied);
+            qrCodeLogRepository.saveAll(logs);
+        }
+        return applied;
+    }
+
+    private QRCodeLog buildLog(String resourceType, Long resourceId, User admin, String newToken,
+                               String oldToken, Integer version) {
+        QRCodeLog log = new QRCodeLog(resourceType, resourceId, admin, newToken);
+        log.setOldToken(oldToken);
+        log.setQrVersion(version);
+        log.setGenerationReason("Bulk generation");
+        return log;
+    }
+
+    // ========== HELPERS ==========
+
+    private List<Target> seatTargets(List<Seat> seats, QRBulkGenerationRequest request) {
+        List<Target> targets = new ArrayList<>();
+        for (Seat seat : seats) {
+            if (shouldGenerate(seat.getQrImagePath(), request)) {
+                targets.add(new Target("SEAT", seat.getId(), seat.getSeatNumber()));
+            }
+        }
+        return targets;
+    }
+
+    private List<Target> roomTargets(List<Room> rooms, QRBulkGenerationRequest request) {
+        List<Target> targets = new ArrayList<>();
+        for (Room room : rooms) {
+            if (shouldGenerate(room.getQrImagePath(), request)) {
+                targets.add(new Target("ROOM", room.getId(), room.getRoomNumber()));
+            }
+        }
+        return targets;
+    }
+
+    private boolean shouldGenerate(String qrImagePath, QRBulkGenerationRequest request) {
+        return request.isRegenerateExisting() || qrImagePath == null || qrImagePath.trim().isEmpty()
+                || !qrStorageService.exists(qrImagePath);
+    }
+
+    private QRGenerationJob createJob(String resourceType, int totalRequested, boolean collectImages) {
+        evictFinishedJobs();
+        QRGenerationJob job = new QRGenerationJob(UUID.randomUUID().toString(), resourceType, totalRequested, collectImages);
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.endTime != null && job.endTime.isBefore(cutoff));
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause != cause.getCause()) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private static ThreadPoolExecutor boundedPool(String prefix, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, threads)),
+                namedThreads(prefix),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Target(String resourceType, Long resourceId, String identifier) {
+    }
+
+    private record Outcome(Target target, String token, String qrUrl, byte[] image,
+                           String imagePath, String error, boolean skipped) {
+
+        static Outcome failed(Target target, String error) {
+            return new Outcome(target, null, null, null, null, error, false);
+        }
+
+        static Outcome skipped(Target target) {
+            return new Outcome(target, null, null, null, null, null, true);
+        }
+
+        Outcome withImagePath(String path) {
+            return new Outcome(target, token, qrUrl, image, path, error, skipped);
+        }
+    }
+
+    /**
+     * Progress of one bulk generation run
+     */
+    static class QRGenerationJob {
+        private final String id;
+        private final String resourceType;
+        private final int totalRequested;
+        private final boolean collectImages;
+        private final LocalDateTime startTime = LocalDateTime.now();
+        private volatile LocalDateTime endTime;
+        private volatile String status = "QUEUED";
+        private volatile int totalScheduled;
+        private volatile boolean cancelRequested;
+
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final List<Long> successfulIds = Collections.synchronizedList(new ArrayList<>());
+        private final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        private final Map<String, String> imagePaths = new ConcurrentHashMap<>();
+
+        QRGenerationJob(String id, String resourceType, int totalRequested, boolean collectImages) {
+            this.id = id;
+            this.resourceType = resourceType;
+            this.totalRequested = totalRequested;
+            this.collectImages = collectImages;
+        }
+
+        void start(int scheduled) {
+            this.totalScheduled = scheduled;
+            this.status = "RUNNING";
+        }
+
+        void finish(String finalStatus) {
+            this.status = finalStatus;
+            this.endTime = LocalDateTime.now();
+        }
+
+        void requestCancel() {
+            this.cancelRequested = true;
+        }
+
+        boolean isCancelRequested() {
+            return cancelRequested;
+        }
+
+        void recordSuccess(Outcome outcome) {
+            succeeded.incrementAndGet();
+            successfulIds.add(outcome.target().resourceId());
+            if (collectImages) {
+                imagePaths.put(outcome.target().identifier() + "_QR.png", outcome.imagePath());
+            }
+        }
+
+        void recordFailure(Target target, String message) {
+            failed.incrementAndGet();
+            errors.add("Failed to generate QR for " + target.resourceType().toLowerCase() + " "
+                    + target.identifier() + ": " + message);
+        }
+
+        BulkGenerationResult toBulkResult() {
+            BulkQRGenerationResponse response = new BulkQRGenerationResponse();
+            response.setStartTime(startTime);
+            response.setEndTime(endTime);
+            response.setTotalRequested(totalRequested);
+            response.setSuccessCount(succeeded.get());
+            response.setFailureCount(failed.get());
+            response.setSuccessfulResourceIds(new ArrayList<>(successfulIds));
+            response.setErrors(new ArrayList<>(errors));
+            // Images are streamed from storage, never held here
+            response.setGeneratedQRCodes(new HashMap<>());
+            response.setDownloadAvailable(collectImages && !imagePaths.isEmpty());
+            response.setDownloadMessage(response.getSuccessCount() + " QR codes generated successfully");
+            return new BulkGenerationResult(response, new LinkedHashMap<>(imagePaths));
+        }
+
+        QRGenerationJobResponse toJobResponse() {
+            int processed = succeeded.get() + failed.get() + skipped.get();
+            QRGenerationJobResponse response = new QRGenerationJobResponse();
+            response.setJobId(id);
+            response.setResourceType(resourceType);
+            response.setStatus(status);
+            response.setTotalRequested(totalScheduled);
+            response.setProcessedCount(processed);
+            response.setSuccessCount(succeeded.get());
+            response.setFailureCount(failed.get());
+            response.setSkippedCount(skipped.get());
+            response.setProgressPercent(totalScheduled == 0
+                    ? ("QUEUED".equals(status) ? 0 : 100)
+                    : (int) Math.min(100, processed * 100L / totalScheduled));
+            response.setCancelRequested(cancelRequested);
+            response.setStartTime(startTime);
+            response.setEndTime(endTime);
+            response.setErrors(new ArrayList<>(errors));
+            return response;
+        }
+    }
+}
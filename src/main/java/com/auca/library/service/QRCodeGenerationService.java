@@ -4,28 +4,38 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageConfig;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
@@ -49,8 +59,29 @@ public class QRCodeGenerationService {
     @Value("${qr.generation.logo.path:classpath:static/logo.png}")
     private String logoPath;
 
+    // Higher quality = less deflate effort; QR images compress well either way
+    @Value("${qr.generation.png-compression-quality:0.75}")
+    private float pngCompressionQuality;
+
     private static final String DATE_FORMAT = "yyyyMMdd_HHmmss";
     private static final int LOGO_SIZE_RATIO = 5; // Logo will be 1/5 of QR code size
+    private static final int TEXT_AREA_HEIGHT = 40; // Extra pixels below the code for the label
+    private static final int PNG_BUFFER_HINT = 16 * 1024;
+    private static final int BLACK_RGB = 0x000000;
+    private static final int WHITE_RGB = 0xFFFFFF;
+    private static final Font OVERLAY_FONT = new Font("Arial", Font.BOLD, 16);
+
+    private static final int MAX_POOLED_CANVASES = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    // Rendering caches: the logo is decoded once and scaled once per size,
+    // canvases are pooled per size, and each thread keeps its own PNG writer
+    private final Map<Integer, BufferedImage> scaledLogoCache = new ConcurrentHashMap<>();
+    private volatile BufferedImage decodedLogo;
+    private volatile boolean logoLoaded;
+
+    private final Map<Long, BlockingQueue<BufferedImage>> canvasPools = new ConcurrentHashMap<>();
+    private final ThreadLocal<ImageWriter> pngWriter =
+            ThreadLocal.withInitial(() -> ImageIO.getImageWritersByFormatName("png").next());
 
     /**
      * Generate a unique token for QR code
@@ -88,70 +119,80 @@ public class QRCodeGenerationService {
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
         BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, qrSize, qrSize, hints);
 
-        // Convert to BufferedImage
-        MatrixToImageConfig config = new MatrixToImageConfig(0xFF000000, 0xFFFFFFFF);
-        BufferedImage qrImage = MatrixToImageWriter.toBufferedImage(bitMatrix, config);
+        boolean hasText = overlayText != null && !overlayText.isEmpty();
 
-        // Add logo if enabled
-        if (logoEnabled) {
-            qrImage = addLogoToQRCode(qrImage);
-        }
+        // Render into a pooled canvas; it is fully repainted every time
+        BufferedImage canvas = borrowCanvas(qrSize, hasText ? qrSize + TEXT_AREA_HEIGHT : qrSize);
+        try {
+            drawMatrix(canvas, bitMatrix);
 
-        // Add overlay text (seat/room number)
-        if (overlayText != null && !overlayText.isEmpty()) {
-            qrImage = addTextToQRCode(qrImage, overlayText);
-        }
+            // Add logo if enabled
+            if (logoEnabled) {
+                addLogoToQRCode(canvas);
+            }
 
-        // Convert to byte array
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(qrImage, "PNG", baos);
-        return baos.toByteArray();
+            // Add overlay text (seat/room number)
+            if (hasText) {
+                addTextToQRCode(canvas, overlayText);
+            }
+
+            return encodePng(canvas);
+        } finally {
+            releaseCanvas(canvas);
+        }
     }
 
     /**
      * Generate QR code and save to file
      */
     public String generateAndSaveQRCode(String content, String type, String identifier) throws WriterException, IOException {
-        // Generate filename
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_FORMAT));
-        String filename = String.format("QR_%s_%s_%s.png", type.toUpperCase(), identifier, timestamp);
-
-        // Generate QR code image
-        byte[] qrImageBytes = generateQRCodeImage(content, identifier);
+        // Callers render the image themselves; only the filename is needed here
+        return buildQRCodeFilename(type, identifier, content);
+    }
 
-        // Return filename for storage service to handle
-        return filename;
+    /**
+     * Build the storage filename for a QR code image. The content carries a
+     * fresh token on every generation, so its hash makes each name unique and a
+     * stored file is never overwritten with a different image.
+     */
+    public String buildQRCodeFilename(String type, String identifier, String content) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern(DATE_FORMAT));
+        String contentHash = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+        return String.format("QR_%s_%s_%s_%s.png", type.toUpperCase(), identifier, timestamp, contentHash);
     }
 
     /**
-     * Add logo to QR code center
+     * Paint the QR modules straight into the canvas pixel buffer
      */
-    private BufferedImage addLogoToQRCode(BufferedImage qrImage) throws IOException {
-        try {
-            // Load logo - handle both classpath and file system paths
-            BufferedImage logo = null;
-            if (logoPath.startsWith("classpath:")) {
-                String resourcePath = logoPath.substring("classpath:".length());
-                var logoStream = getClass().getClassLoader().getResourceAsStream(resourcePath);
-                if (logoStream != null) {
-                    logo = ImageIO.read(logoStream);
+    private void drawMatrix(BufferedImage canvas, BitMatrix bitMatrix) {
+        int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+        int width = canvas.getWidth();
+        int matrixWidth = Math.min(bitMatrix.getWidth(), width);
+        int matrixHeight = Math.min(bitMatrix.getHeight(), canvas.getHeight());
+
+        Arrays.fill(pixels, WHITE_RGB);
+        for (int y = 0; y < matrixHeight; y++) {
+            int row = y * width;
+            for (int x = 0; x < matrixWidth; x++) {
+                if (bitMatrix.get(x, y)) {
+                    pixels[row + x] = BLACK_RGB;
                 }
-            } else {
-                File logoFile = new File(logoPath);
-                if (logoFile.exists()) {
-                    logo = ImageIO.read(logoFile);
-                }
-            }
-
-            if (logo == null) {
-                return qrImage; // Return original if logo not found
             }
+        }
+    }
 
+    /**
+     * Add logo to QR code center
+     */
+    private void addLogoToQRCode(BufferedImage qrImage) {
+        try {
             // Calculate logo size (1/5 of QR code)
             int logoSize = qrSize / LOGO_SIZE_RATIO;
 
-            // Scale logo
-            Image scaledLogo = logo.getScaledInstance(logoSize, logoSize, Image.SCALE_SMOOTH);
+            BufferedImage scaledLogo = getScaledLogo(logoSize);
+            if (scaledLogo == null) {
+                return; // Leave QR code as is if logo not found
+            }
 
             // Create graphics context
             Graphics2D graphics = qrImage.createGraphics();
@@ -168,38 +209,86 @@ public class QRCodeGenerationService {
             // Draw logo
             graphics.drawImage(scaledLogo, x, y, null);
             graphics.dispose();
-
-            return qrImage;
         } catch (Exception e) {
-            // Log error and return original image
+            // Log error and keep the plain QR code
             System.err.println("Error adding logo to QR code: " + e.getMessage());
-            return qrImage;
         }
     }
 
     /**
-     * Add text overlay to QR code
+     * Logo decoded once and pre-scaled once per size. Returns null if no logo is available.
      */
-    private BufferedImage addTextToQRCode(BufferedImage qrImage, String text) {
-        // Create a new image with extra space for text
-        int newHeight = qrSize + 40; // Add 40 pixels for text
-        BufferedImage combined = new BufferedImage(qrSize, newHeight, BufferedImage.TYPE_INT_RGB);
+    private BufferedImage getScaledLogo(int logoSize) throws IOException {
+        BufferedImage cached = scaledLogoCache.get(logoSize);
+        if (cached != null) {
+            return cached;
+        }
 
-        // Create graphics context
-        Graphics2D g = combined.createGraphics();
+        BufferedImage logo = getDecodedLogo();
+        if (logo == null) {
+            return null;
+        }
+
+        BufferedImage scaled = new BufferedImage(logoSize, logoSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.drawImage(logo, 0, 0, logoSize, logoSize, null);
+        g.dispose();
 
-        // Fill background
-        g.setColor(Color.WHITE);
-        g.fillRect(0, 0, qrSize, newHeight);
+        BufferedImage existing = scaledLogoCache.putIfAbsent(logoSize, scaled);
+        return existing != null ? existing : scaled;
+    }
 
-        // Draw QR code
-        g.drawImage(qrImage, 0, 0, null);
+    /**
+     * Load logo - handle both classpath and file system paths
+     */
+    private synchronized BufferedImage getDecodedLogo() throws IOException {
+        if (logoLoaded) {
+            return decodedLogo;
+        }
+
+        BufferedImage logo = null;
+        if (logoPath.startsWith("classpath:")) {
+            String resourcePath = logoPath.substring("classpath:".length());
+            try (InputStream logoStream = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
+                if (logoStream != null) {
+                    logo = ImageIO.read(logoStream);
+                }
+            }
+        } else {
+            File logoFile = new File(logoPath);
+            if (logoFile.exists()) {
+                logo = ImageIO.read(logoFile);
+            }
+        }
+
+        decodedLogo = logo;
+        logoLoaded = true;
+        return decodedLogo;
+    }
+
+    /**
+     * Drop the cached logo so the next QR code picks up a replaced logo file
+     */
+    public synchronized void clearLogoCache() {
+        scaledLogoCache.clear();
+        decodedLogo = null;
+        logoLoaded = false;
+    }
+
+    /**
+     * Add text overlay below the QR code
+     */
+    private void addTextToQRCode(BufferedImage canvas, String text) {
+        Graphics2D g = canvas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
         // Draw text
         g.setColor(Color.BLACK);
-        g.setFont(new Font("Arial", Font.BOLD, 16));
+        g.setFont(OVERLAY_FONT);
         
         // Center text
         FontMetrics fm = g.getFontMetrics();
@@ -209,8 +298,46 @@ public class QRCodeGenerationService {
         
         g.drawString(text, x, y);
         g.dispose();
+    }
+
+    /**
+     * Take a canvas from the pool instead of allocating two images per QR code
+     */
+    private BufferedImage borrowCanvas(int width, int height) {
+        BufferedImage canvas = canvasPool(width, height).poll();
+        return canvas != null ? canvas : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private void releaseCanvas(BufferedImage canvas) {
+        // Dropped when the pool is full
+        canvasPool(canvas.getWidth(), canvas.getHeight()).offer(canvas);
+    }
+
+    private BlockingQueue<BufferedImage> canvasPool(int width, int height) {
+        long key = ((long) width << 32) | height;
+        return canvasPools.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(MAX_POOLED_CANVASES));
+    }
 
-        return combined;
+    /**
+     * Encode with a reused PNG writer, in-memory stream (no ImageIO disk cache)
+     * and a faster deflate setting than the ImageIO default
+     */
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ImageWriter writer = pngWriter.get();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(pngCompressionQuality);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(PNG_BUFFER_HINT);
+        try (ImageOutputStream output = new MemoryCacheImageOutputStream(baos)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.reset();
+        }
+        return baos.toByteArray();
     }
 
     /**
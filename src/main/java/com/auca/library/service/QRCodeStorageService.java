@@ -1,18 +1,25 @@
 package com.auca.library.service;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 public class QRCodeStorageService {
@@ -29,9 +36,28 @@ public class QRCodeStorageService {
     @Value("${qr.storage.s3.region:us-east-1}")
     private String s3Region;
 
+    // Small LRU for the images kiosks and print sheets fetch over and over; 0 disables it
+    @Value("${qr.image-cache.max-entries:128}")
+    private int imageCacheMaxEntries;
+
     private static final String SEAT_FOLDER = "seats";
     private static final String ROOM_FOLDER = "rooms";
 
+    private final Map<String, byte[]> imageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > imageCacheMaxEntries;
+        }
+    };
+
+    // Paths served once from disk recently; a second request admits the image to imageCache
+    private final Map<String, Boolean> recentMisses = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > imageCacheMaxEntries;
+        }
+    };
+
     /**
      * Initialize storage directories
      */
@@ -76,13 +102,20 @@ public class QRCodeStorageService {
         // Ensure directory exists
         Files.createDirectories(folderPath);
 
-        // Write file
-        try (FileOutputStream fos = new FileOutputStream(filePath.toFile())) {
-            fos.write(imageBytes);
+        // Write next to the target and rename, so readers only ever see a complete file
+        Path tempFile = Files.createTempFile(folderPath, filename, ".tmp");
+        try {
+            Files.write(tempFile, imageBytes);
+            Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
 
+        String relativePath = folder + "/" + filename;
+        evictCachedImage(relativePath);
+
         // Return relative path
-        return folder + "/" + filename;
+        return relativePath;
     }
 
     /**
@@ -122,6 +155,84 @@ public class QRCodeStorageService {
         return Files.readAllBytes(filePath);
     }
 
+    /**
+     * Resolve a stored QR code to its file on local storage, for streaming
+     * without loading the image into memory
+     */
+    public Path getLocalPath(String relativePath) {
+        if (!"local".equals(storageType)) {
+            throw new UnsupportedOperationException("Direct file access is only available for local storage");
+        }
+        Path basePath = Paths.get(localStoragePath).toAbsolutePath().normalize();
+        Path filePath = basePath.resolve(relativePath).normalize();
+        if (!filePath.startsWith(basePath)) {
+            throw new IllegalArgumentException("Invalid QR code path: " + relativePath);
+        }
+        return filePath;
+    }
+
+    /**
+     * QR code image as a servable resource. Images requested again soon after
+     * a miss come from a small LRU; everything else is a FileSystemResource that
+     * is streamed from disk without being read into memory.
+     */
+    public Resource getQRCodeResource(String relativePath) throws IOException {
+        byte[] cached = getCachedImage(relativePath);
+        if (cached != null) {
+            return new ByteArrayResource(cached);
+        }
+
+        Path filePath = getLocalPath(relativePath);
+        if (!Files.isRegularFile(filePath)) {
+            throw new FileNotFoundException("QR code file not found: " + relativePath);
+        }
+
+        if (imageCacheMaxEntries > 0 && isRepeatMiss(relativePath)) {
+            byte[] imageBytes = Files.readAllBytes(filePath);
+            cacheImage(relativePath, imageBytes);
+            return new ByteArrayResource(imageBytes);
+        }
+        return new FileSystemResource(filePath);
+    }
+
+    /**
+     * Strong ETag for a stored image. Filenames include a hash of the encoded
+     * content and files are written once by rename, so the path alone identifies
+     * the image and conditional requests are answered without touching disk.
+     */
+    public String getImageETag(String relativePath) {
+        return "\"" + DigestUtils.md5DigestAsHex(relativePath.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private byte[] getCachedImage(String relativePath) {
+        if (imageCacheMaxEntries <= 0) {
+            return null;
+        }
+        synchronized (imageCache) {
+            return imageCache.get(relativePath);
+        }
+    }
+
+    private boolean isRepeatMiss(String relativePath) {
+        synchronized (imageCache) {
+            return recentMisses.put(relativePath, Boolean.TRUE) != null;
+        }
+    }
+
+    private void cacheImage(String relativePath, byte[] imageBytes) {
+        synchronized (imageCache) {
+            recentMisses.remove(relativePath);
+            imageCache.put(relativePath, imageBytes);
+        }
+    }
+
+    private void evictCachedImage(String relativePath) {
+        synchronized (imageCache) {
+            recentMisses.remove(relativePath);
+            imageCache.remove(relativePath);
+        }
+    }
+
     /**
      * Retrieve QR code from S3 (placeholder)
      */
@@ -150,6 +261,7 @@ public class QRCodeStorageService {
      * Delete QR code from local storage
      */
     private boolean deleteLocal(String relativePath) throws IOException {
+        evictCachedImage(relativePath);
         Path basePath = Paths.get(localStoragePath);
         Path filePath = basePath.resolve(relativePath);
 
@@ -204,6 +316,7 @@ public class QRCodeStorageService {
         String archivePath = currentPath.replace(".png", "_archived_" + timestamp + ".png");
 
         if ("local".equals(storageType)) {
+            evictCachedImage(currentPath);
             Path basePath = Paths.get(localStoragePath);
             Path source = basePath.resolve(currentPath);
             Path destination = basePath.resolve(archivePath);
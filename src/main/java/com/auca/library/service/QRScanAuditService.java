@@ -0,0 +1,181 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.dto.response.QRScanAuditStatsResponse;
+import com.auca.library.model.QRScanLog;
+import com.auca.library.repository.QRScanLogRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Scan audit pipeline. Scans only offer an event to a bounded ring buffer;
+ * a single background writer drains it and inserts the events in batches.
+ * When the buffer is full the event is dropped and counted rather than
+ * slowing down the scan.
+ */
+@Service
+public class QRScanAuditService {
+
+    @Autowired
+    private QRScanLogRepository scanLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${qr.scan.audit.buffer-size:4096}")
+    private int bufferSize;
+
+    @Value("${qr.scan.audit.batch-size:100}")
+    private int batchSize;
+
+    @Value("${qr.scan.audit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<ScanEvent> buffer;
+    private ExecutorService writer;
+    private TransactionTemplate transactionTemplate;
+    private volatile boolean running;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+
+    /**
+     * One scan as seen by the controller
+     */
+    public record ScanEvent(String type, Long resourceId, String token, Long userId,
+                            boolean success, String result, long latencyMs, LocalDateTime scannedAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "qr-scan-audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(flushIntervalMs * 5, TimeUnit.MILLISECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record a scan. Never blocks and never touches the database.
+     */
+    public void record(String type, Long resourceId, String token, Long userId,
+                       boolean success, String result, long latencyMs) {
+        // Type and token come straight from the request; clip them so one bad scan cannot fail a batch
+        ScanEvent event = new ScanEvent(type != null ? clip(type.toUpperCase(), 50) : "UNKNOWN", resourceId,
+                clip(token, 100), userId, success, clip(result, 50), latencyMs, LocalDateTime.now());
+        if (buffer.offer(event)) {
+            recorded.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static String clip(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    public QRScanAuditStatsResponse getStats() {
+        QRScanAuditStatsResponse stats = new QRScanAuditStatsResponse();
+        stats.setBufferCapacity(bufferSize);
+        stats.setBuffered(buffer.size());
+        stats.setRecorded(recorded.get());
+        stats.setWritten(written.get());
+        stats.setDropped(dropped.get());
+        stats.setFailed(failed.get());
+        stats.setBatchesWritten(batchesWritten.get());
+        stats.setLastFlushAt(lastFlushAt);
+        return stats;
+    }
+
+    // ========== WRITER ==========
+
+    private void writeLoop() {
+        List<ScanEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                ScanEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: persist whatever is left and stop
+                buffer.drainTo(batch);
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ScanEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<QRScanLog> logs = batch.stream().map(this::toLog).toList();
+            transactionTemplate.executeWithoutResult(status -> scanLogRepository.saveAll(logs));
+            written.addAndGet(batch.size());
+            batchesWritten.incrementAndGet();
+            lastFlushAt = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            System.err.println("Failed to write " + batch.size() + " QR scan audit events: " + e.getMessage());
+        }
+    }
+
+    private QRScanLog toLog(ScanEvent event) {
+        QRScanLog log = new QRScanLog();
+        log.setResourceType(event.type());
+        log.setResourceId(event.resourceId());
+        log.setToken(event.token());
+        log.setUserId(event.userId());
+        log.setSuccess(event.success());
+        log.setResult(event.result());
+        log.setLatencyMs(event.latencyMs());
+        log.setScannedAt(event.scannedAt());
+        return log;
+    }
+}
@@ -4,10 +4,11 @@ import com.auca.library.dto.response.*;
 import com.auca.library.exception.ResourceNotFoundException;
 import com.auca.library.model.*;
 import com.auca.library.repository.*;
+import com.auca.library.security.services.UserDetailsImpl;
+import com.auca.library.service.QRTokenCacheService.CachedRoom;
+import com.auca.library.service.QRTokenCacheService.CachedSeat;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
@@ -15,7 +16,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class QRScanService {
@@ -36,19 +36,45 @@ public class QRScanService {
     private UserRepository userRepository;
 
     @Autowired
-    private QRCodeLogRepository qrCodeLogRepository;
+    private NotificationService notificationService;
 
     @Autowired
-    private NotificationService notificationService;
+    private QRTokenCacheService tokenCache;
 
     private static final int EARLY_CHECK_IN_MINUTES = 15;
+    private static final int CHECK_IN_WINDOW_MINUTES = 10; // Check-in allowed from 10 min before to 10 min after start
     private static final int LATE_CHECK_IN_MINUTES = 20;
 
+    /**
+     * Scanning user: id and display name are all the scan path needs
+     */
+    private record ScanUser(Long id, String fullName) {
+    }
+
     /**
      * Process QR code scan
      */
     @Transactional
     public QRScanResponse processScan(String type, String token, String userEmail) {
+        if (userEmail == null || userEmail.isEmpty()) {
+            return processScan(type, token, null, false);
+        }
+        ScanUser user = userRepository.findByEmail(userEmail)
+                .map(u -> new ScanUser(u.getId(), u.getFullName()))
+                .orElse(null);
+        return processScan(type, token, user, user == null);
+    }
+
+    /**
+     * Process QR code scan for an authenticated principal - skips the user lookup
+     */
+    @Transactional
+    public QRScanResponse processScan(String type, String token, UserDetailsImpl principal) {
+        ScanUser user = principal != null ? new ScanUser(principal.getId(), principal.getFullName()) : null;
+        return processScan(type, token, user, false);
+    }
+
+    private QRScanResponse processScan(String type, String token, ScanUser user, boolean unknownUser) {
         // Validate token format
         if (!isValidToken(token)) {
             return createErrorResponse("Invalid QR code format");
@@ -56,9 +82,9 @@ public class QRScanService {
 
         // Process based on type
         if ("seat".equalsIgnoreCase(type)) {
-            return processSeatScan(token, userEmail);
+            return processSeatScan(token, user, unknownUser);
         } else if ("room".equalsIgnoreCase(type)) {
-            return processRoomScan(token, userEmail);
+            return processRoomScan(token, user, unknownUser);
         } else {
             return createErrorResponse("Invalid QR code type");
         }
@@ -67,17 +93,17 @@ public class QRScanService {
    /**
  * Process seat QR code scan - ENHANCED VERSION
  */
-private QRScanResponse processSeatScan(String token, String userEmail) {
-    // Find seat by token
-    Optional<Seat> seatOpt = seatRepository.findByQrCodeToken(token);
+private QRScanResponse processSeatScan(String token, ScanUser user, boolean unknownUser) {
+    // Find seat by token (cached)
+    Optional<CachedSeat> seatOpt = tokenCache.findSeat(token);
     if (seatOpt.isEmpty()) {
         return createErrorResponse("INVALID_QR", "Invalid or expired QR code");
     }
 
-    Seat seat = seatOpt.get();
+    CachedSeat seat = seatOpt.get();
     
     // Check if seat is disabled
-    if (seat.isDisabled()) {
+    if (seat.disabled()) {
         return createErrorResponse("SEAT_UNAVAILABLE", "This seat is currently unavailable");
     }
 
@@ -85,31 +111,28 @@ private QRScanResponse processSeatScan(String token, String userEmail) {
     QRScanResponse response = new QRScanResponse();
     response.setSuccess(true);
     response.setResourceType("SEAT");
-    response.setResourceId(seat.getId());
-    response.setResourceIdentifier(seat.getSeatNumber());
+    response.setResourceId(seat.id());
+    response.setResourceIdentifier(seat.seatNumber());
     response.setResourceDetails(createSeatDetails(seat));
 
     // Handle unauthenticated users
-    if (userEmail == null || userEmail.isEmpty()) {
+    if (user == null && !unknownUser) {
         response.setRequiresAuthentication(true);
         response.setMessage("Please log in to check in to this seat");
-        response.setAvailabilityInfo(checkSeatAvailability(seat));
+        response.setAvailabilityInfo(checkSeatAvailability(seat.id()));
         response.setQrScanContext(createScanContext(seat, token));
         response.setActionButtonText("Log In");
         return response;
     }
 
-    // Find user
-    Optional<User> userOpt = userRepository.findByEmail(userEmail);
-    if (userOpt.isEmpty()) {
+    if (user == null) {
         response.setRequiresAuthentication(true);
         response.setMessage("User not found. Please log in again.");
         return response;
     }
 
-    User user = userOpt.get();
-    response.setUserId(user.getId());
-    response.setUserName(user.getFullName());
+    response.setUserId(user.id());
+    response.setUserName(user.fullName());
 
     LocalDateTime now = LocalDateTime.now();
     
@@ -191,7 +214,7 @@ private QRScanResponse handleValidBookingCheckIn(Booking booking, QRScanResponse
 /**
  * Handle case where user has no booking for the scanned seat
  */
-private QRScanResponse handleNoBookingForThisSeat(User user, Seat seat, QRScanResponse response, LocalDateTime now) {
+private QRScanResponse handleNoBookingForThisSeat(ScanUser user, CachedSeat seat, QRScanResponse response, LocalDateTime now) {
     response.setSuccess(false);
     response.setAction("NO_BOOKING");
     response.setErrorCode("NO_BOOKING_FOR_SEAT");
@@ -219,8 +242,8 @@ private QRScanResponse handleNoBookingForThisSeat(User user, Seat seat, QRScanRe
     }
     
     // Show seat availability
-    response.setAvailabilityInfo(checkSeatAvailability(seat));
-    response.setCanBook(isSeatAvailableForBooking(seat, now));
+    response.setAvailabilityInfo(checkSeatAvailability(seat.id()));
+    response.setCanBook(isSeatAvailableForBooking(seat.id(), now));
     
     return response;
 }
@@ -242,22 +265,23 @@ private QRScanResponse createErrorResponse(String errorCode, String message) {
 /**
  * Process room QR code scan 
  */
-private QRScanResponse processRoomScan(String token, String userEmail) {
-    // Find room by token
-    Optional<Room> roomOpt = roomRepository.findByQrCodeToken(token);
+private QRScanResponse processRoomScan(String token, ScanUser user, boolean unknownUser) {
+    // Find room by token (cached)
+    Optional<CachedRoom> roomOpt = tokenCache.findRoom(token);
     if (roomOpt.isEmpty()) {
         return createErrorResponse("INVALID_QR", "Invalid or expired QR code");
     }
 
-    Room room = roomOpt.get();
+    CachedRoom room = roomOpt.get();
+    LocalDateTime now = LocalDateTime.now();
     
     // Check if room is available
-    if (!room.isAvailable()) {
+    if (!room.available()) {
         return createErrorResponse("ROOM_UNAVAILABLE", "This room is currently unavailable");
     }
 
     // Check if under maintenance
-    if (room.isUnderMaintenance()) {
+    if (room.isUnderMaintenance(now)) {
         return createErrorResponse("UNDER_MAINTENANCE", "This room is under maintenance");
     }
 
@@ -265,33 +289,28 @@ private QRScanResponse processRoomScan(String token, String userEmail) {
     QRScanResponse response = new QRScanResponse();
     response.setSuccess(true);
     response.setResourceType("ROOM");
-    response.setResourceId(room.getId());
-    response.setResourceIdentifier(room.getRoomNumber());
+    response.setResourceId(room.id());
+    response.setResourceIdentifier(room.roomNumber());
     response.setResourceDetails(createRoomDetails(room));
 
     // Handle unauthenticated users
-    if (userEmail == null || userEmail.isEmpty()) {
+    if (user == null && !unknownUser) {
         response.setRequiresAuthentication(true);
         response.setMessage("Please log in to check in to this room");
-        response.setAvailabilityInfo(checkRoomAvailability(room));
+        response.setAvailabilityInfo(checkRoomAvailability(room.id()));
         response.setQrScanContext(createScanContext(room, token));
         response.setActionButtonText("Log In");
         return response;
     }
 
-    // Find user
-    Optional<User> userOpt = userRepository.findByEmail(userEmail);
-    if (userOpt.isEmpty()) {
+    if (user == null) {
         response.setRequiresAuthentication(true);
         response.setMessage("User not found. Please log in again.");
         return response;
     }
 
-    User user = userOpt.get();
-    response.setUserId(user.getId());
-    response.setUserName(user.getFullName());
-
-    LocalDateTime now = LocalDateTime.now();
+    response.setUserId(user.id());
+    response.setUserName(user.fullName());
     
     // CORE LOGIC: Check for booking on THIS specific room
     Optional<RoomBooking> specificRoomBooking = findUserBookingForSpecificRoom(user, room, now);
@@ -391,10 +410,10 @@ private QRScanResponse handleValidRoomBookingCheckIn(RoomBooking booking, QRScan
 /**
  * Handle participant check-in for room booking
  */
-private QRScanResponse handleParticipantRoomCheckIn(RoomBooking booking, User user, QRScanResponse response, LocalDateTime now) {
+private QRScanResponse handleParticipantRoomCheckIn(RoomBooking booking, ScanUser user, QRScanResponse response, LocalDateTime now) {
     // Find participant record
     BookingParticipant participant = booking.getParticipants().stream()
-            .filter(p -> p.getUser().getId().equals(user.getId()))
+            .filter(p -> p.getUser().getId().equals(user.id()))
             .findFirst()
             .orElse(null);
 
@@ -446,7 +465,7 @@ private QRScanResponse handleParticipantRoomCheckIn(RoomBooking booking, User us
 /**
  * Handle case where user has no booking for the scanned room
  */
-private QRScanResponse handleNoBookingForThisRoom(User user, Room room, QRScanResponse response, LocalDateTime now) {
+private QRScanResponse handleNoBookingForThisRoom(ScanUser user, CachedRoom room, QRScanResponse response, LocalDateTime now) {
     response.setSuccess(false);
     response.setAction("NO_BOOKING");
     response.setErrorCode("NO_BOOKING_FOR_ROOM");
@@ -474,8 +493,8 @@ private QRScanResponse handleNoBookingForThisRoom(User user, Room room, QRScanRe
     }
     
     // Show room availability
-    response.setAvailabilityInfo(checkRoomAvailability(room));
-    response.setCanBook(isRoomAvailableForBooking(room, now));
+    response.setAvailabilityInfo(checkRoomAvailability(room.id()));
+    response.setCanBook(isRoomAvailableForBooking(room.id(), now));
     
     return response;
 }
@@ -483,17 +502,10 @@ private QRScanResponse handleNoBookingForThisRoom(User user, Room room, QRScanRe
 /**
  * Find if user is participant in any booking for the room
  */
-private Optional<RoomBooking> findParticipantBookingForRoom(User user, Room room, LocalDateTime now) {
-    List<RoomBooking> roomBookings = roomBookingRepository.findActiveBookingsForRoom(
-        room, now.minusMinutes(10), now.plusHours(1)
-    );
-    
-    return roomBookings.stream()
-            .filter(b -> b.getParticipants().stream()
-                    .anyMatch(p -> p.getUser().getId().equals(user.getId()) &&
-                                 p.getStatus() == BookingParticipant.ParticipantStatus.ACCEPTED))
-            .filter(b -> isWithinRoomCheckInWindow(b, now))
-            .findFirst();
+private Optional<RoomBooking> findParticipantBookingForRoom(ScanUser user, CachedRoom room, LocalDateTime now) {
+    return roomBookingRepository.findParticipantBookingsForRoomInCheckInWindow(
+        user.id(), room.id(), now.minusMinutes(CHECK_IN_WINDOW_MINUTES), now.plusMinutes(CHECK_IN_WINDOW_MINUTES)
+    ).stream().findFirst();
 }
 
     /**
@@ -703,29 +715,29 @@ private Optional<RoomBooking> findParticipantBookingForRoom(User user, Room room
     /**
      * Create seat details for response
      */
-    private SeatDetailsResponse createSeatDetails(Seat seat) {
+    private SeatDetailsResponse createSeatDetails(CachedSeat seat) {
         SeatDetailsResponse details = new SeatDetailsResponse();
-        details.setSeatId(seat.getId());
-        details.setSeatNumber(seat.getSeatNumber());
-        details.setZoneType(seat.getZoneType());
-        details.setHasDesktop(seat.isHasDesktop());
-        details.setDescription(seat.getDescription());
+        details.setSeatId(seat.id());
+        details.setSeatNumber(seat.seatNumber());
+        details.setZoneType(seat.zoneType());
+        details.setHasDesktop(seat.hasDesktop());
+        details.setDescription(seat.description());
         return details;
     }
 
     /**
      * Create room details for response
      */
-    private RoomDetailsResponse createRoomDetails(Room room) {
+    private RoomDetailsResponse createRoomDetails(CachedRoom room) {
         RoomDetailsResponse details = new RoomDetailsResponse();
-        details.setRoomId(room.getId());
-        details.setRoomNumber(room.getRoomNumber());
-        details.setRoomName(room.getName());
-        details.setCategory(room.getCategory().name());
-        details.setCapacity(room.getCapacity());
-        details.setBuilding(room.getBuilding());
-        details.setFloor(room.getFloor());
-        details.setRequiresApproval(room.isRequiresApproval());
+        details.setRoomId(room.id());
+        details.setRoomNumber(room.roomNumber());
+        details.setRoomName(room.name());
+        details.setCategory(room.category());
+        details.setCapacity(room.capacity());
+        details.setBuilding(room.building());
+        details.setFloor(room.floor());
+        details.setRequiresApproval(room.requiresApproval());
         return details;
     }
 
@@ -761,20 +773,15 @@ private Optional<RoomBooking> findParticipantBookingForRoom(User user, Room room
     /**
      * Check seat availability
      */
-    private String checkSeatAvailability(Seat seat) {
+    private String checkSeatAvailability(Long seatId) {
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> upcomingBookings = bookingRepository.findBySeat(seat).stream()
-                .filter(b -> b.getEndTime().isAfter(now))
-                .filter(b -> b.getStatus() == Booking.BookingStatus.RESERVED || 
-                           b.getStatus() == Booking.BookingStatus.CHECKED_IN)
-                .sorted((b1, b2) -> b1.getStartTime().compareTo(b2.getStartTime()))
-                .toList();
-
-        if (upcomingBookings.isEmpty()) {
+        Optional<Booking> upcomingBooking = bookingRepository.findNextActiveBookingForSeat(seatId, now);
+
+        if (upcomingBooking.isEmpty()) {
             return "Seat is available";
         }
 
-        Booking nextBooking = upcomingBookings.get(0);
+        Booking nextBooking = upcomingBooking.get();
         if (nextBooking.getStartTime().isBefore(now.plusMinutes(30))) {
             return String.format("Occupied until %s", 
                 nextBooking.getEndTime().format(DateTimeFormatter.ofPattern("HH:mm")));
@@ -787,8 +794,9 @@ private Optional<RoomBooking> findParticipantBookingForRoom(User user, Room room
     /**
      * Check room availability
      */
-    private String checkRoomAvailability(Room room) {
+    private String checkRoomAvailability(Long roomId) {
         LocalDateTime now = LocalDateTime.now();
+        Room room = roomRepository.getReferenceById(roomId);
         Optional<RoomBooking> currentBooking = roomBookingRepository.findCurrentBookingForRoom(room, now);
         
         if (currentBooking.isPresent()) {
@@ -807,95 +815,34 @@ private Optional<RoomBooking> findParticipantBookingForRoom(User user, Room room
     }
 
 
-    /**
- * Log QR code scan - ASYNC VERSION to avoid transaction rollback
- */
-@Async
-@Transactional(propagation = Propagation.REQUIRES_NEW)
-public void logScanAsync(String type, String token, String userEmail, boolean success) {
-    try {
-        QRCodeLog log = new QRCodeLog();
-        log.setResourceType(type.toUpperCase());
-        log.setNewToken(token);
-        log.setGenerationReason(success ? "SCAN_SUCCESS" : "SCAN_FAILED");
-        
-        // FIXED: Handle null user email properly
-        if (userEmail != null) {
-            Optional<User> userOpt = userRepository.findByEmail(userEmail);
-            if (userOpt.isPresent()) {
-                log.setGeneratedBy(userOpt.get());
-            } else {
-                // For anonymous scans, create a placeholder or skip logging
-                return; // Skip logging for invalid users
-            }
-        } else {
-            // For anonymous scans, skip logging or create system user
-            return; // Skip logging for anonymous scans
-        }
-        
-        // Set a placeholder resource ID (you might want to get the actual ID)
-        log.setResourceId(0L);
-        
-        qrCodeLogRepository.save(log);
-    } catch (Exception e) {
-        // Log error but don't throw exception
-        System.err.println("Failed to log QR scan asynchronously: " + e.getMessage());
-    }
-}
 /**
- * Log QR code scan 
+ * Find user's booking specifically for this seat within check-in window.
+ * A booking is in its window when its start lies within 10 minutes of now.
  */
-@Transactional
-public void logScan(String type, String token, String userEmail, boolean success) {
-    // For now, just call async version
-    logScanAsync(type, token, userEmail, success);
-}
-
-/**
- * Find user's booking specifically for this seat within check-in window
- */
-private Optional<Booking> findUserBookingForSpecificSeat(User user, Seat seat, LocalDateTime now) {
-    return bookingRepository.findActiveBookingsByUserId(user.getId()).stream()
-        .filter(b -> b.getSeat().getId().equals(seat.getId()))
-        .filter(b -> isWithinCheckInWindow(b, now))
-        .findFirst();
-}
-
-/**
- * Check if current time is within the 10-minute check-in window
- */
-private boolean isWithinCheckInWindow(Booking booking, LocalDateTime now) {
-    LocalDateTime checkInStart = booking.getStartTime().minusMinutes(10);
-    LocalDateTime checkInEnd = booking.getStartTime().plusMinutes(10);
-    return now.isAfter(checkInStart) && now.isBefore(checkInEnd);
+private Optional<Booking> findUserBookingForSpecificSeat(ScanUser user, CachedSeat seat, LocalDateTime now) {
+    return bookingRepository.findUserBookingsForSeatInCheckInWindow(
+        user.id(), seat.id(), now.minusMinutes(CHECK_IN_WINDOW_MINUTES), now.plusMinutes(CHECK_IN_WINDOW_MINUTES)
+    ).stream().findFirst();
 }
 
 /**
  * Find user's booking for a different seat (to show helpful message)
  */
-private Optional<Booking> findUserBookingForOtherSeat(User user, Seat scannedSeat, LocalDateTime now) {
-    return bookingRepository.findActiveBookingsByUserId(user.getId()).stream()
-        .filter(b -> !b.getSeat().getId().equals(scannedSeat.getId()))
-        .filter(b -> isBookingActiveOrUpcoming(b, now))
-        .findFirst();
-}
-
-/**
- * Check if booking is active or upcoming today
- */
-private boolean isBookingActiveOrUpcoming(Booking booking, LocalDateTime now) {
-    return booking.getEndTime().isAfter(now) && 
-           booking.getStartTime().toLocalDate().equals(now.toLocalDate());
+private Optional<Booking> findUserBookingForOtherSeat(ScanUser user, CachedSeat scannedSeat, LocalDateTime now) {
+    LocalDateTime dayStart = now.toLocalDate().atStartOfDay();
+    return bookingRepository.findUserActiveBookingsOnOtherSeatsForDay(
+        user.id(), scannedSeat.id(), now, dayStart, dayStart.plusDays(1)
+    ).stream().findFirst();
 }
 
 /**
  * Create QR scan context for post-login processing
  */
-private QRScanContext createScanContext(Seat seat, String token) {
+private QRScanContext createScanContext(CachedSeat seat, String token) {
     QRScanContext context = new QRScanContext();
     context.setToken(token);
     context.setType("seat");
-    context.setResourceIdentifier(seat.getSeatNumber());
+    context.setResourceIdentifier(seat.seatNumber());
     context.setScannedAt(LocalDateTime.now());
     return context;
 }
@@ -903,11 +850,11 @@ private QRScanContext createScanContext(Seat seat, String token) {
 /**
  * Create QR scan context for rooms
  */
-private QRScanContext createScanContext(Room room, String token) {
+private QRScanContext createScanContext(CachedRoom room, String token) {
     QRScanContext context = new QRScanContext();
     context.setToken(token);
     context.setType("room");
-    context.setResourceIdentifier(room.getRoomNumber());
+    context.setResourceIdentifier(room.roomNumber());
     context.setScannedAt(LocalDateTime.now());
     return context;
 }
@@ -915,16 +862,9 @@ private QRScanContext createScanContext(Room room, String token) {
 /**
  * Check if seat is available for new booking
  */
-private boolean isSeatAvailableForBooking(Seat seat, LocalDateTime now) {
+private boolean isSeatAvailableForBooking(Long seatId, LocalDateTime now) {
     // Check if seat has any bookings in the next 2 hours
-    List<Booking> upcomingBookings = bookingRepository.findBySeat(seat).stream()
-            .filter(b -> b.getStartTime().isAfter(now) && 
-                        b.getStartTime().isBefore(now.plusHours(2)))
-            .filter(b -> b.getStatus() == Booking.BookingStatus.RESERVED || 
-                        b.getStatus() == Booking.BookingStatus.CHECKED_IN)
-            .collect(Collectors.toList());
-    
-    return upcomingBookings.isEmpty();
+    return !bookingRepository.existsActiveBookingStartingBetween(seatId, now, now.plusHours(2));
 }
 
 /**
@@ -939,50 +879,27 @@ private User findUserByEmail(String email) {
 /**
  * Find user's booking specifically for this room within check-in window
  */
-private Optional<RoomBooking> findUserBookingForSpecificRoom(User user, Room room, LocalDateTime now) {
-    return roomBookingRepository.findByUserAndStatusIn(
-        user, 
-        List.of(RoomBooking.BookingStatus.CONFIRMED, RoomBooking.BookingStatus.CHECKED_IN)
-    ).stream()
-        .filter(b -> b.getRoom().getId().equals(room.getId()))
-        .filter(b -> isWithinRoomCheckInWindow(b, now))
-        .findFirst();
-}
-
-/**
- * Check if current time is within the 10-minute check-in window for rooms
- */
-private boolean isWithinRoomCheckInWindow(RoomBooking booking, LocalDateTime now) {
-    LocalDateTime checkInStart = booking.getStartTime().minusMinutes(10);
-    LocalDateTime checkInEnd = booking.getStartTime().plusMinutes(10);
-    return now.isAfter(checkInStart) && now.isBefore(checkInEnd);
+private Optional<RoomBooking> findUserBookingForSpecificRoom(ScanUser user, CachedRoom room, LocalDateTime now) {
+    return roomBookingRepository.findUserBookingsForRoomInCheckInWindow(
+        user.id(), room.id(), now.minusMinutes(CHECK_IN_WINDOW_MINUTES), now.plusMinutes(CHECK_IN_WINDOW_MINUTES)
+    ).stream().findFirst();
 }
 
 /**
  * Find user's booking for a different room (to show helpful message)
  */
-private Optional<RoomBooking> findUserBookingForOtherRoom(User user, Room scannedRoom, LocalDateTime now) {
-    return roomBookingRepository.findByUserAndStatusIn(
-        user, 
-        List.of(RoomBooking.BookingStatus.CONFIRMED, RoomBooking.BookingStatus.CHECKED_IN)
-    ).stream()
-        .filter(b -> !b.getRoom().getId().equals(scannedRoom.getId()))
-        .filter(b -> isRoomBookingActiveOrUpcoming(b, now))
-        .findFirst();
-}
-
-/**
- * Check if room booking is active or upcoming today
- */
-private boolean isRoomBookingActiveOrUpcoming(RoomBooking booking, LocalDateTime now) {
-    return booking.getEndTime().isAfter(now) && 
-           booking.getStartTime().toLocalDate().equals(now.toLocalDate());
+private Optional<RoomBooking> findUserBookingForOtherRoom(ScanUser user, CachedRoom scannedRoom, LocalDateTime now) {
+    LocalDateTime dayStart = now.toLocalDate().atStartOfDay();
+    return roomBookingRepository.findUserActiveBookingsOnOtherRoomsForDay(
+        user.id(), scannedRoom.id(), now, dayStart, dayStart.plusDays(1)
+    ).stream().findFirst();
 }
 
 /**
  * Check if room is available for new booking
  */
-private boolean isRoomAvailableForBooking(Room room, LocalDateTime now) {
+private boolean isRoomAvailableForBooking(Long roomId, LocalDateTime now) {
+    Room room = roomRepository.getReferenceById(roomId);
     Optional<RoomBooking> currentBooking = roomBookingRepository.findCurrentBookingForRoom(room, now);
     if (currentBooking.isPresent()) {
         return false;
@@ -0,0 +1,130 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.auca.library.model.Room;
+import com.auca.library.model.Seat;
+import com.auca.library.repository.RoomRepository;
+import com.auca.library.repository.SeatRepository;
+import com.auca.library.util.AfterCommit;
+
+/**
+ * Token -> resource cache for the QR scan fast path.
+ * Only valid tokens are cached, so the maps are bounded by the number of seats
+ * and rooms. Entries are dropped when a code is regenerated or the resource is
+ * edited by an admin, and expire after a short TTL as a safety net.
+ */
+@Service
+public class QRTokenCacheService {
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Value("${qr.scan.token-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, CachedSeat> seatsByToken = new ConcurrentHashMap<>();
+    private final Map<String, CachedRoom> roomsByToken = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable view of the seat fields a scan needs
+     */
+    public record CachedSeat(Long id, String seatNumber, String zoneType, boolean hasDesktop,
+                             String description, boolean disabled, LocalDateTime cachedAt) {
+
+        static CachedSeat from(Seat seat) {
+            return new CachedSeat(seat.getId(), seat.getSeatNumber(), seat.getZoneType(), seat.isHasDesktop(),
+                    seat.getDescription(), seat.isDisabled(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Immutable view of the room fields a scan needs
+     */
+    public record CachedRoom(Long id, String roomNumber, String name, String category, Integer capacity,
+                             String building, String floor, boolean requiresApproval, boolean available,
+                             LocalDateTime maintenanceStart, LocalDateTime maintenanceEnd, LocalDateTime cachedAt) {
+
+        static CachedRoom from(Room room) {
+            return new CachedRoom(room.getId(), room.getRoomNumber(), room.getName(), room.getCategory().name(),
+                    room.getCapacity(), room.getBuilding(), room.getFloor(), room.isRequiresApproval(),
+                    room.isAvailable(), room.getMaintenanceStart(), room.getMaintenanceEnd(), LocalDateTime.now());
+        }
+
+        /**
+         * Same rule as Room.isUnderMaintenance, evaluated at scan time
+         */
+        public boolean isUnderMaintenance(LocalDateTime now) {
+            if (maintenanceStart == null || maintenanceEnd == null) {
+                return false;
+            }
+            return now.isAfter(maintenanceStart) && now.isBefore(maintenanceEnd);
+        }
+    }
+
+    public Optional<CachedSeat> findSeat(String token) {
+        CachedSeat cached = seatsByToken.get(token);
+        if (cached != null && !isExpired(cached.cachedAt())) {
+            return Optional.of(cached);
+        }
+
+        Optional<CachedSeat> loaded = seatRepository.findByQrCodeToken(token).map(CachedSeat::from);
+        if (loaded.isPresent()) {
+            seatsByToken.put(token, loaded.get());
+        } else {
+            seatsByToken.remove(token);
+        }
+        return loaded;
+    }
+
+    public Optional<CachedRoom> findRoom(String token) {
+        CachedRoom cached = roomsByToken.get(token);
+        if (cached != null && !isExpired(cached.cachedAt())) {
+            return Optional.of(cached);
+        }
+
+        Optional<CachedRoom> loaded = roomRepository.findByQrCodeToken(token).map(CachedRoom::from);
+        if (loaded.isPresent()) {
+            roomsByToken.put(token, loaded.get());
+        } else {
+            roomsByToken.remove(token);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop cached entries for seats whose QR code was regenerated or that an
+     * admin edited. Runs after the caller's transaction commits, so a scan in
+     * between cannot put the old row back.
+     */
+    public void evictSeats(Collection<Long> seatIds) {
+        Set<Long> ids = new HashSet<>(seatIds);
+        AfterCommit.run(() -> seatsByToken.values().removeIf(seat -> ids.contains(seat.id())));
+    }
+
+    /**
+     * Drop cached entries for rooms whose QR code was regenerated or that an
+     * admin edited, once the caller's transaction commits
+     */
+    public void evictRooms(Collection<Long> roomIds) {
+        Set<Long> ids = new HashSet<>(roomIds);
+        AfterCommit.run(() -> roomsByToken.values().removeIf(room -> ids.contains(room.id())));
+    }
+
+    private boolean isExpired(LocalDateTime cachedAt) {
+        return cachedAt.plusSeconds(ttlSeconds).isBefore(LocalDateTime.now());
+    }
+}
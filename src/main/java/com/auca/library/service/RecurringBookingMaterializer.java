@@ -0,0 +1,211 @@
+package com.auca.library.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.model.RecurringBookingSeries;
+import com.auca.library.model.RoomBooking;
+import com.auca.library.repository.RecurringBookingSeriesRepository;
+import com.auca.library.repository.RoomBookingRepository;
+
+/**
+ * Expands recurring series into bookings for a horizon in one pass: all
+ * occurrences are built in memory, checked against the rooms' bookings loaded
+ * with a single query, and the survivors are inserted with JDBC batches.
+ * The rooms' booking locks are held from before that query until commit, so
+ * no booking can slip in between the check and the insert. Plain INSERTs keep
+ * a horizon's worth of bookings out of the persistence context; ids come from
+ * the same sequence RoomBooking uses, a block at a time. Must run inside the
+ * caller's transaction.
+ */
+@Component
+public class RecurringBookingMaterializer {
+
+    private static final String INSERT_BOOKING_SQL =
+            "INSERT INTO room_bookings (id, room_id, user_id, recurring_series_id, title, description, "
+            + "start_time, end_time, status, max_participants, is_public, allow_joining, requires_check_in, "
+            + "auto_check_in_enabled, requires_approval, reminder_enabled, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Matches RoomBooking's allocationSize: with pooled-lo each nextval reserves this many ids
+    private static final int ID_BLOCK_SIZE = 50;
+
+    @Autowired
+    private RoomBookingRepository roomBookingRepository;
+
+    @Autowired
+    private RecurringBookingSeriesRepository recurringSeriesRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomBookingLocks roomBookingLocks;
+
+    @Value("${booking.recurring.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    private record Occurrence(RecurringBookingSeries series, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Outcome for one series: bookings created and occurrences skipped because the room was taken
+     */
+    public record SeriesResult(Long seriesId, int created, List<LocalDateTime> conflicts) {
+    }
+
+    public record Report(int seriesCount, int created, int conflicts, List<SeriesResult> series) {
+    }
+
+    public Report materialize(Collection<RecurringBookingSeries> seriesList, LocalDateTime generateUntil) {
+        Map<Long, List<Occurrence>> occurrencesByRoom = new HashMap<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (RecurringBookingSeries series : seriesList) {
+            for (Occurrence occurrence : expand(series, generateUntil)) {
+                occurrencesByRoom.computeIfAbsent(series.getRoom().getId(), id -> new ArrayList<>()).add(occurrence);
+                from = from == null || occurrence.start().isBefore(from) ? occurrence.start() : from;
+                to = to == null || occurrence.end().isAfter(to) ? occurrence.end() : to;
+            }
+        }
+
+        Map<Long, BookedIntervals> bookedByRoom = new HashMap<>();
+        if (!occurrencesByRoom.isEmpty()) {
+            roomBookingLocks.lockAllUntilCompletion(occurrencesByRoom.keySet());
+            for (Object[] row : roomBookingRepository.findBookedIntervals(occurrencesByRoom.keySet(), from, to)) {
+                bookedByRoom.computeIfAbsent((Long) row[0], id -> new BookedIntervals())
+                        .add((LocalDateTime) row[1], (LocalDateTime) row[2]);
+            }
+        }
+
+        // Older series win when two series compete for the same slot
+        Map<Long, List<LocalDateTime>> conflicts = new HashMap<>();
+        Map<Long, Integer> created = new HashMap<>();
+        List<Occurrence> accepted = new ArrayList<>();
+        occurrencesByRoom.forEach((roomId, occurrences) -> {
+            BookedIntervals booked = bookedByRoom.computeIfAbsent(roomId, id -> new BookedIntervals());
+            occurrences.sort(Comparator.comparing((Occurrence o) -> o.series().getId())
+                    .thenComparing(Occurrence::start));
+            for (Occurrence occurrence : occurrences) {
+                Long seriesId = occurrence.series().getId();
+                if (booked.overlaps(occurrence.start(), occurrence.end())) {
+                    conflicts.computeIfAbsent(seriesId, id -> new ArrayList<>()).add(occurrence.start());
+                } else {
+                    booked.add(occurrence.start(), occurrence.end());
+                    accepted.add(occurrence);
+                    created.merge(seriesId, 1, Integer::sum);
+                }
+            }
+        });
+
+        insert(accepted);
+
+        for (RecurringBookingSeries series : seriesList) {
+            series.setLastGeneratedDate(generateUntil.minusDays(1));
+        }
+        recurringSeriesRepository.saveAll(seriesList);
+
+        Map<Long, SeriesResult> results = new LinkedHashMap<>();
+        int conflictCount = 0;
+        for (RecurringBookingSeries series : seriesList) {
+            List<LocalDateTime> skipped = conflicts.getOrDefault(series.getId(), List.of());
+            conflictCount += skipped.size();
+            results.put(series.getId(), new SeriesResult(series.getId(),
+                    created.getOrDefault(series.getId(), 0), skipped));
+        }
+        return new Report(seriesList.size(), accepted.size(), conflictCount, new ArrayList<>(results.values()));
+    }
+
+    private List<Occurrence> expand(RecurringBookingSeries series, LocalDateTime generateUntil) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        LocalDateTime currentDate = series.getLastGeneratedDate() != null ?
+            series.getLastGeneratedDate().plusDays(1) : series.getSeriesStartDate();
+
+        while (currentDate.isBefore(generateUntil) &&
+               (series.getSeriesEndDate() == null || currentDate.isBefore(series.getSeriesEndDate()))) {
+
+            LocalDate date = currentDate.toLocalDate();
+            if (series.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                occurrences.add(new Occurrence(series, date.atTime(series.getStartTime()), date.atTime(series.getEndTime())));
+            }
+
+            currentDate = getNextRecurrenceDate(series, currentDate);
+        }
+        return occurrences;
+    }
+
+    private LocalDateTime getNextRecurrenceDate(RecurringBookingSeries series, LocalDateTime currentDate) {
+        switch (series.getRecurrenceType()) {
+            case DAILY:
+                return currentDate.plusDays(series.getRecurrenceInterval());
+            case WEEKLY:
+                return currentDate.plusWeeks(series.getRecurrenceInterval());
+            case MONTHLY:
+                return currentDate.plusMonths(series.getRecurrenceInterval());
+            default:
+                return currentDate.plusWeeks(1); // Default to weekly
+        }
+    }
+
+    private void insert(List<Occurrence> occurrences) {
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Iterator<Long> ids = allocateIds(occurrences.size()).iterator();
+        jdbcTemplate.batchUpdate(INSERT_BOOKING_SQL, occurrences, insertBatchSize, (ps, occurrence) -> {
+            RecurringBookingSeries series = occurrence.series();
+            ps.setLong(1, ids.next());
+            ps.setLong(2, series.getRoom().getId());
+            ps.setLong(3, series.getUser().getId());
+            ps.setLong(4, series.getId());
+            ps.setString(5, series.getTitle());
+            if (series.getDescription() != null) {
+                ps.setString(6, series.getDescription());
+            } else {
+                ps.setNull(6, Types.VARCHAR);
+            }
+            ps.setTimestamp(7, Timestamp.valueOf(occurrence.start()));
+            ps.setTimestamp(8, Timestamp.valueOf(occurrence.end()));
+            ps.setString(9, RoomBooking.BookingStatus.CONFIRMED.name());
+            ps.setInt(10, 1);               // Default for recurring
+            ps.setBoolean(11, false);
+            ps.setBoolean(12, false);
+            ps.setBoolean(13, true);
+            ps.setBoolean(14, false);
+            ps.setBoolean(15, false);       // Recurring bookings are pre-approved
+            ps.setBoolean(16, true);
+            ps.setTimestamp(17, now);
+            ps.setTimestamp(18, now);
+        });
+    }
+
+    // One nextval per block of ID_BLOCK_SIZE ids, the way Hibernate's pooled-lo optimizer uses the sequence
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(
+                "SELECT nextval('room_bookings_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long start : blockStarts) {
+            for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(start + i);
+            }
+        }
+        return ids;
+    }
+}
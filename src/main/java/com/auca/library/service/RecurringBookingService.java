@@ -1,6 +1,8 @@
 package com.auca.library.service;
 
 import com.auca.library.dto.request.RecurringBookingRequest;
+import com.auca.library.dto.request.RecurringSeriesOperationRequest;
+import com.auca.library.dto.response.RecurringSeriesOperationResponse;
 import com.auca.library.model.*;
 import com.auca.library.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +11,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.auca.library.exception.ResourceNotFoundException;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class RecurringBookingService {
@@ -20,6 +27,11 @@ public class RecurringBookingService {
     @Autowired private RoomBookingRepository roomBookingRepository;
     @Autowired private BookingValidationService bookingValidationService;
     @Autowired private NotificationService notificationService;
+    @Autowired private RecurringBookingMaterializer bookingMaterializer;
+    @Autowired private RoomRepository roomRepository;
+    @Autowired private BookingParticipantRepository participantRepository;
+    @Autowired private WaitListService waitListService;
+    @Autowired private RoomBookingLocks roomBookingLocks;
     
     @Transactional
     public RecurringBookingSeries createRecurringSeries(RoomBooking firstBooking, RecurringBookingRequest recurringDetails) {
@@ -53,110 +65,288 @@ public class RecurringBookingService {
     public void generateWeeklyRecurringBookings() {
         LocalDateTime cutoffDate = LocalDateTime.now().plusWeeks(1);
         List<RecurringBookingSeries> series = recurringSeriesRepository.findSeriesNeedingGeneration(cutoffDate);
-        
-        for (RecurringBookingSeries recurringBookingSeries : series) {
-            generateRecurringBookings(recurringBookingSeries, cutoffDate);
+        if (series.isEmpty()) {
+            return;
         }
+        
+        RecurringBookingMaterializer.Report report = bookingMaterializer.materialize(series, cutoffDate);
+        notifySkippedOccurrences(series, report);
+        
+        System.out.println("Recurring bookings generated: " + report.created() + " bookings for " +
+                         report.seriesCount() + " series, " + report.conflicts() + " occurrences skipped due to conflicts");
     }
     
     private void generateRecurringBookings(RecurringBookingSeries series, LocalDateTime generateUntil) {
-        LocalDateTime currentDate = series.getLastGeneratedDate() != null ? 
-            series.getLastGeneratedDate().plusDays(1) : series.getSeriesStartDate();
-        
-        while (currentDate.isBefore(generateUntil) && 
-               (series.getSeriesEndDate() == null || currentDate.isBefore(series.getSeriesEndDate()))) {
-            
-            if (shouldCreateBookingForDate(series, currentDate.toLocalDate())) {
-                createRecurringBooking(series, currentDate.toLocalDate());
-            }
-            
-            currentDate = getNextRecurrenceDate(series, currentDate);
-        }
-        
-        series.setLastGeneratedDate(generateUntil.minusDays(1));
-        recurringSeriesRepository.save(series);
+        bookingMaterializer.materialize(List.of(series), generateUntil);
     }
     
-    private boolean shouldCreateBookingForDate(RecurringBookingSeries series, LocalDate date) {
-        // Check if day of week matches
-        if (!series.getDaysOfWeek().contains(date.getDayOfWeek())) {
-            return false;
-        }
-        
-        // Check for conflicts
-        LocalDateTime startTime = date.atTime(series.getStartTime());
-        LocalDateTime endTime = date.atTime(series.getEndTime());
-        
-        return roomBookingRepository.countConflictingBookings(series.getRoom(), startTime, endTime) == 0;
-    }
-    
-    private void createRecurringBooking(RecurringBookingSeries series, LocalDate date) {
-        try {
-            RoomBooking booking = new RoomBooking();
-            booking.setRoom(series.getRoom());
-            booking.setUser(series.getUser());
-            booking.setTitle(series.getTitle());
-            booking.setDescription(series.getDescription());
-            booking.setStartTime(date.atTime(series.getStartTime()));
-            booking.setEndTime(date.atTime(series.getEndTime()));
-            booking.setMaxParticipants(1); // Default for recurring
-            booking.setStatus(RoomBooking.BookingStatus.CONFIRMED);
-            booking.setRecurringBookingSeries(series);
-            booking.setRequiresApproval(false); // Recurring bookings are pre-approved
-            
-            roomBookingRepository.save(booking);
-            
-        } catch (Exception e) {
-            // Log error but continue with other bookings
-            System.err.println("Failed to create recurring booking for series " + series.getId() + 
-                             " on date " + date + ": " + e.getMessage());
-        }
-    }
-    
-    private LocalDateTime getNextRecurrenceDate(RecurringBookingSeries series, LocalDateTime currentDate) {
-        switch (series.getRecurrenceType()) {
-            case DAILY:
-                return currentDate.plusDays(series.getRecurrenceInterval());
-            case WEEKLY:
-                return currentDate.plusWeeks(series.getRecurrenceInterval());
-            case MONTHLY:
-                return currentDate.plusMonths(series.getRecurrenceInterval());
-            default:
-                return currentDate.plusWeeks(1); // Default to weekly
+    // One notification per series that lost occurrences to existing bookings
+    private void notifySkippedOccurrences(List<RecurringBookingSeries> series, RecurringBookingMaterializer.Report report) {
+        Map<Long, RecurringBookingSeries> seriesById = series.stream()
+            .collect(Collectors.toMap(RecurringBookingSeries::getId, s -> s));
+        
+        for (RecurringBookingMaterializer.SeriesResult result : report.series()) {
+            if (result.conflicts().isEmpty()) {
+                continue;
+            }
+            RecurringBookingSeries skippedSeries = seriesById.get(result.seriesId());
+            try {
+                notificationService.addNotification(
+                    skippedSeries.getUser().getEmail(),
+                    "Recurring Booking Conflict",
+                    String.format("%d occurrence(s) of your recurring booking '%s' could not be booked because the room is already taken: %s",
+                        result.conflicts().size(), skippedSeries.getTitle(),
+                        result.conflicts().stream().map(LocalDateTime::toString).collect(Collectors.joining(", "))),
+                    "BOOKING_UPDATE"
+                );
+            } catch (Exception e) {
+                System.err.println("Failed to notify conflicts for recurring series " + result.seriesId() + ": " + e.getMessage());
+            }
         }
     }
     
     @Transactional
     public void cancelRecurringSeries(Long seriesId, String userEmail) {
-        RecurringBookingSeries series = recurringSeriesRepository.findById(seriesId)
-            .orElseThrow(() -> new ResourceNotFoundException("Recurring series not found"));
+        RecurringBookingSeries series = findSeriesById(seriesId);
         
         if (!series.getUser().getEmail().equals(userEmail)) {
             throw new SecurityException("User cannot cancel this recurring series");
         }
         
-        // Cancel future bookings
+        RecurringSeriesOperationRequest request = new RecurringSeriesOperationRequest();
+        request.setOperation(RecurringSeriesOperationRequest.Operation.CANCEL);
+        applySeriesOperation(seriesId, request);
+    }
+    
+    /**
+     * Cancel, shift or move all open future occurrences of a series with set-based
+     * updates. Participants are notified once per person and all freed room time is
+     * offered to the waitlist in one pass. Occurrences whose target slot is taken are
+     * left as they are and reported as skipped. Callers check permissions.
+     */
+    @Transactional
+    public RecurringSeriesOperationResponse applySeriesOperation(Long seriesId, RecurringSeriesOperationRequest request) {
+        RecurringBookingSeries series = findSeriesById(seriesId);
         LocalDateTime now = LocalDateTime.now();
-        List<RoomBooking> futureBookings = roomBookingRepository.findByRecurringSeriesAndStartTimeAfter(series, now);
+        LocalDateTime from = request.getFromTime() != null && request.getFromTime().isAfter(now)
+            ? request.getFromTime() : now;
         
-        for (RoomBooking booking : futureBookings) {
-            if (booking.getStatus() == RoomBooking.BookingStatus.CONFIRMED) {
-                booking.setStatus(RoomBooking.BookingStatus.CANCELLED);
-                roomBookingRepository.save(booking);
-            }
-        }
+        List<SeriesOccurrence> occurrences = roomBookingRepository.findOpenSeriesOccurrences(seriesId, from).stream()
+            .map(row -> new SeriesOccurrence((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]))
+            .collect(Collectors.toList());
+        
+        List<Long> affected = new ArrayList<>();
+        List<RoomWaitlistIndex.FreedWindow> freed = new ArrayList<>();
+        String change;
+        String notificationType = "BOOKING_UPDATE";
         
-        // Mark series as inactive
-        series.setActive(false);
+        switch (request.getOperation()) {
+            case CANCEL:
+                cancelOccurrences(occurrences, now, affected, freed);
+                if (request.getFromTime() != null) {
+                    series.setSeriesEndDate(from); // Ends the series instead of removing it
+                } else {
+                    series.setActive(false);
+                }
+                change = "has been cancelled";
+                notificationType = "BOOKING_CANCELLED";
+                break;
+            case SHIFT:
+                int minutes = validateShift(series, request.getShiftMinutes());
+                roomBookingLocks.lockAllUntilCompletion(roomIdsOf(occurrences));
+                shiftOccurrences(occurrences, minutes, now, affected, freed);
+                series.setStartTime(series.getStartTime().plusMinutes(minutes));
+                series.setEndTime(series.getEndTime().plusMinutes(minutes));
+                change = String.format("has been moved to %s - %s", series.getStartTime(), series.getEndTime());
+                break;
+            case CHANGE_ROOM:
+                if (request.getNewRoomId() == null) {
+                    throw new IllegalArgumentException("New room is required to change the room of a series");
+                }
+                Room room = roomRepository.findById(request.getNewRoomId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+                validateTargetRoom(room, occurrences);
+                Set<Long> lockedRooms = roomIdsOf(occurrences);
+                lockedRooms.add(room.getId());
+                roomBookingLocks.lockAllUntilCompletion(lockedRooms);
+                moveOccurrences(occurrences, room, now, affected, freed);
+                series.setRoom(room);
+                change = String.format("has been moved to room %s", room.getName());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported series operation: " + request.getOperation());
+        }
         recurringSeriesRepository.save(series);
         
-        //notify user
+        Set<Long> affectedIds = new HashSet<>(affected);
+        List<Long> skipped = occurrences.stream()
+            .map(SeriesOccurrence::bookingId)
+            .filter(id -> !affectedIds.contains(id))
+            .collect(Collectors.toList());
+        String reason = request.getReason() != null ? " Reason: " + request.getReason() : "";
+        
         notificationService.addNotification(
-            userEmail,
-            "Recurring Booking Series Cancelled",
-            String.format("Your recurring booking series '%s' has been cancelled", series.getTitle()),
-            "BOOKING_CANCELLED"
+            series.getUser().getEmail(),
+            "Recurring Booking Series Updated",
+            String.format("Your recurring booking series '%s' %s (%d bookings affected, %d unchanged because the slot is taken).%s",
+                series.getTitle(), change, affected.size(), skipped.size(), reason),
+            notificationType
         );
+        if (!affected.isEmpty()) {
+            for (Object[] row : participantRepository.countAcceptedParticipantsByEmail(affected)) {
+                notificationService.addNotification(
+                    (String) row[0],
+                    "Recurring Booking Series Updated",
+                    String.format("The recurring booking '%s' you participate in %s (%d of your bookings affected).%s",
+                        series.getTitle(), change, (Long) row[1], reason),
+                    notificationType
+                );
+            }
+        }
+        waitListService.processFreedRoomSlots(freed);
+        
+        RecurringSeriesOperationResponse response = new RecurringSeriesOperationResponse();
+        response.setSeriesId(seriesId);
+        response.setOperation(request.getOperation().name());
+        response.setAffectedBookingIds(affected);
+        response.setSkippedBookingIds(skipped);
+        response.setMessage(String.format("Recurring series %s", change));
+        return response;
+    }
+    
+    private void cancelOccurrences(List<SeriesOccurrence> occurrences, LocalDateTime now,
+                                   List<Long> affected, List<RoomWaitlistIndex.FreedWindow> freed) {
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        occurrences.forEach(o -> affected.add(o.bookingId()));
+        roomBookingRepository.updateOpenBookingStatus(affected, RoomBooking.BookingStatus.CANCELLED, now);
+        occurrences.forEach(o -> freed.add(new RoomWaitlistIndex.FreedWindow(o.roomId(), o.start(), o.end())));
+    }
+    
+    private void shiftOccurrences(List<SeriesOccurrence> occurrences, int minutes, LocalDateTime now,
+                                  List<Long> affected, List<RoomWaitlistIndex.FreedWindow> freed) {
+        List<SeriesOccurrence> targets = occurrences.stream()
+            .map(o -> new SeriesOccurrence(o.bookingId(), o.roomId(), o.start().plusMinutes(minutes), o.end().plusMinutes(minutes)))
+            .collect(Collectors.toList());
+        affected.addAll(withoutConflicts(targets, occurrences));
+        if (affected.isEmpty()) {
+            return;
+        }
+        roomBookingRepository.shiftBookings(affected, minutes, now);
+        
+        // Only the part of the old slot the new one no longer covers is freed
+        Set<Long> shifted = new HashSet<>(affected);
+        for (SeriesOccurrence o : occurrences) {
+            if (!shifted.contains(o.bookingId())) {
+                continue;
+            }
+            LocalDateTime newStart = o.start().plusMinutes(minutes);
+            LocalDateTime newEnd = o.end().plusMinutes(minutes);
+            if (minutes > 0) {
+                freed.add(new RoomWaitlistIndex.FreedWindow(o.roomId(), o.start(), newStart.isBefore(o.end()) ? newStart : o.end()));
+            } else {
+                freed.add(new RoomWaitlistIndex.FreedWindow(o.roomId(), newEnd.isAfter(o.start()) ? newEnd : o.start(), o.end()));
+            }
+        }
+    }
+    
+    private void moveOccurrences(List<SeriesOccurrence> occurrences, Room room, LocalDateTime now,
+                                 List<Long> affected, List<RoomWaitlistIndex.FreedWindow> freed) {
+        List<SeriesOccurrence> targets = occurrences.stream()
+            .filter(o -> !o.roomId().equals(room.getId()))
+            .filter(o -> !overlapsMaintenance(room, o))
+            .map(o -> new SeriesOccurrence(o.bookingId(), room.getId(), o.start(), o.end()))
+            .collect(Collectors.toList());
+        affected.addAll(withoutConflicts(targets, occurrences));
+        if (affected.isEmpty()) {
+            return;
+        }
+        roomBookingRepository.moveBookingsToRoom(affected, room, now);
+        Set<Long> moved = new HashSet<>(affected);
+        occurrences.stream()
+            .filter(o -> moved.contains(o.bookingId()))
+            .forEach(o -> freed.add(new RoomWaitlistIndex.FreedWindow(o.roomId(), o.start(), o.end())));
+    }
+    
+    // The target room must be open to bookings, big enough and not need approval, which a bulk move can't ask for
+    private void validateTargetRoom(Room room, List<SeriesOccurrence> occurrences) {
+        if (!room.isAvailable() || room.isUnderMaintenance()) {
+            throw new IllegalStateException("Room is not available for booking");
+        }
+        if (room.isRequiresApproval()) {
+            throw new IllegalArgumentException("Series cannot be moved to a room that requires approval");
+        }
+        if (occurrences.isEmpty()) {
+            return;
+        }
+        Integer maxParticipants = roomBookingRepository.findMaxParticipants(
+            occurrences.stream().map(SeriesOccurrence::bookingId).collect(Collectors.toList()));
+        if (maxParticipants != null && maxParticipants > room.getCapacity()) {
+            throw new IllegalArgumentException(
+                String.format("Requested participants (%d) exceeds room capacity (%d)",
+                maxParticipants, room.getCapacity())
+            );
+        }
+    }
+    
+    // Occurrences inside a scheduled maintenance window stay where they are
+    private boolean overlapsMaintenance(Room room, SeriesOccurrence occurrence) {
+        return room.getMaintenanceStart() != null && room.getMaintenanceEnd() != null
+            && occurrence.start().isBefore(room.getMaintenanceEnd())
+            && occurrence.end().isAfter(room.getMaintenanceStart());
+    }
+    
+    private Set<Long> roomIdsOf(List<SeriesOccurrence> occurrences) {
+        return occurrences.stream().map(SeriesOccurrence::roomId).collect(Collectors.toCollection(HashSet::new));
+    }
+    
+    // Ids of the targets whose new slot is free, checked against one bulk load of the target rooms
+    private List<Long> withoutConflicts(List<SeriesOccurrence> targets, List<SeriesOccurrence> moving) {
+        if (targets.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime from = targets.stream().map(SeriesOccurrence::start).min(LocalDateTime::compareTo).get();
+        LocalDateTime to = targets.stream().map(SeriesOccurrence::end).max(LocalDateTime::compareTo).get();
+        Set<Long> roomIds = targets.stream().map(SeriesOccurrence::roomId).collect(Collectors.toSet());
+        List<Long> movingIds = moving.stream().map(SeriesOccurrence::bookingId).collect(Collectors.toList());
+        
+        Map<Long, BookedIntervals> bookedByRoom = new HashMap<>();
+        for (Object[] row : roomBookingRepository.findBookedIntervalsExcluding(roomIds, from, to, movingIds)) {
+            bookedByRoom.computeIfAbsent((Long) row[0], id -> new BookedIntervals())
+                .add((LocalDateTime) row[1], (LocalDateTime) row[2]);
+        }
+        
+        List<Long> free = new ArrayList<>();
+        for (SeriesOccurrence target : targets) {
+            BookedIntervals booked = bookedByRoom.computeIfAbsent(target.roomId(), id -> new BookedIntervals());
+            if (!booked.overlaps(target.start(), target.end())) {
+                booked.add(target.start(), target.end());
+                free.add(target.bookingId());
+            }
+        }
+        return free;
+    }
+    
+    // A shift must keep every occurrence on its own day so the series' days of week still hold
+    private int validateShift(RecurringBookingSeries series, Integer shiftMinutes) {
+        if (shiftMinutes == null || shiftMinutes == 0) {
+            throw new IllegalArgumentException("Shift minutes must be a non-zero number");
+        }
+        int startMinute = series.getStartTime().toSecondOfDay() / 60 + shiftMinutes;
+        int endMinute = series.getEndTime().toSecondOfDay() / 60 + shiftMinutes;
+        if (startMinute < 0 || endMinute >= 24 * 60) {
+            throw new IllegalArgumentException("Shift would move the series across midnight");
+        }
+        return shiftMinutes;
+    }
+    
+    private RecurringBookingSeries findSeriesById(Long seriesId) {
+        return recurringSeriesRepository.findById(seriesId)
+            .orElseThrow(() -> new ResourceNotFoundException("Recurring series not found"));
+    }
+    
+    private record SeriesOccurrence(Long bookingId, Long roomId, LocalDateTime start, LocalDateTime end) {
     }
     
     private RecurringBookingSeries.RecurrenceType mapRecurrenceType(RecurringBookingRequest.RecurrenceType requestType) {
@@ -0,0 +1,72 @@
+package com.auca.library.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Striped per-room locks for booking changes that check for conflicts and
+ * then write. Rooms hash onto a fixed number of locks, so bookings in
+ * different rooms rarely wait on each other. A lock is held until the
+ * surrounding transaction completes; releasing it earlier would let another
+ * thread check before this write is visible. Only guards this JVM: the
+ * room_bookings exclusion constraint is what holds across instances.
+ */
+@Component
+public class RoomBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public RoomBookingLocks(@Value("${booking.room.lock-stripes:64}") int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Lock the room's stripe until the current transaction commits or rolls back
+     */
+    public void lockUntilCompletion(Long roomId) {
+        lockStripesUntilCompletion(List.of(stripeOf(roomId)));
+    }
+
+    /**
+     * Lock the stripes of several rooms until the current transaction completes.
+     * Stripes are taken in index order, so two callers locking overlapping sets
+     * of rooms cannot deadlock.
+     */
+    public void lockAllUntilCompletion(Collection<Long> roomIds) {
+        lockStripesUntilCompletion(roomIds.stream()
+                .map(this::stripeOf)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    private int stripeOf(Long roomId) {
+        return Math.floorMod(Long.hashCode(roomId), stripes.length);
+    }
+
+    private void lockStripesUntilCompletion(List<Integer> stripeIndexes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Room booking locks require an active transaction");
+        }
+        for (int index : stripeIndexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+}
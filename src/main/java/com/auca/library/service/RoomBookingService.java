@@ -14,6 +14,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,7 @@ import com.auca.library.dto.request.ExtendBookingRequest;
 import com.auca.library.dto.request.InvitationResponseRequest;
 import com.auca.library.dto.request.InviteParticipantsRequest;
 import com.auca.library.dto.request.JoinBookingRequest;
+import com.auca.library.dto.request.RecurringSeriesOperationRequest;
 import com.auca.library.dto.request.RoomBookingRequest;
 import com.auca.library.dto.request.RoomSearchRequest;
 import com.auca.library.dto.response.AvailabilityGapResponse;
@@ -39,6 +41,7 @@ import com.auca.library.dto.response.InvitationResponse;
 import com.auca.library.dto.response.MessageResponse;
 import com.auca.library.dto.response.NextAvailableSlotResponse;
 import com.auca.library.dto.response.RecurringBookingSeriesResponse;
+import com.auca.library.dto.response.RecurringSeriesOperationResponse;
 import com.auca.library.dto.response.RecurringSeriesStats;
 import com.auca.library.dto.response.RoomAvailabilityCalendarResponse;
 import com.auca.library.dto.response.RoomAvailabilityResponse;
@@ -70,6 +73,7 @@ import com.auca.library.repository.EquipmentRepository;
 import com.auca.library.repository.RoomBookingRepository;
 import com.auca.library.repository.RoomRepository;
 import com.auca.library.repository.UserRepository;
+import com.auca.library.util.ExclusionViolations;
 
 @Service
 public class RoomBookingService {
@@ -83,6 +87,8 @@ public class RoomBookingService {
     @Autowired private BookingValidationService bookingValidationService;
     @Autowired private RecurringBookingService recurringBookingService;
     @Autowired private EquipmentRepository equipmentRepository;
+    @Autowired private WaitListService waitListService;
+    @Autowired private RoomBookingLocks roomBookingLocks;
 
     // Create new booking
     
@@ -90,6 +96,7 @@ public class RoomBookingService {
     public RoomBookingResponse createBooking(RoomBookingRequest request, String userEmail) {
         User user = findUserByEmail(userEmail);
         Room room = findRoomById(request.getRoomId());
+        roomBookingLocks.lockUntilCompletion(room.getId());
         
         // Validate booking request
         // bookingValidationService.validateBookingRequest(request, user, room);
@@ -128,7 +135,7 @@ public class RoomBookingService {
             booking.setRequestedEquipment(equipment);
         }
         
-        booking = roomBookingRepository.save(booking);
+        booking = saveWithoutOverlap(booking, "Room is not available for the requested time");
         
         // Handle recurring booking
         if (request.isRecurring() && request.getRecurringDetails() != null) {
@@ -165,6 +172,7 @@ public class RoomBookingService {
         
         // Validate time changes
         if (request.getStartTime() != null || request.getEndTime() != null) {
+            roomBookingLocks.lockUntilCompletion(booking.getRoom().getId());
             LocalDateTime newStartTime = request.getStartTime() != null ? request.getStartTime() : booking.getStartTime();
             LocalDateTime newEndTime = request.getEndTime() != null ? request.getEndTime() : booking.getEndTime();
             
@@ -173,6 +181,9 @@ public class RoomBookingService {
             }
         }
         
+        LocalDateTime previousStartTime = booking.getStartTime();
+        LocalDateTime previousEndTime = booking.getEndTime();
+        
         // Update fields
         if (request.getTitle() != null) booking.setTitle(request.getTitle());
         if (request.getDescription() != null) booking.setDescription(request.getDescription());
@@ -193,7 +204,22 @@ public class RoomBookingService {
             booking.setRequestedEquipment(equipment);
         }
         
-        booking = roomBookingRepository.save(booking);
+        booking = saveWithoutOverlap(booking, "Updated time conflicts with existing booking");
+        
+        // Time given up by a moved or shortened booking goes to the waitlist
+        List<RoomWaitlistIndex.FreedWindow> freed = new ArrayList<>();
+        Long roomId = booking.getRoom().getId();
+        if (booking.getStartTime().isAfter(previousStartTime)) {
+            LocalDateTime freedEnd = booking.getStartTime().isBefore(previousEndTime)
+                    ? booking.getStartTime() : previousEndTime;
+            freed.add(new RoomWaitlistIndex.FreedWindow(roomId, previousStartTime, freedEnd));
+        }
+        if (booking.getEndTime().isBefore(previousEndTime)) {
+            LocalDateTime freedStart = booking.getEndTime().isAfter(previousStartTime)
+                    ? booking.getEndTime() : previousStartTime;
+            freed.add(new RoomWaitlistIndex.FreedWindow(roomId, freedStart, previousEndTime));
+        }
+        waitListService.processFreedRoomSlots(freed);
         
         // Notify participants of changes
         notifyParticipantsOfUpdate(booking);
@@ -366,8 +392,19 @@ private User findUserById(Long userId) {
     }
     
     private boolean hasConflictExcluding(Room room, LocalDateTime startTime, LocalDateTime endTime, Long excludeBookingId) {
-        List<RoomBooking> conflicts = roomBookingRepository.findActiveBookingsForRoom(room, startTime, endTime);
-        return conflicts.stream().anyMatch(b -> !b.getId().equals(excludeBookingId));
+        return roomBookingRepository.countActiveBookingsForRoomExcluding(room, startTime, endTime, excludeBookingId) > 0;
+    }
+    
+    // The room exclusion constraint catches overlaps that passed the conflict check on another instance
+    private RoomBooking saveWithoutOverlap(RoomBooking booking, String conflictMessage) {
+        try {
+            return roomBookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (ExclusionViolations.isExclusionViolation(e)) {
+                throw new BookingConflictException(conflictMessage);
+            }
+            throw e;
+        }
     }
     
      private void inviteParticipants(RoomBooking booking, 
@@ -583,8 +620,7 @@ private InvitationResponse mapToInvitationResponse(BookingParticipant participan
 }
 
     private void processWaitlistForCancellation(RoomBooking booking) {
-        // This will be implemented in WaitlistService
-        // waitlistService.processWaitlistForAvailableSlot(booking.getRoom(), booking.getStartTime(), booking.getEndTime());
+        waitListService.processWaitlistForAvailableSlot(booking.getRoom(), booking.getStartTime(), booking.getEndTime());
     }
     
     private BookingHistoryResponse.BookingStatistics calculateUserBookingStatistics(User user) {
@@ -1056,6 +1092,23 @@ public MessageResponse cancelRecurringSeries(Long bookingId, String userEmail) {
     return new MessageResponse("Recurring series cancelled successfully");
 }
 
+// 7b. Cancel, shift or move all future bookings of a recurring series at once
+public RecurringSeriesOperationResponse applyRecurringSeriesOperation(Long bookingId, RecurringSeriesOperationRequest request,
+                                                                      String userEmail) {
+    RoomBooking booking = findBookingById(bookingId);
+    User user = findUserByEmail(userEmail);
+    
+    if (!canUserEditBooking(booking, user)) {
+        throw new SecurityException("User cannot change this recurring series");
+    }
+    
+    if (booking.getRecurringBookingSeries() == null) {
+        throw new IllegalStateException("This booking is not part of a recurring series");
+    }
+    
+    return recurringBookingService.applySeriesOperation(booking.getRecurringBookingSeries().getId(), request);
+}
+
 // 8. Search bookings
 public List<RoomBookingResponse> searchBookings(BookingSearchRequest searchRequest, String userEmail) {
     User user = findUserByEmail(userEmail);
@@ -1086,6 +1139,7 @@ public List<RoomBookingResponse> searchBookings(BookingSearchRequest searchReque
 }
 
 // 9. Quick book
+@Transactional
 public RoomBookingResponse quickBook(Long roomId, int durationHours, String userEmail) {
     User user = findUserByEmail(userEmail);
     Room room = findRoomById(roomId);
@@ -1112,6 +1166,7 @@ public RoomBookingResponse quickBook(Long roomId, int durationHours, String user
 }
 
 // 10. Extend booking
+@Transactional
 public RoomBookingResponse extendBooking(Long bookingId, ExtendBookingRequest request, String userEmail) {
     RoomBooking booking = findBookingById(bookingId);
     User user = findUserByEmail(userEmail);
@@ -1119,6 +1174,7 @@ public RoomBookingResponse extendBooking(Long bookingId, ExtendBookingRequest re
     if (!canUserEditBooking(booking, user)) {
         throw new SecurityException("User cannot extend this booking");
     }
+    roomBookingLocks.lockUntilCompletion(booking.getRoom().getId());
     
     LocalDateTime newEndTime = booking.getEndTime().plusHours(request.getAdditionalHours());
     
@@ -1128,7 +1184,7 @@ public RoomBookingResponse extendBooking(Long bookingId, ExtendBookingRequest re
     }
     
     booking.setEndTime(newEndTime);
-    roomBookingRepository.save(booking);
+    saveWithoutOverlap(booking, "Cannot extend booking due to conflicts");
     
     return mapToResponse(booking);
 }
@@ -0,0 +1,181 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.model.RoomWaitlist;
+import com.auca.library.repository.RoomWaitlistRepository;
+import com.auca.library.util.LazyMirror;
+
+/**
+ * Per-room index of open waitlist requests (active, not yet offered),
+ * ordered by desired start time. Finding the requests that fit inside a freed
+ * window is a range lookup on the start time followed by an end-time check,
+ * instead of a scan of the room's whole waitlist. Loaded lazily per room and
+ * only changed by WaitListService after its transaction commits; changes that
+ * commit while a room is loading are replayed on top of it (see LazyMirror).
+ */
+@Component
+public class RoomWaitlistIndex {
+
+    private static final Comparator<Entry> OFFER_ORDER = Comparator
+            .comparing(Entry::priority, Comparator.reverseOrder())
+            .thenComparing(Entry::createdAt)
+            .thenComparing(Entry::id);
+
+    @Autowired
+    private RoomWaitlistRepository waitlistRepository;
+
+    private final LazyMirror<Long, RoomRequests, Entry> rooms = new LazyMirror<>(this::load,
+            (requests, id, entry) -> {
+                if (entry != null) {
+                    requests.put(entry);
+                } else {
+                    requests.remove(id);
+                }
+            });
+
+    public record Entry(Long id, LocalDateTime start, LocalDateTime end, int priority,
+                        LocalDateTime createdAt, LocalDateTime expiresAt) {
+
+        static Entry from(RoomWaitlist waitlist) {
+            return new Entry(waitlist.getId(), waitlist.getDesiredStartTime(), waitlist.getDesiredEndTime(),
+                    waitlist.getPriority() != null ? waitlist.getPriority() : 0,
+                    waitlist.getCreatedAt(), waitlist.getExpiresAt());
+        }
+
+        boolean overlaps(Entry other) {
+            return start.isBefore(other.end) && end.isAfter(other.start);
+        }
+
+        boolean isExpired(LocalDateTime now) {
+            return expiresAt != null && !expiresAt.isAfter(now);
+        }
+    }
+
+    /**
+     * A window of room time that just became free
+     */
+    public record FreedWindow(Long roomId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private static final class RoomRequests {
+        private final NavigableMap<LocalDateTime, Map<Long, Entry>> byStart = new TreeMap<>();
+        private final Map<Long, Entry> byId = new HashMap<>();
+
+        void put(Entry entry) {
+            remove(entry.id());
+            byStart.computeIfAbsent(entry.start(), s -> new LinkedHashMap<>()).put(entry.id(), entry);
+            byId.put(entry.id(), entry);
+        }
+
+        void remove(Long id) {
+            Entry entry = byId.remove(id);
+            if (entry == null) {
+                return;
+            }
+            Map<Long, Entry> sameStart = byStart.get(entry.start());
+            sameStart.remove(id);
+            if (sameStart.isEmpty()) {
+                byStart.remove(entry.start());
+            }
+        }
+    }
+
+    /**
+     * Pick the requests to offer for a set of freed windows. Windows of the same
+     * room that touch or overlap are merged first; inside each window requests
+     * are taken in priority order, skipping any that would clash with a request
+     * already picked, so one window can serve several non-overlapping requests.
+     */
+    public Map<Long, List<Entry>> selectOffers(Collection<FreedWindow> windows, LocalDateTime now) {
+        Map<Long, List<Entry>> offers = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<FreedWindow>> room : mergeByRoom(windows).entrySet()) {
+            RoomRequests requests = requests(room.getKey());
+            List<Entry> picked = new ArrayList<>();
+            synchronized (requests) {
+                for (FreedWindow window : room.getValue()) {
+                    List<Entry> candidates = new ArrayList<>();
+                    // Requests starting inside the window; keep those that also end inside it
+                    for (Map<Long, Entry> sameStart : requests.byStart
+                            .subMap(window.start(), true, window.end(), false).values()) {
+                        for (Entry entry : sameStart.values()) {
+                            if (!entry.end().isAfter(window.end()) && !entry.isExpired(now)) {
+                                candidates.add(entry);
+                            }
+                        }
+                    }
+                    candidates.sort(OFFER_ORDER);
+                    List<Entry> pickedInWindow = new ArrayList<>();
+                    for (Entry candidate : candidates) {
+                        if (pickedInWindow.stream().noneMatch(candidate::overlaps)) {
+                            pickedInWindow.add(candidate);
+                        }
+                    }
+                    picked.addAll(pickedInWindow);
+                }
+            }
+            if (!picked.isEmpty()) {
+                offers.put(room.getKey(), picked);
+            }
+        }
+        return offers;
+    }
+
+    public void add(RoomWaitlist waitlist) {
+        rooms.update(waitlist.getRoom().getId(), waitlist.getId(), Entry.from(waitlist));
+    }
+
+    public void removeAll(Long roomId, Collection<Long> waitlistIds) {
+        waitlistIds.forEach(id -> rooms.update(roomId, id, null));
+    }
+
+    /**
+     * Forget rooms so they are reloaded on next use
+     */
+    public void evictAll(Set<Long> roomIds) {
+        roomIds.forEach(rooms::evict);
+    }
+
+    private static Map<Long, List<FreedWindow>> mergeByRoom(Collection<FreedWindow> windows) {
+        Map<Long, List<FreedWindow>> byRoom = new LinkedHashMap<>();
+        windows.stream()
+                .filter(w -> w.start().isBefore(w.end()))
+                .sorted(Comparator.comparing(FreedWindow::roomId).thenComparing(FreedWindow::start))
+                .forEach(window -> {
+                    List<FreedWindow> merged = byRoom.computeIfAbsent(window.roomId(), id -> new ArrayList<>());
+                    FreedWindow last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                    if (last != null && !window.start().isAfter(last.end())) {
+                        LocalDateTime end = window.end().isAfter(last.end()) ? window.end() : last.end();
+                        merged.set(merged.size() - 1, new FreedWindow(last.roomId(), last.start(), end));
+                    } else {
+                        merged.add(window);
+                    }
+                });
+        return byRoom;
+    }
+
+    private RoomRequests requests(Long roomId) {
+        return rooms.get(roomId);
+    }
+
+    private RoomRequests load(Long roomId) {
+        RoomRequests requests = new RoomRequests();
+        for (RoomWaitlist waitlist : waitlistRepository.findOpenWaitlistForRoom(roomId, LocalDateTime.now())) {
+            requests.put(Entry.from(waitlist));
+        }
+        return requests;
+    }
+}
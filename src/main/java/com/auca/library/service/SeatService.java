@@ -3,6 +3,7 @@ package com.auca.library.service;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -14,7 +15,9 @@ import org.springframework.stereotype.Service;
 
 import com.auca.library.dto.request.BulkSeatCreationRequest;
 import com.auca.library.dto.request.BulkSeatUpdateRequest;
+import com.auca.library.dto.request.QRBulkGenerationRequest;
 import com.auca.library.dto.request.SeatAvailabilityRequest;
+import com.auca.library.dto.response.QRGenerationJobResponse;
 import com.auca.library.dto.response.SeatDTO;
 import com.auca.library.exception.ResourceNotFoundException;
 import com.auca.library.model.Booking;
@@ -25,7 +28,6 @@ import com.auca.library.repository.BookingRepository;
 import com.auca.library.repository.QRCodeLogRepository;
 import com.auca.library.repository.SeatRepository;
 import com.auca.library.repository.UserRepository;
-import com.auca.library.repository.WaitListRepository;
 
 import jakarta.transaction.Transactional;
 
@@ -41,9 +43,6 @@ public class SeatService {
     @Autowired
     private UserRepository userRepository;
     
-    @Autowired
-    private WaitListRepository waitListRepository;
-
     @Autowired
     private QRCodeGenerationService qrGenerationService;
 
@@ -53,6 +52,15 @@ public class SeatService {
     @Autowired
     private QRCodeLogRepository qrCodeLogRepository;
 
+    @Autowired
+    private QRTokenCacheService qrTokenCache;
+
+    @Autowired
+    private SeatWaitListQueue seatWaitListQueue;
+
+    @Autowired
+    private QRCodeBulkGenerationService qrCodeBulkGenerationService;
+
     
     
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
@@ -164,13 +172,10 @@ public class SeatService {
     }
     
     private SeatDTO mapSeatToDTO(Seat seat, LocalDateTime startTime, LocalDateTime endTime) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUserEmail = authentication.getName();
-        
-        User currentUser = userRepository.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + currentUserEmail));
-        
-        boolean isAvailable = isSeatAvailable(seat.getId(), startTime, endTime);
+        return toSeatDTO(seat, isSeatAvailable(seat.getId(), startTime, endTime), startTime, findCurrentUser());
+    }
+    
+    private SeatDTO toSeatDTO(Seat seat, boolean isAvailable, LocalDateTime startTime, User currentUser) {
         boolean isFavorite = currentUser.getFavoriteSeats().contains(seat);
         
         // Get next available time if seat is booked
@@ -180,7 +185,7 @@ public class SeatService {
         }
         
         // Count waiting list entries
-        int waitingCount = waitListRepository.countWaitingForSeat(seat.getId());
+        int waitingCount = seatWaitListQueue.size(seat.getId());
         
         SeatDTO dto = new SeatDTO();
         dto.setId(seat.getId());
@@ -352,6 +357,7 @@ public class SeatService {
         }
         
         seat = seatRepository.save(seat);
+        qrTokenCache.evictSeats(List.of(id));
         LocalDateTime now = LocalDateTime.now();
         
         return mapSeatToDTO(seat, now, now.plusHours(1));
@@ -403,11 +409,10 @@ public class SeatService {
         });
         
         seats = seatRepository.saveAll(seats);
+        qrTokenCache.evictSeats(bulkUpdateRequest.getSeatIds());
         LocalDateTime now = LocalDateTime.now();
         
-        return seats.stream()
-                .map(seat -> mapSeatToDTO(seat, now, now.plusHours(1)))
-                .collect(Collectors.toList());
+        return mapSeatsToDTOs(seats, now, now.plusHours(1));
     }
     
     @Transactional
@@ -422,6 +427,7 @@ public class SeatService {
         
         seat.setHasDesktop(!seat.isHasDesktop());
         seat = seatRepository.save(seat);
+        qrTokenCache.evictSeats(List.of(id));
         
         LocalDateTime now = LocalDateTime.now();
         return mapSeatToDTO(seat, now, now.plusHours(1));
@@ -452,6 +458,7 @@ public class SeatService {
         
         seats.forEach(seat -> seat.setHasDesktop(!seat.isHasDesktop()));
         seats = seatRepository.saveAll(seats);
+        qrTokenCache.evictSeats(seatIds);
         
         LocalDateTime now = LocalDateTime.now();
         return seats.stream()
@@ -484,6 +491,7 @@ public class SeatService {
         
         seats.forEach(seat -> seat.setDisabled(disabled));
         seats = seatRepository.saveAll(seats);
+        qrTokenCache.evictSeats(seatIds);
         
         LocalDateTime now = LocalDateTime.now();
         return seats.stream()
@@ -504,6 +512,8 @@ public class SeatService {
         }
         
         seatRepository.deleteById(id);
+        qrTokenCache.evictSeats(List.of(id));
+        seatWaitListQueue.evict(id);
     }
     
     // Helper method to get current user's location from security context
@@ -520,10 +530,19 @@ public class SeatService {
 
 
 
+    /**
+     * Created seats and the background job generating their QR codes (null when no seats were created)
+     */
+    public record BulkSeatCreationResult(List<SeatDTO> seats, QRGenerationJobResponse qrJob) {
+    }
+
     // Bulk seat creation operation
+    // Seat numbers are checked with one query and the seats inserted in JDBC batches;
+    // QR codes are generated by a background job after commit, which reports each seat's outcome.
+    // The job is registered before commit so its id can be returned with the seats
 
     @Transactional
-public List<SeatDTO> bulkCreateSeats(BulkSeatCreationRequest request, Location userLocation) {
+public BulkSeatCreationResult bulkCreateSeats(BulkSeatCreationRequest request, Location userLocation) {
     // Location-based access control
     Location targetLocation = userLocation != null ? userLocation : request.getLocation();
     
@@ -531,19 +550,23 @@ public List<SeatDTO> bulkCreateSeats(BulkSeatCreationRequest request, Location u
         throw new ResourceNotFoundException("You can only create seats in your location: " + userLocation);
     }
     
-    List<Seat> seatsToCreate = new ArrayList<>();
-    List<String> failedSeats = new ArrayList<>();
-    
-    // Generate seats from startNumber to endNumber
+    // Generate seat numbers from startNumber to endNumber
+    List<String> seatNumbers = new ArrayList<>();
     for (int i = request.getStartNumber(); i <= request.getEndNumber(); i++) {
-        String seatNumber = request.getSeatNumberPrefix() + String.format("%03d", i); // e.g., GS001, GS002
-        
-        // Check if seat number already exists
-        if (seatRepository.existsBySeatNumber(seatNumber)) {
-            failedSeats.add(seatNumber);
-            continue;
-        }
-        
+        seatNumbers.add(request.getSeatNumberPrefix() + String.format("%03d", i)); // e.g., GS001, GS002
+    }
+    
+    // Check which seat numbers already exist
+    Set<String> existing = seatNumbers.isEmpty()
+            ? Set.of()
+            : new HashSet<>(seatRepository.findExistingSeatNumbers(seatNumbers));
+    if (!existing.isEmpty()) {
+        List<String> failedSeats = seatNumbers.stream().filter(existing::contains).collect(Collectors.toList());
+        throw new IllegalArgumentException("Some seat numbers already exist: " + failedSeats);
+    }
+    
+    List<Seat> seatsToCreate = new ArrayList<>();
+    for (String seatNumber : seatNumbers) {
         Seat seat = new Seat();
         seat.setSeatNumber(seatNumber);
         seat.setZoneType(request.getZoneType());
@@ -556,41 +579,40 @@ public List<SeatDTO> bulkCreateSeats(BulkSeatCreationRequest request, Location u
         seatsToCreate.add(seat);
     }
     
-    if (!failedSeats.isEmpty()) {
-        throw new IllegalArgumentException("Some seat numbers already exist: " + failedSeats);
-    }
-    
     // Save all seats
     List<Seat> savedSeats = seatRepository.saveAll(seatsToCreate);
     
-    // Generate QR codes for all seats (optional - can be done later)
-    generateQRCodesForSeats(savedSeats);
+    // Generate QR codes once the seats are visible to the job's own transactions
+    QRGenerationJobResponse qrJob = null;
+    if (!savedSeats.isEmpty()) {
+        qrJob = qrCodeBulkGenerationService.startSeatJobAfterCommit(
+                savedSeats, new QRBulkGenerationRequest(), findCurrentUser());
+    }
     
     // Convert to DTOs
     LocalDateTime now = LocalDateTime.now();
-    return savedSeats.stream()
-            .map(seat -> mapSeatToDTO(seat, now, now.plusHours(1)))
-            .collect(Collectors.toList());
+    return new BulkSeatCreationResult(mapSeatsToDTOs(savedSeats, now, now.plusHours(1)), qrJob);
 }
 
-private void generateQRCodesForSeats(List<Seat> seats) {
-    seats.parallelStream().forEach(seat -> {
-        try {
-            String token = qrGenerationService.generateUniqueToken();
-            String qrUrl = qrGenerationService.generateSeatQRUrl(token);
-            byte[] qrImage = qrGenerationService.generateQRCodeImage(qrUrl, seat.getSeatNumber());
-            String filename = qrGenerationService.generateAndSaveQRCode(qrUrl, "SEAT", seat.getSeatNumber());
-            String imagePath = qrStorageService.storeQRCode(qrImage, filename, "seat");
-            
-            seat.setQrCodeToken(token);
-            seat.setQrCodeUrl(qrUrl);
-            seat.setQrImagePath(imagePath);
-            seat.setQrGeneratedAt(LocalDateTime.now());
-            
-            seatRepository.save(seat);
-        } catch (Exception e) {
-            System.err.println("Failed to generate QR code for seat " + seat.getSeatNumber() + ": " + e.getMessage());
+    // mapSeatToDTO for many seats: the current user and seat availability are loaded once for all of them
+    private List<SeatDTO> mapSeatsToDTOs(List<Seat> seats, LocalDateTime startTime, LocalDateTime endTime) {
+        if (seats.isEmpty()) {
+            return new ArrayList<>();
         }
-    });
-}
+        User currentUser = findCurrentUser();
+        Set<Long> bookedSeatIds = new HashSet<>(bookingRepository.findSeatIdsWithOverlappingBookings(
+                seats.stream().map(Seat::getId).collect(Collectors.toList()), startTime, endTime));
+        
+        List<SeatDTO> dtos = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            dtos.add(toSeatDTO(seat, !bookedSeatIds.contains(seat.getId()), startTime, currentUser));
+        }
+        return dtos;
+    }
+
+    private User findCurrentUser() {
+        String currentUserEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + currentUserEmail));
+    }
 }
\ No newline at end of file
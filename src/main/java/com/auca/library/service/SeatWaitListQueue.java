@@ -0,0 +1,127 @@
+package com.auca.library.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.auca.library.model.WaitList;
+import com.auca.library.repository.WaitListRepository;
+import com.auca.library.util.LazyMirror;
+
+/**
+ * In-memory FIFO mirror of the WAITING entries of each seat's wait list, in
+ * created_at order. A seat's queue is loaded from the database on first use
+ * and afterwards only changed by WaitListService once its transaction has
+ * committed, so the database stays the source of truth and a queue can always
+ * be dropped and reloaded. Changes committed while a queue is loading are
+ * replayed on top of it (see LazyMirror).
+ */
+@Component
+public class SeatWaitListQueue {
+
+    @Autowired
+    private WaitListRepository waitListRepository;
+
+    private final LazyMirror<Long, SeatQueue, Entry> queues = new LazyMirror<>(this::load,
+            (queue, id, entry) -> {
+                if (entry != null) {
+                    queue.entries.put(id, entry);
+                } else {
+                    queue.entries.remove(id);
+                }
+            });
+
+    /**
+     * The fields needed to match a waiting entry against a freed or booked slot
+     */
+    public record Entry(Long id, Long userId, LocalDateTime requestedStartTime, LocalDateTime requestedEndTime) {
+
+        static Entry from(WaitList waitList) {
+            return new Entry(waitList.getId(), waitList.getUser().getId(),
+                    waitList.getRequestedStartTime(), waitList.getRequestedEndTime());
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return requestedStartTime.isBefore(end) && requestedEndTime.isAfter(start);
+        }
+    }
+
+    /**
+     * Insertion ordered, so the first entry is the head of the queue
+     */
+    private static final class SeatQueue {
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Ids of the waiting entries whose requested time overlaps the slot, head first
+     */
+    public List<Long> overlapping(Long seatId, LocalDateTime start, LocalDateTime end) {
+        SeatQueue queue = queue(seatId);
+        List<Long> ids = new ArrayList<>();
+        synchronized (queue) {
+            for (Entry entry : queue.entries.values()) {
+                if (entry.overlaps(start, end)) {
+                    ids.add(entry.id());
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 1-based rank of a waiting entry, or 0 if it is no longer waiting
+     */
+    public int positionOf(Long seatId, Long waitListId) {
+        SeatQueue queue = queue(seatId);
+        synchronized (queue) {
+            int position = 1;
+            for (Long id : queue.entries.keySet()) {
+                if (id.equals(waitListId)) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return 0;
+    }
+
+    public int size(Long seatId) {
+        SeatQueue queue = queue(seatId);
+        synchronized (queue) {
+            return queue.entries.size();
+        }
+    }
+
+    public void add(WaitList waitList) {
+        queues.update(waitList.getSeat().getId(), waitList.getId(), Entry.from(waitList));
+    }
+
+    public void removeAll(Long seatId, Collection<Long> waitListIds) {
+        waitListIds.forEach(id -> queues.update(seatId, id, null));
+    }
+
+    /**
+     * Forget a seat's queue so it is reloaded on next use
+     */
+    public void evict(Long seatId) {
+        queues.evict(seatId);
+    }
+
+    private SeatQueue queue(Long seatId) {
+        return queues.get(seatId);
+    }
+
+    private SeatQueue load(Long seatId) {
+        SeatQueue queue = new SeatQueue();
+        for (WaitList waitList : waitListRepository.findWaitingListForSeat(seatId)) {
+            queue.entries.put(waitList.getId(), Entry.from(waitList));
+        }
+        return queue;
+    }
+}
@@ -17,6 +17,7 @@ import com.auca.library.repository.RoomWaitlistRepository;
 import com.auca.library.repository.SeatRepository;
 import com.auca.library.repository.UserRepository;
 import com.auca.library.repository.WaitListRepository;
+import com.auca.library.util.AfterCommit;
 
 import jakarta.mail.MessagingException;
 
@@ -29,14 +30,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class WaitListService {
    
-   @Autowired private BookingService bookingService;
-
    @Autowired private EmailService emailService;
     
    @Autowired private NotificationService notificationService;
@@ -55,6 +56,10 @@ public class WaitListService {
 
    @Autowired private RoomRepository roomRepository;
 
+   @Autowired private SeatWaitListQueue seatQueue;
+
+   @Autowired private RoomWaitlistIndex roomWaitlistIndex;
+
    @Transactional
    public WaitListDTO joinWaitList(WaitListRequest request) {
        // Get current user
@@ -77,17 +82,22 @@ public class WaitListService {
        // Validate request times
        validateWaitListRequest(request.getRequestedStartTime(), request.getRequestedEndTime());
        
-       // Create new wait list entry
+       // Create new wait list entry; its position is its rank by join time
        WaitList waitList = new WaitList(user, seat, request.getRequestedStartTime(), request.getRequestedEndTime());
        
-       // Calculate queue position
-       int queuePosition = waitListRepository.countWaitingForSeat(seat.getId()) + 1;
-       waitList.setQueuePosition(queuePosition);
+       // Read the queue before saving: a cold queue loaded after the insert would
+       // pick up this uncommitted row and keep it even if the transaction rolls back
+       int position = seatQueue.size(seat.getId()) + 1;
        
        // Save to database
        waitList = waitListRepository.save(waitList);
+       WaitList joined = waitList;
+       AfterCommit.run(() -> seatQueue.add(joined));
        
-       return mapWaitListToDTO(waitList);
+       WaitListDTO dto = mapWaitListToDTO(waitList);
+       // Everyone already waiting is ahead
+       dto.setQueuePosition(position);
+       return dto;
    }
    
    @Transactional
@@ -106,12 +116,13 @@ public class WaitListService {
            throw new BadRequestException("You don't have permission to cancel this wait list entry");
        }
        
-       // Update status
+       // Update status; positions behind it shift by rank, nothing is renumbered
        waitList.setStatus(WaitList.WaitListStatus.CANCELLED);
        waitList = waitListRepository.save(waitList);
        
-       // Reorder queue positions for remaining wait list entries
-       reorderWaitList(waitList.getSeat().getId());
+       Long seatId = waitList.getSeat().getId();
+       Long waitListId = waitList.getId();
+       AfterCommit.run(() -> seatQueue.removeAll(seatId, List.of(waitListId)));
        
        return mapWaitListToDTO(waitList);
    }
@@ -151,15 +162,33 @@ public class WaitListService {
        }
    }
    
-   private void reorderWaitList(Long seatId) {
-       List<WaitList> waitingList = waitListRepository.findWaitingListForSeat(seatId);
-       
-       // Update queue positions
-       for (int i = 0; i < waitingList.size(); i++) {
-           WaitList item = waitingList.get(i);
-           item.setQueuePosition(i + 1);
-           waitListRepository.save(item);
+   /**
+    * Mark every waiting entry that overlaps a newly booked slot as fulfilled, in one update
+    */
+   @Transactional
+   public int fulfillOverlapping(Long seatId, LocalDateTime startTime, LocalDateTime endTime) {
+       List<Long> ids = seatQueue.overlapping(seatId, startTime, endTime);
+       if (ids.isEmpty()) {
+           return 0;
+       }
+       int updated = waitListRepository.updateWaitingStatus(ids, WaitList.WaitListStatus.FULFILLED);
+       AfterCommit.run(() -> seatQueue.removeAll(seatId, ids));
+       return updated;
+   }
+   
+   /**
+    * Mark every waiting entry that overlaps a freed slot as notified, in one update.
+    * Returns the entries (with user and seat loaded) so the caller can send its notifications.
+    */
+   @Transactional
+   public List<WaitList> notifyOverlapping(Long seatId, LocalDateTime startTime, LocalDateTime endTime) {
+       List<Long> ids = seatQueue.overlapping(seatId, startTime, endTime);
+       if (ids.isEmpty()) {
+           return List.of();
        }
+       waitListRepository.markNotified(ids, WaitList.WaitListStatus.NOTIFIED, LocalDateTime.now());
+       AfterCommit.run(() -> seatQueue.removeAll(seatId, ids));
+       return waitListRepository.findByIdInAndStatusWithUserAndSeat(ids, WaitList.WaitListStatus.NOTIFIED);
    }
    
    private WaitListDTO mapWaitListToDTO(WaitList waitList) {
@@ -173,7 +202,9 @@ public class WaitListService {
        dto.setRequestedStartTime(waitList.getRequestedStartTime());
        dto.setRequestedEndTime(waitList.getRequestedEndTime());
        dto.setCreatedAt(waitList.getCreatedAt());
-       dto.setQueuePosition(waitList.getQueuePosition());
+       dto.setQueuePosition(waitList.getStatus() == WaitList.WaitListStatus.WAITING
+               ? seatQueue.positionOf(waitList.getSeat().getId(), waitList.getId())
+               : 0);
        dto.setNotified(waitList.isNotified());
        dto.setNotifiedAt(waitList.getNotifiedAt());
        dto.setStatus(waitList.getStatus());
@@ -247,6 +278,8 @@ public class WaitListService {
         waitlistEntry.setExpiresAt(desiredStartTime.minusHours(1)); // Expire 1 hour before desired time
         
         waitlistEntry = waitlistRepository.save(waitlistEntry);
+        RoomWaitlist added = waitlistEntry;
+        AfterCommit.run(() -> roomWaitlistIndex.add(added));
         
         WaitlistResponse response = mapToResponse(waitlistEntry);
         response.setPositionInQueue(getPositionInQueue(waitlistEntry));
@@ -256,26 +289,46 @@ public class WaitListService {
     
     @Transactional
     public void processWaitlistForAvailableSlot(Room room, LocalDateTime startTime, LocalDateTime endTime) {
-        List<RoomWaitlist> waitingUsers = waitlistRepository.findWaitlistForTimeSlot(room, startTime, endTime);
-        
-        for (RoomWaitlist waitlistEntry : waitingUsers) {
-            if (waitlistEntry.isActive() && !waitlistEntry.isNotificationSent()) {
-                // Notify user about availability
-                notificationService.addNotification(
-                    waitlistEntry.getUser().getEmail(),
-                    "Room Available from Waitlist",
-                    String.format("The room %s is now available for your requested time: %s - %s. You have 15 minutes to book it.",
-                        room.getName(), startTime, endTime),
-                    "WAITLIST_AVAILABLE"
-                );
-                
-                waitlistEntry.setNotificationSent(true);
-                waitlistRepository.save(waitlistEntry);
-                
-                // Only notify the first user (highest priority)
-                break;
-            }
+        processFreedRoomSlots(List.of(new RoomWaitlistIndex.FreedWindow(room.getId(), startTime, endTime)));
+    }
+
+    /**
+     * Offer freed room time to the waitlist. All windows, e.g. from a bulk admin
+     * cancellation, are handled in one pass: the index picks the requests that fit
+     * inside a window by priority, then they are claimed, loaded and notified in bulk;
+     * only the entries this call actually claimed are notified.
+     */
+    @Transactional
+    public void processFreedRoomSlots(Collection<RoomWaitlistIndex.FreedWindow> windows) {
+        if (windows.isEmpty()) {
+            return;
         }
+        Map<Long, List<RoomWaitlistIndex.Entry>> offers = roomWaitlistIndex.selectOffers(windows, LocalDateTime.now());
+        List<Long> ids = offers.values().stream()
+            .flatMap(List::stream)
+            .map(RoomWaitlistIndex.Entry::id)
+            .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Long> claimed = waitlistRepository.claimForNotification(ids);
+        List<RoomWaitlist> entries = claimed.isEmpty()
+            ? List.of()
+            : waitlistRepository.findAllByIdWithUserAndRoom(claimed);
+        for (RoomWaitlist waitlistEntry : entries) {
+            notificationService.addNotification(
+                waitlistEntry.getUser().getEmail(),
+                "Room Available from Waitlist",
+                String.format("The room %s is now available for your requested time: %s - %s. You have 15 minutes to book it.",
+                    waitlistEntry.getRoom().getName(), waitlistEntry.getDesiredStartTime(), waitlistEntry.getDesiredEndTime()),
+                "WAITLIST_AVAILABLE"
+            );
+        }
+
+        // Offered entries leave the index whether or not they were still open
+        AfterCommit.run(() -> offers.forEach((roomId, offered) -> roomWaitlistIndex.removeAll(roomId,
+            offered.stream().map(RoomWaitlistIndex.Entry::id).collect(Collectors.toList()))));
     }
     
     @Transactional
@@ -289,6 +342,9 @@ public class WaitListService {
         
         waitlistEntry.setActive(false);
         waitlistRepository.save(waitlistEntry);
+
+        Long roomId = waitlistEntry.getRoom().getId();
+        AfterCommit.run(() -> roomWaitlistIndex.removeAll(roomId, List.of(waitlistId)));
     }
     
     public List<WaitlistResponse> getUserWaitlist(String userEmail) {
@@ -309,12 +365,18 @@ public class WaitListService {
     @Transactional
     public void cleanupExpiredWaitlistEntries() {
         LocalDateTime now = LocalDateTime.now();
-        List<RoomWaitlist> expiredEntries = waitlistRepository.findExpiredWaitlistEntries(now);
-        
-        for (RoomWaitlist entry : expiredEntries) {
-            entry.setActive(false);
-            waitlistRepository.save(entry);
+        Map<Long, List<Long>> expiredByRoom = waitlistRepository.findExpiredWaitlistEntries(now).stream()
+            .filter(RoomWaitlist::isActive)
+            .collect(Collectors.groupingBy(entry -> entry.getRoom().getId(),
+                Collectors.mapping(RoomWaitlist::getId, Collectors.toList())));
+        if (expiredByRoom.isEmpty()) {
+            return;
         }
+
+        waitlistRepository.deactivate(expiredByRoom.values().stream()
+            .flatMap(List::stream)
+            .collect(Collectors.toList()));
+        AfterCommit.run(() -> expiredByRoom.forEach(roomWaitlistIndex::removeAll));
     }
     
     private Integer calculatePriority(User user, Room room) {
@@ -0,0 +1,19 @@
+package com.auca.library.util;
+
+import java.sql.SQLException;
+
+public class ExclusionViolations {
+
+    // PostgreSQL exclusion_violation, raised by EXCLUDE constraints
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    public static boolean isExclusionViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
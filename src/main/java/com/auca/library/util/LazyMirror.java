@@ -0,0 +1,112 @@
+package com.auca.library.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Per-key in-memory copies of database state (a seat's wait list queue, a
+ * room's waitlist index, ...), loaded on first use and then kept current by
+ * changes reported after commit. A change that commits while its key is
+ * loading may or may not be in the load's query result, so it is kept and
+ * replayed on top of the loaded value. Changes are keyed by item id and must be
+ * safe to apply twice.
+ *
+ * Values are locked on themselves while a change is applied, so readers must
+ * synchronize on the value too. Assumes a single application instance: changes
+ * committed by another instance never arrive here.
+ */
+public class LazyMirror<K, V, T> {
+
+    /**
+     * Apply one change to a loaded value; item is null when the item was removed
+     */
+    public interface Applier<V, T> {
+        void apply(V value, Long itemId, T item);
+    }
+
+    private final Function<K, V> loader;
+    private final Applier<V, T> applier;
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+
+    // Guarded by itself: changes per key whose value is being loaded, by item id (empty = removed)
+    private final Map<K, Map<Long, Optional<T>>> pendingChanges = new HashMap<>();
+
+    public LazyMirror(Function<K, V> loader, Applier<V, T> applier) {
+        this.loader = loader;
+        this.applier = applier;
+    }
+
+    public V get(K key) {
+        V value = values.get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (pendingChanges) {
+            value = values.get(key);
+            if (value != null) {
+                return value;
+            }
+            pendingChanges.putIfAbsent(key, new LinkedHashMap<>());
+        }
+
+        V loaded = loader.apply(key);
+        synchronized (pendingChanges) {
+            V current = values.get(key);
+            if (current != null) {
+                // A concurrent load got there first
+                return current;
+            }
+            Map<Long, Optional<T>> changes = pendingChanges.remove(key);
+            if (changes == null) {
+                // Evicted while loading; answer from this copy but don't keep it
+                return loaded;
+            }
+            changes.forEach((itemId, item) -> applier.apply(loaded, itemId, item.orElse(null)));
+            values.put(key, loaded);
+            return loaded;
+        }
+    }
+
+    /**
+     * Record a committed change to one item; item is null when it was removed
+     */
+    public void update(K key, Long itemId, T item) {
+        V value;
+        synchronized (pendingChanges) {
+            value = values.get(key);
+            if (value == null) {
+                // The load in flight may have queried before this commit, so keep the change for it.
+                // With no load in flight, the first read will load the committed state.
+                Map<Long, Optional<T>> changes = pendingChanges.get(key);
+                if (changes != null) {
+                    changes.put(itemId, Optional.ofNullable(item));
+                }
+                return;
+            }
+        }
+        synchronized (value) {
+            applier.apply(value, itemId, item);
+        }
+    }
+
+    /**
+     * Forget a key so it is reloaded on next use
+     */
+    public void evict(K key) {
+        synchronized (pendingChanges) {
+            values.remove(key);
+            pendingChanges.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (pendingChanges) {
+            values.clear();
+            pendingChanges.clear();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.auca.library.util;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Database work done by the current request thread: SQL statements prepared,
+ * entities loaded, lazy collections fetched and time spent executing JDBC
+ * calls. Counting only happens between begin() and end(); other threads
+ * (scheduled jobs, async work) are not tracked.
+ */
+public class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+    private int collectionFetches;
+    private long dbNanos;
+
+    public static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stats of the request on this thread, or null outside a request
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    public long getDbNanos() {
+        return dbNanos;
+    }
+
+    public String toHeaderValue() {
+        return String.format("statements=%d;entities=%d;collections=%d;dbMs=%.1f",
+                statements, entityLoads, collectionFetches, dbNanos / 1_000_000.0);
+    }
+
+    /**
+     * Hook entity-load and collection-fetch counting into the session factory's events
+     */
+    public static void registerListeners(SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.entityLoads++;
+            }
+        });
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.collectionFetches++;
+            }
+        });
+    }
+
+    /**
+     * Counts every SQL statement Hibernate prepares; leaves the SQL untouched
+     */
+    public static class StatementCounter implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.statements++;
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Adds JDBC execution time to the current request; Hibernate creates one per session
+     */
+    public static class DbTimeListener extends BaseSessionEventListener {
+        private long executeStart;
+        private long batchStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            addDbTime(System.nanoTime() - executeStart);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            addDbTime(System.nanoTime() - batchStart);
+        }
+
+        private void addDbTime(long nanos) {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.dbNanos += nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,602 @@
+-- Schema as Hibernate's ddl-auto=update left it before migrations took over.
+-- Databases that already have these tables are baselined at version 1 and
+-- skip this script, so it must stay exactly that schema: anything added since
+-- belongs in a later script. Enum columns are plain varchar without CHECK
+-- lists, so adding a constant to a Java enum needs no migration.
+
+-- ========== USERS AND STAFF ==========
+
+CREATE TABLE roles (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(30)
+);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at timestamp(6),
+    full_name varchar(100) NOT NULL,
+    email varchar(50) NOT NULL,
+    password varchar(120) NOT NULL,
+    location varchar(20) NOT NULL,
+    email_verified boolean NOT NULL,
+    verification_token varchar(255),
+    must_change_password boolean NOT NULL,
+    student_id varchar(20),
+    employee_id varchar(20),
+    phone varchar(15),
+    active_this_week boolean NOT NULL,
+    active_today boolean NOT NULL,
+    is_default_librarian boolean NOT NULL,
+    professor_approved boolean NOT NULL,
+    professor_approved_at timestamp(6),
+    approved_by_hod bigint,
+    rejection_reason varchar(255),
+    rejected_at timestamp(6),
+    rejected_by_hod bigint,
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_student_id UNIQUE (student_id),
+    CONSTRAINT uk_users_employee_id UNIQUE (employee_id)
+);
+
+CREATE TABLE user_roles (
+    user_id bigint NOT NULL,
+    role_id bigint NOT NULL,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE user_working_days (
+    user_id bigint NOT NULL,
+    day_of_week varchar(255) NOT NULL,
+    PRIMARY KEY (user_id, day_of_week)
+);
+
+CREATE TABLE courses (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    course_code varchar(20) NOT NULL,
+    course_name varchar(100) NOT NULL,
+    credit_hours integer,
+    active boolean NOT NULL,
+    CONSTRAINT uk_courses_course_code UNIQUE (course_code)
+);
+
+CREATE TABLE professor_courses (
+    user_id bigint NOT NULL,
+    course_id bigint NOT NULL,
+    PRIMARY KEY (user_id, course_id)
+);
+
+CREATE TABLE librarian (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    email varchar(50) NOT NULL,
+    librarian_id varchar(20) NOT NULL,
+    phone varchar(255) NOT NULL,
+    location varchar(20) NOT NULL,
+    active_today boolean NOT NULL,
+    is_default boolean NOT NULL,
+    working_day date,
+    password varchar(120) NOT NULL,
+    CONSTRAINT uk_librarian_email UNIQUE (email),
+    CONSTRAINT uk_librarian_librarian_id UNIQUE (librarian_id)
+);
+
+-- ========== SEATS ==========
+
+CREATE TABLE seats (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    seat_number varchar(255) NOT NULL,
+    location varchar(20) NOT NULL,
+    zone_type varchar(255) NOT NULL,
+    has_desktop boolean NOT NULL,
+    is_disabled boolean NOT NULL,
+    description varchar(255),
+    floar integer,
+    qr_code_url varchar(255),
+    qr_code_token varchar(255),
+    qr_image_path varchar(500),
+    qr_generated_at timestamp(6),
+    qr_version integer NOT NULL,
+    CONSTRAINT uk_seats_seat_number UNIQUE (seat_number),
+    CONSTRAINT uk_seats_qr_code_token UNIQUE (qr_code_token)
+);
+
+CREATE TABLE user_favorite_seats (
+    user_id bigint NOT NULL,
+    seat_id bigint NOT NULL,
+    PRIMARY KEY (user_id, seat_id)
+);
+
+CREATE TABLE bookings (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    seat_id bigint NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    status varchar(255) NOT NULL,
+    checked_in boolean NOT NULL,
+    checked_in_time timestamp(6),
+    checked_out_time timestamp(6),
+    notes varchar(255),
+    warning_sent boolean,
+    checkin_time timestamp(6),
+    checkout_time timestamp(6),
+    cancellation_time timestamp(6),
+    cancellation_reason varchar(255),
+    extension_requested boolean NOT NULL,
+    extended boolean NOT NULL,
+    extension_notified_at timestamp(6),
+    extension_responded_at timestamp(6)
+);
+
+CREATE TABLE wait_lists (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    seat_id bigint NOT NULL,
+    requested_start_time timestamp(6) NOT NULL,
+    requested_end_time timestamp(6) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    queue_position integer NOT NULL,
+    notified boolean NOT NULL,
+    notified_at timestamp(6),
+    status varchar(255) NOT NULL
+);
+
+-- ========== ROOMS ==========
+
+CREATE TABLE rooms (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_number varchar(255) NOT NULL,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    category varchar(255) NOT NULL,
+    capacity integer NOT NULL,
+    max_booking_hours integer NOT NULL,
+    max_bookings_per_day integer NOT NULL,
+    advance_booking_days integer NOT NULL,
+    available boolean NOT NULL,
+    location varchar(255) NOT NULL,
+    building varchar(255),
+    floor varchar(255),
+    department varchar(255),
+    qr_code_url varchar(255),
+    qr_code_token varchar(255),
+    qr_image_path varchar(500),
+    qr_generated_at timestamp(6),
+    qr_version integer NOT NULL,
+    maintenance_start timestamp(6),
+    maintenance_end timestamp(6),
+    maintenance_notes varchar(255),
+    requires_approval boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_rooms_room_number UNIQUE (room_number),
+    CONSTRAINT uk_rooms_qr_code_token UNIQUE (qr_code_token)
+);
+
+CREATE TABLE room_templates (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    template_name varchar(255) NOT NULL,
+    description varchar(255),
+    category varchar(255) NOT NULL,
+    capacity integer NOT NULL,
+    max_booking_hours integer NOT NULL,
+    max_bookings_per_day integer NOT NULL,
+    advance_booking_days integer NOT NULL,
+    requires_approval boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_room_templates_template_name UNIQUE (template_name)
+);
+
+CREATE TABLE recurring_booking_series (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    room_id bigint NOT NULL,
+    title varchar(255) NOT NULL,
+    description varchar(255),
+    recurrence_type varchar(255) NOT NULL,
+    recurrence_interval integer NOT NULL,
+    start_time time(6) NOT NULL,
+    end_time time(6) NOT NULL,
+    series_start_date timestamp(6) NOT NULL,
+    series_end_date timestamp(6),
+    is_active boolean NOT NULL,
+    last_generated_date timestamp(6),
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE recurring_booking_days (
+    recurring_booking_series_id bigint NOT NULL,
+    days_of_week varchar(255) NOT NULL,
+    PRIMARY KEY (recurring_booking_series_id, days_of_week)
+);
+
+CREATE TABLE room_bookings (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    status varchar(255) NOT NULL,
+    title varchar(255) NOT NULL,
+    description varchar(255),
+    max_participants integer NOT NULL,
+    is_public boolean NOT NULL,
+    allow_joining boolean NOT NULL,
+    recurring_series_id bigint,
+    requires_check_in boolean NOT NULL,
+    checked_in_at timestamp(6),
+    auto_check_in_enabled boolean NOT NULL,
+    requires_approval boolean NOT NULL,
+    approved_by bigint,
+    approved_at timestamp(6),
+    rejection_reason varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    reminder_sent_at timestamp(6),
+    reminder_enabled boolean NOT NULL
+);
+
+CREATE TABLE booking_participants (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    status varchar(255) NOT NULL,
+    invited_at timestamp(6),
+    responded_at timestamp(6),
+    checked_in_at timestamp(6),
+    notification_sent boolean NOT NULL
+);
+
+CREATE TABLE room_waitlists (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    room_id bigint NOT NULL,
+    desired_start_time timestamp(6) NOT NULL,
+    desired_end_time timestamp(6) NOT NULL,
+    priority integer NOT NULL,
+    is_active boolean NOT NULL,
+    notification_sent boolean NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6)
+);
+
+CREATE TABLE user_favorite_rooms (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    room_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT uk_user_favorite_rooms_user_room UNIQUE (user_id, room_id)
+);
+
+CREATE TABLE booking_analytics (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    date date NOT NULL,
+    booking_duration_minutes integer NOT NULL,
+    actual_usage_duration_minutes integer NOT NULL,
+    participant_count integer NOT NULL,
+    checked_in boolean NOT NULL,
+    was_no_show boolean NOT NULL,
+    was_cancelled boolean NOT NULL,
+    final_status varchar(255),
+    created_at timestamp(6) NOT NULL
+);
+
+CREATE TABLE booking_statistics (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date date NOT NULL,
+    total_bookings integer NOT NULL,
+    unique_users integer NOT NULL,
+    average_booking_duration float(53) NOT NULL,
+    peak_occupancy_rate float(53) NOT NULL,
+    bookings_in_silent_zone integer NOT NULL,
+    bookings_in_collaboration_zone integer NOT NULL,
+    peak_booking_hour timestamp(6),
+    peak_hour_bookings integer NOT NULL,
+    created_at timestamp(6)
+);
+
+-- ========== EQUIPMENT ==========
+
+CREATE TABLE equipment (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    available boolean NOT NULL,
+    allowed_to_students boolean NOT NULL,
+    quantity integer,
+    available_quantity integer,
+    location varchar(255) NOT NULL,
+    CONSTRAINT uk_equipment_name UNIQUE (name)
+);
+
+CREATE TABLE room_equipment (
+    room_id bigint NOT NULL,
+    equipment_id bigint NOT NULL,
+    PRIMARY KEY (room_id, equipment_id)
+);
+
+CREATE TABLE template_equipment (
+    template_id bigint NOT NULL,
+    equipment_id bigint NOT NULL,
+    PRIMARY KEY (template_id, equipment_id)
+);
+
+CREATE TABLE booking_equipment_requests (
+    booking_id bigint NOT NULL,
+    equipment_id bigint NOT NULL,
+    PRIMARY KEY (booking_id, equipment_id)
+);
+
+CREATE TABLE equipment_inventory (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    equipment_id bigint NOT NULL,
+    status varchar(255) NOT NULL,
+    quantity integer NOT NULL,
+    CONSTRAINT uk_equipment_inventory_equipment_status UNIQUE (equipment_id, status)
+);
+
+CREATE TABLE equipment_logs (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    equipment_id bigint NOT NULL,
+    from_status varchar(255),
+    to_status varchar(255) NOT NULL,
+    quantity integer NOT NULL,
+    changed_by bigint NOT NULL,
+    changed_at timestamp(6) NOT NULL,
+    notes varchar(255)
+);
+
+CREATE TABLE equipment_units (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    equipment_id bigint NOT NULL,
+    serial_number varchar(255) NOT NULL,
+    status varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    condition varchar(255),
+    purchase_date date,
+    warranty_expiry date,
+    notes varchar(255),
+    CONSTRAINT uk_equipment_units_serial_number UNIQUE (serial_number)
+);
+
+CREATE TABLE lab_classes (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    lab_number varchar(50) NOT NULL,
+    name varchar(100) NOT NULL,
+    description varchar(255),
+    capacity integer,
+    building varchar(255) NOT NULL,
+    floor varchar(255) NOT NULL,
+    available boolean NOT NULL,
+    CONSTRAINT uk_lab_classes_lab_number UNIQUE (lab_number)
+);
+
+CREATE TABLE lab_equipment (
+    lab_id bigint NOT NULL,
+    equipment_id bigint NOT NULL,
+    PRIMARY KEY (lab_id, equipment_id)
+);
+
+CREATE TABLE lab_class_requests (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    lab_class_id bigint NOT NULL,
+    course_id bigint NOT NULL,
+    reason varchar(255) NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    status varchar(255) NOT NULL,
+    approved_by bigint,
+    approved_at timestamp(6),
+    rejection_reason varchar(255),
+    admin_suggestion varchar(255),
+    created_at timestamp(6) NOT NULL,
+    escalated_to_hod boolean NOT NULL,
+    escalated_at timestamp(6),
+    hod_reviewed_by bigint,
+    hod_reviewed_at timestamp(6)
+);
+
+CREATE TABLE equipment_requests (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    equipment_id bigint NOT NULL,
+    course_id bigint,
+    lab_class_id bigint,
+    room_booking_id bigint,
+    reason varchar(255) NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    requested_quantity integer NOT NULL,
+    status varchar(255) NOT NULL,
+    approved_by bigint,
+    approved_at timestamp(6),
+    rejection_reason varchar(255),
+    admin_suggestion varchar(255),
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    escalated_to_hod boolean NOT NULL,
+    escalated_at timestamp(6),
+    hod_reviewed_by bigint,
+    hod_reviewed_at timestamp(6),
+    suggestion_acknowledged boolean,
+    suggestion_response_reason varchar(500),
+    suggestion_response_at timestamp(6),
+    returned_at timestamp(6),
+    returned_by_id bigint,
+    return_condition varchar(50),
+    return_notes varchar(1000),
+    is_early_return boolean,
+    is_late_return boolean,
+    total_extensions_today integer,
+    total_extension_hours_today float(53),
+    extension_reason varchar(500),
+    extension_status varchar(20),
+    extension_approved_by_id bigint,
+    extension_requested_at timestamp(6),
+    extension_approved_at timestamp(6),
+    extension_hours_requested float(53),
+    original_end_time timestamp(6),
+    assigned_equipment_unit_id bigint
+);
+
+CREATE TABLE equipment_assignments (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    equipment_unit_id bigint NOT NULL,
+    assignment_type varchar(255) NOT NULL,
+    assigned_to_user_id bigint,
+    assigned_to_room_id bigint,
+    assigned_to_location varchar(255),
+    assignment_period varchar(255) NOT NULL,
+    start_date timestamp(6) NOT NULL,
+    end_date timestamp(6),
+    status varchar(255) NOT NULL,
+    assigned_to_name varchar(255) NOT NULL,
+    assigned_by_id bigint NOT NULL,
+    assigned_at timestamp(6) NOT NULL,
+    returned_at timestamp(6),
+    return_reason varchar(255),
+    returned_by_id bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    equipment_request_id bigint
+);
+
+-- ========== LIBRARY ==========
+
+CREATE TABLE library_schedules (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    day_of_week varchar(255) NOT NULL,
+    open_time time(6) NOT NULL,
+    close_time time(6) NOT NULL,
+    location varchar(255) NOT NULL,
+    open boolean NOT NULL,
+    special_close_time time(6),
+    message text,
+    last_modified timestamp(6)
+);
+
+CREATE TABLE library_closure_exceptions (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    date date NOT NULL,
+    open_time time(6),
+    close_time time(6),
+    closed_all_day boolean NOT NULL,
+    reason varchar(255),
+    location varchar(255)
+);
+
+CREATE TABLE library_announcements (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title varchar(255) NOT NULL,
+    message text NOT NULL,
+    start_date_time timestamp(6) NOT NULL,
+    end_date_time timestamp(6) NOT NULL,
+    isuivisible boolean NOT NULL,
+    is_notification_enabled boolean NOT NULL,
+    created_by bigint,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6)
+);
+
+-- ========== NOTIFICATIONS AND QR ==========
+
+CREATE TABLE notifications (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id bigint NOT NULL,
+    title varchar(255) NOT NULL,
+    message text,
+    type varchar(255) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    read boolean NOT NULL
+);
+
+CREATE TABLE qr_code_logs (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    resource_type varchar(50) NOT NULL,
+    resource_id bigint NOT NULL,
+    qr_version integer NOT NULL,
+    generated_by bigint NOT NULL,
+    generated_at timestamp(6) NOT NULL,
+    is_current boolean NOT NULL,
+    old_token varchar(255),
+    new_token varchar(255) NOT NULL,
+    generation_reason varchar(255)
+);
+
+-- ========== FOREIGN KEYS ==========
+
+-- Librarian maps user_roles as well, but the rows belong to users
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE user_roles ADD CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id);
+ALTER TABLE user_working_days ADD CONSTRAINT fk_user_working_days_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE users ADD CONSTRAINT fk_users_approved_by_hod FOREIGN KEY (approved_by_hod) REFERENCES users (id);
+ALTER TABLE users ADD CONSTRAINT fk_users_rejected_by_hod FOREIGN KEY (rejected_by_hod) REFERENCES users (id);
+ALTER TABLE professor_courses ADD CONSTRAINT fk_professor_courses_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE professor_courses ADD CONSTRAINT fk_professor_courses_course FOREIGN KEY (course_id) REFERENCES courses (id);
+
+ALTER TABLE user_favorite_seats ADD CONSTRAINT fk_user_favorite_seats_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE user_favorite_seats ADD CONSTRAINT fk_user_favorite_seats_seat FOREIGN KEY (seat_id) REFERENCES seats (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE bookings ADD CONSTRAINT fk_bookings_seat FOREIGN KEY (seat_id) REFERENCES seats (id);
+ALTER TABLE wait_lists ADD CONSTRAINT fk_wait_lists_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE wait_lists ADD CONSTRAINT fk_wait_lists_seat FOREIGN KEY (seat_id) REFERENCES seats (id);
+
+ALTER TABLE room_equipment ADD CONSTRAINT fk_room_equipment_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE room_equipment ADD CONSTRAINT fk_room_equipment_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE template_equipment ADD CONSTRAINT fk_template_equipment_template FOREIGN KEY (template_id) REFERENCES room_templates (id);
+ALTER TABLE template_equipment ADD CONSTRAINT fk_template_equipment_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE recurring_booking_series ADD CONSTRAINT fk_recurring_booking_series_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE recurring_booking_series ADD CONSTRAINT fk_recurring_booking_series_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE recurring_booking_days ADD CONSTRAINT fk_recurring_booking_days_series FOREIGN KEY (recurring_booking_series_id) REFERENCES recurring_booking_series (id);
+ALTER TABLE room_bookings ADD CONSTRAINT fk_room_bookings_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE room_bookings ADD CONSTRAINT fk_room_bookings_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE room_bookings ADD CONSTRAINT fk_room_bookings_series FOREIGN KEY (recurring_series_id) REFERENCES recurring_booking_series (id);
+ALTER TABLE room_bookings ADD CONSTRAINT fk_room_bookings_approved_by FOREIGN KEY (approved_by) REFERENCES users (id);
+ALTER TABLE booking_equipment_requests ADD CONSTRAINT fk_booking_equipment_requests_booking FOREIGN KEY (booking_id) REFERENCES room_bookings (id);
+ALTER TABLE booking_equipment_requests ADD CONSTRAINT fk_booking_equipment_requests_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE booking_participants ADD CONSTRAINT fk_booking_participants_booking FOREIGN KEY (booking_id) REFERENCES room_bookings (id);
+ALTER TABLE booking_participants ADD CONSTRAINT fk_booking_participants_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE room_waitlists ADD CONSTRAINT fk_room_waitlists_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE room_waitlists ADD CONSTRAINT fk_room_waitlists_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE user_favorite_rooms ADD CONSTRAINT fk_user_favorite_rooms_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE user_favorite_rooms ADD CONSTRAINT fk_user_favorite_rooms_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE booking_analytics ADD CONSTRAINT fk_booking_analytics_room FOREIGN KEY (room_id) REFERENCES rooms (id);
+ALTER TABLE booking_analytics ADD CONSTRAINT fk_booking_analytics_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+ALTER TABLE equipment_inventory ADD CONSTRAINT fk_equipment_inventory_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE equipment_logs ADD CONSTRAINT fk_equipment_logs_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE equipment_logs ADD CONSTRAINT fk_equipment_logs_changed_by FOREIGN KEY (changed_by) REFERENCES users (id);
+ALTER TABLE equipment_units ADD CONSTRAINT fk_equipment_units_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE lab_equipment ADD CONSTRAINT fk_lab_equipment_lab FOREIGN KEY (lab_id) REFERENCES lab_classes (id);
+ALTER TABLE lab_equipment ADD CONSTRAINT fk_lab_equipment_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE lab_class_requests ADD CONSTRAINT fk_lab_class_requests_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE lab_class_requests ADD CONSTRAINT fk_lab_class_requests_lab_class FOREIGN KEY (lab_class_id) REFERENCES lab_classes (id);
+ALTER TABLE lab_class_requests ADD CONSTRAINT fk_lab_class_requests_course FOREIGN KEY (course_id) REFERENCES courses (id);
+ALTER TABLE lab_class_requests ADD CONSTRAINT fk_lab_class_requests_approved_by FOREIGN KEY (approved_by) REFERENCES users (id);
+ALTER TABLE lab_class_requests ADD CONSTRAINT fk_lab_class_requests_hod_reviewed_by FOREIGN KEY (hod_reviewed_by) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_equipment FOREIGN KEY (equipment_id) REFERENCES equipment (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_course FOREIGN KEY (course_id) REFERENCES courses (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_lab_class FOREIGN KEY (lab_class_id) REFERENCES lab_classes (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_room_booking FOREIGN KEY (room_booking_id) REFERENCES room_bookings (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_approved_by FOREIGN KEY (approved_by) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_hod_reviewed_by FOREIGN KEY (hod_reviewed_by) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_returned_by FOREIGN KEY (returned_by_id) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_extension_approved_by FOREIGN KEY (extension_approved_by_id) REFERENCES users (id);
+ALTER TABLE equipment_requests ADD CONSTRAINT fk_equipment_requests_unit FOREIGN KEY (assigned_equipment_unit_id) REFERENCES equipment_units (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_unit FOREIGN KEY (equipment_unit_id) REFERENCES equipment_units (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_user FOREIGN KEY (assigned_to_user_id) REFERENCES users (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_room FOREIGN KEY (assigned_to_room_id) REFERENCES rooms (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_assigned_by FOREIGN KEY (assigned_by_id) REFERENCES users (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_returned_by FOREIGN KEY (returned_by_id) REFERENCES users (id);
+ALTER TABLE equipment_assignments ADD CONSTRAINT fk_equipment_assignments_request FOREIGN KEY (equipment_request_id) REFERENCES equipment_requests (id);
+
+ALTER TABLE library_announcements ADD CONSTRAINT fk_library_announcements_created_by FOREIGN KEY (created_by) REFERENCES users (id);
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id);
+ALTER TABLE qr_code_logs ADD CONSTRAINT fk_qr_code_logs_generated_by FOREIGN KEY (generated_by) REFERENCES users (id);
@@ -0,0 +1,32 @@
+-- Tables that moved from IDENTITY to pooled sequence ids. A database started
+-- on a build that used ddl-auto may already have a sequence, possibly behind
+-- the ids in its table; create it if needed and move it past them. Never
+-- moves one back. The identity defaults are dropped so there is only one
+-- source of ids per table.
+
+CREATE SEQUENCE IF NOT EXISTS seats_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS room_bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_participants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS qr_code_logs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS equipment_logs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS equipment_assignments_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('seats_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM seats), (SELECT last_value FROM seats_seq)));
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM bookings), (SELECT last_value FROM bookings_seq)));
+SELECT setval('room_bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM room_bookings), (SELECT last_value FROM room_bookings_seq)));
+SELECT setval('booking_participants_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM booking_participants), (SELECT last_value FROM booking_participants_seq)));
+SELECT setval('notifications_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notifications), (SELECT last_value FROM notifications_seq)));
+SELECT setval('qr_code_logs_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM qr_code_logs), (SELECT last_value FROM qr_code_logs_seq)));
+SELECT setval('equipment_logs_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM equipment_logs), (SELECT last_value FROM equipment_logs_seq)));
+SELECT setval('equipment_assignments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM equipment_assignments), (SELECT last_value FROM equipment_assignments_seq)));
+
+ALTER TABLE seats ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE room_bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking_participants ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE qr_code_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE equipment_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE equipment_assignments ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,3 @@
+-- Optimistic locking for Equipment. Existing rows start at version 0.
+
+ALTER TABLE equipment ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
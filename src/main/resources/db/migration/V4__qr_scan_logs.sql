@@ -0,0 +1,20 @@
+-- One row per QR scan, written in batches by QRScanAuditService
+
+CREATE SEQUENCE IF NOT EXISTS qr_scan_logs_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS qr_scan_logs (
+    id bigint PRIMARY KEY,
+    resource_type varchar(50) NOT NULL,
+    resource_id bigint,
+    token varchar(100),
+    user_id bigint,
+    success boolean NOT NULL,
+    result varchar(50),
+    latency_ms bigint NOT NULL,
+    scanned_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_qr_scan_logs_resource ON qr_scan_logs (resource_type, resource_id);
+CREATE INDEX IF NOT EXISTS idx_qr_scan_logs_scanned_at ON qr_scan_logs (scanned_at);
+
+SELECT setval('qr_scan_logs_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM qr_scan_logs), (SELECT last_value FROM qr_scan_logs_seq)));
@@ -0,0 +1,21 @@
+-- Mail waiting to be sent by MailDispatchService
+
+CREATE SEQUENCE IF NOT EXISTS email_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id bigint PRIMARY KEY,
+    recipient varchar(255) NOT NULL,
+    subject varchar(255) NOT NULL,
+    body text NOT NULL,
+    digestible boolean DEFAULT false NOT NULL,
+    status varchar(20) NOT NULL,
+    attempts integer NOT NULL,
+    next_attempt_at timestamp(6) NOT NULL,
+    last_error varchar(500),
+    created_at timestamp(6) NOT NULL,
+    sent_at timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (status, next_attempt_at);
+
+SELECT setval('email_outbox_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM email_outbox), (SELECT last_value FROM email_outbox_seq)));
@@ -0,0 +1,91 @@
+-- Indexes for the booking, room booking, notification and waitlist
+-- repository queries. Partial indexes cover only the rows the scheduled
+-- sweeps and availability checks look at, so they stay small as history
+-- grows. seats.qr_code_token needs none: its unique constraint is the index.
+
+-- ========== SEAT BOOKINGS ==========
+
+-- Overlap checks, next active booking and the QR check-in window for a seat
+CREATE INDEX IF NOT EXISTS idx_bookings_seat_active
+    ON bookings (seat_id, start_time, end_time)
+    WHERE status IN ('RESERVED', 'CHECKED_IN');
+
+-- A user's past, future and active bookings
+CREATE INDEX IF NOT EXISTS idx_bookings_user_start ON bookings (user_id, start_time);
+
+-- Day and date-range listings, dashboard counts, upcoming reservations
+CREATE INDEX IF NOT EXISTS idx_bookings_start_time ON bookings (start_time);
+
+-- No-show and check-in warning sweeps
+CREATE INDEX IF NOT EXISTS idx_bookings_not_checked_in
+    ON bookings (start_time)
+    WHERE checked_in = false;
+
+-- Bookings nearing completion that may be offered an extension
+CREATE INDEX IF NOT EXISTS idx_bookings_checked_in_end
+    ON bookings (end_time)
+    WHERE status = 'CHECKED_IN' AND extended = false;
+
+-- ========== ROOM BOOKINGS ==========
+
+-- Availability, conflict counts, weekly and upcoming schedules for a room
+CREATE INDEX IF NOT EXISTS idx_room_bookings_room_start ON room_bookings (room_id, start_time, end_time);
+
+-- Quota usage, history and the QR check-in window for a user
+CREATE INDEX IF NOT EXISTS idx_room_bookings_user_start ON room_bookings (user_id, start_time);
+
+-- Period listings and the analytics queries
+CREATE INDEX IF NOT EXISTS idx_room_bookings_start_time ON room_bookings (start_time);
+
+-- Check-in, overdue and no-show sweeps
+CREATE INDEX IF NOT EXISTS idx_room_bookings_awaiting_check_in
+    ON room_bookings (start_time)
+    WHERE status = 'CONFIRMED' AND checked_in_at IS NULL;
+
+-- Reminder sweep
+CREATE INDEX IF NOT EXISTS idx_room_bookings_reminder_due
+    ON room_bookings (start_time)
+    WHERE status = 'CONFIRMED' AND reminder_sent_at IS NULL AND reminder_enabled = true;
+
+-- Approval queue, oldest first
+CREATE INDEX IF NOT EXISTS idx_room_bookings_pending_approval
+    ON room_bookings (created_at)
+    WHERE status = 'PENDING' AND requires_approval = true;
+
+-- Approval history
+CREATE INDEX IF NOT EXISTS idx_room_bookings_approved_at
+    ON room_bookings (approved_at)
+    WHERE approved_by IS NOT NULL;
+
+-- Occurrences of a recurring series
+CREATE INDEX IF NOT EXISTS idx_room_bookings_series_start ON room_bookings (recurring_series_id, start_time);
+
+-- Participant counts for joinable bookings and participant check-in
+CREATE INDEX IF NOT EXISTS idx_booking_participants_booking_status ON booking_participants (booking_id, status);
+CREATE INDEX IF NOT EXISTS idx_booking_participants_user_status ON booking_participants (user_id, status);
+
+-- ========== NOTIFICATIONS ==========
+
+-- A user's notifications, newest first
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at DESC);
+
+-- Unread badge and unread list
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+    ON notifications (user_id, created_at DESC)
+    WHERE read = false;
+
+-- Cleanup of old notifications
+CREATE INDEX IF NOT EXISTS idx_notifications_created_at ON notifications (created_at);
+
+-- ========== SEAT WAITLIST ==========
+
+-- Waiting queue of a seat in join order
+CREATE INDEX IF NOT EXISTS idx_wait_lists_seat_waiting
+    ON wait_lists (seat_id, created_at, id)
+    WHERE status = 'WAITING';
+
+-- Queue by explicit position for any status
+CREATE INDEX IF NOT EXISTS idx_wait_lists_seat_status_position ON wait_lists (seat_id, status, queue_position);
+
+-- A user's waitlist entries
+CREATE INDEX IF NOT EXISTS idx_wait_lists_user_status ON wait_lists (user_id, status, created_at DESC);
@@ -0,0 +1,74 @@
+package com.auca.library.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.auca.library.support.EmbeddedPostgresTest;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Bulk seat creation hands back the id and status link of the background job
+ * generating the new seats' QR codes, and that job only starts once the seats
+ * are committed.
+ */
+class AdminSeatControllerTest extends EmbeddedPostgresTest {
+
+    @Test
+    void bulkCreateReturnsTheQrJobAndItsStatusLink() throws Exception {
+        String admin = createUser("Seat Admin");
+        grantRole(admin, "ROLE_ADMIN");
+        String token = bearerToken(admin);
+
+        MvcResult created = mockMvc.perform(post("/api/admin/seats/bulk-create")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"seatNumberPrefix": "BULKQR", "startNumber": 1, "endNumber": 5,
+                                 "zoneType": "SILENT", "hasDesktop": false, "description": "Bulk created",
+                                 "location": "GISHUSHU", "floar": 1}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andReturn();
+
+        String jobId = created.getResponse().getHeader(AdminSeatController.QR_JOB_HEADER);
+        assertNotNull(jobId, "No QR job id in the response");
+        String statusUrl = "/api/admin/qr/generate/jobs/" + jobId;
+        assertEquals("<" + statusUrl + ">; rel=\"qr-job\"", created.getResponse().getHeader(HttpHeaders.LINK));
+
+        String jobStatus = awaitFinished(statusUrl, token);
+        assertEquals("COMPLETED", JsonPath.read(jobStatus, "$.status"));
+        assertEquals(Integer.valueOf(5), JsonPath.read(jobStatus, "$.successCount"));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM seats WHERE seat_number LIKE 'BULKQR%' AND qr_image_path IS NOT NULL",
+                Integer.class));
+    }
+
+    private String awaitFinished(String statusUrl, String token) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (true) {
+            String body = mockMvc.perform(get(statusUrl).header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            String jobStatus = JsonPath.read(body, "$.status");
+            if (!"QUEUED".equals(jobStatus) && !"RUNNING".equals(jobStatus)) {
+                return body;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("QR job still " + jobStatus + " after 30 seconds");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
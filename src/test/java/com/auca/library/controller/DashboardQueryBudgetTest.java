@@ -0,0 +1,48 @@
+package com.auca.library.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+
+import com.auca.library.support.EmbeddedPostgresTest;
+import com.auca.library.support.QueryBudget;
+
+/**
+ * The equipment admin dashboard is built from counts and aggregates, so the
+ * statements it issues must stay within budget and not grow with the number
+ * of equipment rows.
+ */
+class DashboardQueryBudgetTest extends EmbeddedPostgresTest {
+
+    private static final int STATEMENT_BUDGET = 15;
+
+    @Test
+    void equipmentAdminDashboardStaysWithinQueryBudget() throws Exception {
+        String admin = createUser("Dashboard Admin");
+        grantRole(admin, "ROLE_EQUIPMENT_ADMIN");
+        String token = bearerToken(admin);
+
+        // Loads the request counters, which later requests reuse
+        dashboard(token);
+        QueryBudget.Counts before = dashboard(token);
+
+        jdbcTemplate.update("""
+                INSERT INTO equipment (name, description, location, available, allowed_to_students,
+                                       quantity, available_quantity)
+                SELECT 'Budget equipment ' || i, 'Seeded', 'GISHUSHU', true, true, 3, i % 3
+                FROM generate_series(1, 50) i
+                """);
+        QueryBudget.Counts after = dashboard(token);
+
+        assertEquals(before.statements(), after.statements(), "Statements grew with the equipment table");
+    }
+
+    private QueryBudget.Counts dashboard(String token) throws Exception {
+        return QueryBudget.of(mockMvc.perform(get("/api/dashboard/equipment-admin").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.statementsAtMost(STATEMENT_BUDGET))
+                .andReturn());
+    }
+}
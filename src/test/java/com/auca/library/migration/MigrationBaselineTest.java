@@ -0,0 +1,118 @@
+package com.auca.library.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.auca.library.LibraryBookingApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * A database that ddl-auto built before migrations existed has exactly the V1
+ * schema and no Flyway history. Baselining it at version 1 and running the
+ * later scripts must leave a schema Hibernate validates, with ids continuing
+ * after the rows already there.
+ */
+class MigrationBaselineTest {
+
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+
+        // Stand-in for the pre-migration database: the V1 schema, some rows, no history table
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).target("1").load().migrate();
+        jdbcTemplate.execute("DROP TABLE flyway_schema_history");
+        jdbcTemplate.update("INSERT INTO roles (name) VALUES ('ROLE_USER')");
+        jdbcTemplate.update("""
+                INSERT INTO users (created_at, full_name, email, password, location, email_verified,
+                                   must_change_password, active_this_week, active_today,
+                                   is_default_librarian, professor_approved)
+                VALUES (now(), 'Existing User', 'existing@auca.test', 'not-a-hash', 'GISHUSHU',
+                        true, false, false, false, false, false)
+                """);
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO notifications (user_id, title, type, created_at, expires_at, read)
+                    VALUES (?, 'Existing', 'INFO', now(), now() + interval '7 days', false)
+                    """, userId);
+        }
+    }
+
+    @AfterEach
+    void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void preMigrationDatabaseIsBaselinedAndUpgraded() {
+        baselineAndMigrate();
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM notifications", Long.class);
+        Long nextId = jdbcTemplate.queryForObject("SELECT nextval('notifications_seq')", Long.class);
+        assertTrue(nextId > maxId, "notifications_seq must continue after the existing ids");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns "
+                        + "WHERE table_name = 'notifications' AND column_name = 'id' AND is_identity = 'YES'",
+                Integer.class));
+
+        // Startup runs ddl-auto=validate against the upgraded schema; arguments override application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryBookingApplication.class)
+                .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--server.port=0",
+                        "--mail.dispatch.enabled=false",
+                        "--logging.level.root=WARN")) {
+            assertEquals(3, context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM notifications", Integer.class));
+        }
+    }
+
+    @Test
+    void overlappingBookingsFailTheMigration() {
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO seats (seat_number, location, zone_type, has_desktop, is_disabled, qr_version)
+                VALUES ('OLD-1', 'GISHUSHU', 'SILENT', false, false, 1)
+                """);
+        Long seatId = jdbcTemplate.queryForObject("SELECT id FROM seats", Long.class);
+        for (String start : new String[] { "2026-03-02 10:00", "2026-03-02 10:30" }) {
+            jdbcTemplate.update("""
+                    INSERT INTO bookings (user_id, seat_id, start_time, end_time, created_at, status,
+                                          checked_in, extension_requested, extended)
+                    VALUES (?, ?, ?::timestamp, ?::timestamp + interval '1 hour', now(), 'RESERVED', false, false, false)
+                    """, userId, seatId, start, start);
+        }
+
+        FlywayException failure = assertThrows(FlywayException.class, this::baselineAndMigrate);
+        assertTrue(failure.getMessage().contains("Active seat bookings overlap"), failure::getMessage);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'bookings_seat_no_overlap'", Integer.class));
+    }
+
+    private void baselineAndMigrate() {
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,228 @@
+package com.auca.library.migration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Plans of the repository queries V7__booking_query_indexes was written for.
+ * Each statement is the SQL Hibernate generates for the named repository
+ * method, with literals for the parameters. Tables are filled with a history
+ * where the rows those queries look for are rare, then analyzed, so the
+ * planner picks an index on its own merits; a query that stops matching its
+ * index (a changed predicate, a dropped index) shows up as a different plan.
+ */
+class QueryPlanTest {
+
+    private static EmbeddedPostgres postgres;
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndFill() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Flyway.configure().dataSource(postgres.getPostgresDatabase()).load().migrate();
+
+        dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl("postgres", "postgres"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Rows only; referenced users, seats and rooms don't need to exist for a plan
+        jdbcTemplate.execute("SET session_replication_role = replica");
+        jdbcTemplate.update("""
+                INSERT INTO bookings (id, user_id, seat_id, start_time, end_time, created_at, status,
+                                      checked_in, extension_requested, extended)
+                SELECT g, g % 2000 + 1, g % 500 + 1,
+                       timestamp '2025-01-01 08:00' + (g / 500) * interval '1 hour',
+                       timestamp '2025-01-01 09:00' + (g / 500) * interval '1 hour',
+                       timestamp '2025-01-01 00:00',
+                       CASE g % 100 WHEN 0 THEN 'RESERVED' WHEN 1 THEN 'CHECKED_IN' ELSE 'COMPLETED' END,
+                       g % 100 <> 0, false, g % 100 <> 1
+                FROM generate_series(1, 100000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO room_bookings (id, room_id, user_id, start_time, end_time, status, title,
+                                           max_participants, is_public, allow_joining, recurring_series_id,
+                                           requires_check_in, checked_in_at, auto_check_in_enabled,
+                                           requires_approval, approved_by, approved_at, created_at, updated_at,
+                                           reminder_sent_at, reminder_enabled)
+                SELECT g, g % 50 + 1, g % 2000 + 1,
+                       timestamp '2025-01-01 08:00' + (g / 50) * interval '1 hour',
+                       timestamp '2025-01-01 09:00' + (g / 50) * interval '1 hour',
+                       CASE g % 100 WHEN 0 THEN 'CONFIRMED' WHEN 1 THEN 'PENDING' ELSE 'COMPLETED' END,
+                       'Booking', 4, false, false,
+                       CASE WHEN g % 10 = 0 THEN g % 300 + 1 END,
+                       true,
+                       CASE WHEN g % 100 <> 0 THEN timestamp '2025-01-01 08:00' END,
+                       false,
+                       g % 100 = 1,
+                       CASE WHEN g % 100 = 2 THEN 1 END,
+                       CASE WHEN g % 100 = 2 THEN timestamp '2025-01-01 00:00' END,
+                       timestamp '2025-01-01 00:00' + g * interval '1 minute',
+                       timestamp '2025-01-01 00:00',
+                       CASE WHEN g % 100 <> 0 THEN timestamp '2025-01-01 00:00' END,
+                       true
+                FROM generate_series(1, 50000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO booking_participants (id, booking_id, user_id, status, notification_sent)
+                SELECT g, g % 50000 + 1, g % 2000 + 1,
+                       CASE WHEN g % 3 = 0 THEN 'INVITED' ELSE 'ACCEPTED' END, true
+                FROM generate_series(1, 100000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO notifications (id, user_id, title, type, created_at, expires_at, read)
+                SELECT g, g % 2000 + 1, 'Notice', 'INFO',
+                       timestamp '2025-01-01 00:00' + g * interval '1 minute',
+                       timestamp '2026-01-01 00:00', g % 20 <> 0
+                FROM generate_series(1, 100000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO wait_lists (id, user_id, seat_id, requested_start_time, requested_end_time,
+                                        created_at, queue_position, notified, status)
+                SELECT g, g % 2000 + 1, g % 500 + 1,
+                       timestamp '2025-01-01 08:00', timestamp '2025-01-01 09:00',
+                       timestamp '2025-01-01 00:00' + g * interval '1 minute', 0, false,
+                       CASE WHEN g % 50 = 0 THEN 'WAITING' ELSE 'EXPIRED' END
+                FROM generate_series(1, 50000) g
+                """);
+        jdbcTemplate.execute("SET session_replication_role = DEFAULT");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void seatOverlapCheckUsesActiveSeatIndex() {
+        // BookingRepository.findOverlappingBookings
+        assertUsesIndex("idx_bookings_seat_active", """
+                SELECT b.id FROM bookings b WHERE b.seat_id = 42
+                AND ((b.start_time <= timestamp '2025-01-05 10:00' AND b.end_time >= timestamp '2025-01-05 09:00')
+                  OR (b.start_time >= timestamp '2025-01-05 09:00' AND b.start_time <= timestamp '2025-01-05 10:00'))
+                AND b.status IN ('RESERVED', 'CHECKED_IN')
+                """);
+    }
+
+    @Test
+    void userFutureBookingsUseUserStartIndex() {
+        // BookingRepository.findFutureBookingsByUser
+        assertUsesIndex("idx_bookings_user_start", """
+                SELECT b.id FROM bookings b WHERE b.user_id = 42 AND b.start_time > timestamp '2025-01-05 00:00'
+                ORDER BY b.start_time
+                """);
+    }
+
+    @Test
+    void seatNoShowSweepUsesNotCheckedInIndex() {
+        // BookingRepository.findNoShowBookings
+        assertUsesIndex("idx_bookings_not_checked_in", """
+                SELECT b.id FROM bookings b WHERE b.start_time < timestamp '2025-01-05 00:00'
+                AND b.status = 'RESERVED' AND b.checked_in = false
+                """);
+    }
+
+    @Test
+    void extensionSweepUsesCheckedInEndIndex() {
+        // BookingRepository.findBookingsNearingCompletion
+        assertUsesIndex("idx_bookings_checked_in_end", """
+                SELECT b.id FROM bookings b WHERE b.end_time > timestamp '2025-01-05 09:00'
+                AND b.end_time < timestamp '2025-01-05 09:15' AND b.extended = false AND b.status = 'CHECKED_IN'
+                """);
+    }
+
+    @Test
+    void roomBookedIntervalsUseRoomStartIndex() {
+        // RoomBookingRepository.findBookedIntervals; the window is the last week, as for new bookings
+        assertUsesIndex("idx_room_bookings_room_start", """
+                SELECT rb.room_id, rb.start_time, rb.end_time FROM room_bookings rb WHERE rb.room_id IN (3, 7)
+                AND rb.status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+                AND rb.start_time < timestamp '2025-02-12 00:00' AND rb.end_time > timestamp '2025-02-05 00:00'
+                """);
+    }
+
+    @Test
+    void roomReminderSweepUsesReminderDueIndex() {
+        // RoomBookingRepository.findBookingsNeedingReminders
+        assertUsesIndex("idx_room_bookings_reminder_due", """
+                SELECT rb.id FROM room_bookings rb WHERE rb.status = 'CONFIRMED'
+                AND rb.reminder_sent_at IS NULL AND rb.reminder_enabled = true
+                AND rb.start_time BETWEEN timestamp '2025-01-05 09:00' AND timestamp '2025-01-05 10:00'
+                """);
+    }
+
+    @Test
+    void roomCheckInSweepUsesAwaitingCheckInIndex() {
+        // RoomBookingRepository.findOverdueBookings
+        assertUsesIndex("idx_room_bookings_awaiting_check_in", """
+                SELECT rb.id FROM room_bookings rb WHERE rb.status = 'CONFIRMED'
+                AND rb.checked_in_at IS NULL AND rb.start_time <= timestamp '2025-01-05 00:00'
+                """);
+    }
+
+    @Test
+    void approvalQueueUsesPendingApprovalIndex() {
+        // RoomBookingRepository.findPendingApprovals
+        assertUsesIndex("idx_room_bookings_pending_approval", """
+                SELECT rb.id FROM room_bookings rb WHERE rb.status = 'PENDING' AND rb.requires_approval = true
+                ORDER BY rb.created_at
+                """);
+    }
+
+    @Test
+    void seriesOccurrencesUseSeriesStartIndex() {
+        // RoomBookingRepository.findOpenSeriesOccurrences
+        assertUsesIndex("idx_room_bookings_series_start", """
+                SELECT rb.id, rb.room_id, rb.start_time, rb.end_time FROM room_bookings rb
+                WHERE rb.recurring_series_id = 17 AND rb.start_time > timestamp '2025-01-05 00:00'
+                AND rb.status IN ('PENDING', 'CONFIRMED') ORDER BY rb.start_time
+                """);
+    }
+
+    @Test
+    void acceptedParticipantCountUsesBookingStatusIndex() {
+        // BookingParticipantRepository.countAcceptedParticipants
+        assertUsesIndex("idx_booking_participants_booking_status", """
+                SELECT COUNT(bp.id) FROM booking_participants bp WHERE bp.booking_id = 42 AND bp.status = 'ACCEPTED'
+                """);
+    }
+
+    @Test
+    void unreadNotificationsUseUnreadIndex() {
+        // NotificationRepository.findUnreadByUserId
+        assertUsesIndex("idx_notifications_user_unread", """
+                SELECT n.id FROM notifications n WHERE n.user_id = 42 AND n.read = false ORDER BY n.created_at DESC
+                """);
+    }
+
+    @Test
+    void seatQueueUsesWaitingIndex() {
+        // WaitListRepository.findWaitingListForSeat
+        assertUsesIndex("idx_wait_lists_seat_waiting", """
+                SELECT w.id FROM wait_lists w WHERE w.seat_id = 42 AND w.status = 'WAITING'
+                ORDER BY w.created_at, w.id
+                """);
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        String text = String.join("\n", plan);
+        assertTrue(text.contains(index), () -> "Expected a scan of " + index + ", got:\n" + text);
+    }
+}
@@ -0,0 +1,71 @@
+package com.auca.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.auca.library.model.Equipment;
+import com.auca.library.model.Location;
+import com.auca.library.repository.EquipmentRepository;
+import com.auca.library.support.EmbeddedPostgresTest;
+
+/**
+ * Many requests for the last units of one piece of equipment at once. The
+ * conditional decrement must never hand out more than is in stock, and the
+ * availability counters must agree with the table afterwards.
+ */
+class EquipmentReservationConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int STOCK = 5;
+    private static final int THREADS = 20;
+
+    @Autowired
+    private EquipmentService equipmentService;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Test
+    void reservationsNeverExceedStock() throws Exception {
+        Equipment equipment = new Equipment("Contended projector", "Last units", Location.GISHUSHU);
+        equipment.setAvailable(true);
+        equipment.setQuantity(STOCK);
+        equipment.setAvailableQuantity(STOCK);
+        Long equipmentId = equipmentRepository.save(equipment).getId();
+        // Warm the counters so the test also covers their after-commit updates
+        assertEquals(STOCK, equipmentService.getReservableQuantity(equipmentId));
+
+        List<String> logins = new ArrayList<>();
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int quantity = i % 4 == 0 ? 2 : 1;
+            logins.add("equipment.contender." + i + "@auca.test");
+            quantities.add(quantity);
+            calls.add(() -> equipmentService.reserveEquipment(equipmentId, quantity));
+        }
+
+        List<Outcome<Boolean>> outcomes = runConcurrently(logins, calls);
+
+        int reserved = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome<Boolean> outcome = outcomes.get(i);
+            assertTrue(outcome.succeeded(), () -> "Unexpected failure: " + outcome.error());
+            if (outcome.value()) {
+                reserved += quantities.get(i);
+            }
+        }
+        int available = jdbcTemplate.queryForObject(
+                "SELECT available_quantity FROM equipment WHERE id = ?", Integer.class, equipmentId);
+        assertTrue(available >= 0, "available_quantity went negative: " + available);
+        assertTrue(reserved <= STOCK, "Reserved " + reserved + " of " + STOCK);
+        assertEquals(STOCK - reserved, available);
+        assertEquals(available, equipmentService.getReservableQuantity(equipmentId));
+    }
+}
@@ -0,0 +1,149 @@
+package com.auca.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.auca.library.support.EmbeddedPostgresTest;
+import com.auca.library.support.FakeSmtpServer;
+
+/**
+ * Mail sent through the outbox to a local fake SMTP server, with the
+ * dispatcher running and its timings shortened: rejected mail is retried
+ * with backoff until it is delivered or runs out of attempts, and digestible
+ * mail for one recipient goes out as a single digest.
+ */
+@DirtiesContext
+class MailDispatchServiceTest extends EmbeddedPostgresTest {
+
+    private static final FakeSmtpServer SMTP = new FakeSmtpServer();
+
+    private static final long INITIAL_BACKOFF_SECONDS = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private MailDispatchService mailDispatchService;
+
+    @Autowired
+    private EmailTemplateRegistry templates;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void mail(DynamicPropertyRegistry registry) {
+        registry.add("mail.dispatch.enabled", () -> "true");
+        registry.add("mail.dispatch.poll-interval-ms", () -> "200");
+        registry.add("mail.dispatch.digest-window-seconds", () -> "1");
+        registry.add("mail.dispatch.initial-backoff-seconds", () -> String.valueOf(INITIAL_BACKOFF_SECONDS));
+        registry.add("mail.dispatch.max-backoff-seconds", () -> String.valueOf(INITIAL_BACKOFF_SECONDS));
+        registry.add("mail.dispatch.max-attempts", () -> String.valueOf(MAX_ATTEMPTS));
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::getPort);
+        registry.add("spring.mail.username", () -> "library@localhost");
+        registry.add("spring.mail.password", () -> "");
+        registry.add("spring.mail.properties.mail.smtp.auth", () -> "false");
+        registry.add("spring.mail.properties.mail.smtp.starttls.enable", () -> "false");
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void rejectedMailIsRetriedWithBackoffUntilDelivered() throws Exception {
+        String recipient = "retry.recipient@auca.test";
+        SMTP.reject(recipient);
+        LocalDateTime enqueuedAt = LocalDateTime.now();
+        enqueue(recipient, "Retried mail", false);
+
+        awaitTrue(() -> intValue(outboxRow(recipient).get("attempts")) >= 1, "first failed attempt");
+        LocalDateTime failedBy = LocalDateTime.now();
+        Map<String, Object> failed = outboxRow(recipient);
+        assertEquals("PENDING", failed.get("status"));
+        assertNotNull(failed.get("last_error"));
+        // Backoff is the initial delay with +/-50% jitter, counted from the failed attempt
+        LocalDateTime nextAttempt = ((Timestamp) failed.get("next_attempt_at")).toLocalDateTime();
+        assertFalse(nextAttempt.isBefore(enqueuedAt.plusSeconds(INITIAL_BACKOFF_SECONDS / 2)),
+                "Retry at " + nextAttempt + " is earlier than the backoff allows");
+        assertFalse(nextAttempt.isAfter(failedBy.plusNanos(Duration.ofSeconds(INITIAL_BACKOFF_SECONDS).toNanos() * 3 / 2)),
+                "Retry at " + nextAttempt + " is later than the backoff allows");
+        assertTrue(SMTP.receivedFor(recipient).isEmpty());
+
+        SMTP.accept(recipient);
+        awaitTrue(() -> "SENT".equals(outboxRow(recipient).get("status")), "delivery after the retry");
+        assertEquals(1, SMTP.receivedFor(recipient).size());
+        assertEquals("Retried mail", SMTP.receivedFor(recipient).get(0).subject());
+        assertTrue(intValue(outboxRow(recipient).get("attempts")) >= 1);
+    }
+
+    @Test
+    void mailThatKeepsFailingIsGivenUpAfterMaxAttempts() throws Exception {
+        String recipient = "bouncing.recipient@auca.test";
+        SMTP.reject(recipient);
+        enqueue(recipient, "Bouncing mail", false);
+
+        awaitTrue(() -> "FAILED".equals(outboxRow(recipient).get("status")), "giving up");
+        assertEquals(MAX_ATTEMPTS, intValue(outboxRow(recipient).get("attempts")));
+        assertTrue(SMTP.receivedFor(recipient).isEmpty());
+    }
+
+    @Test
+    void digestibleMailForOneRecipientIsSentAsOneDigest() throws Exception {
+        String recipient = "digest.recipient@auca.test";
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 1; i <= 3; i++) {
+                mailDispatchService.enqueue(recipient, "Update " + i, "<p>Update " + i + "</p>", true);
+            }
+        });
+
+        awaitTrue(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM email_outbox WHERE recipient = ? AND status = 'SENT'", Integer.class,
+                recipient) == 3, "the digest");
+        List<FakeSmtpServer.Received> received = SMTP.receivedFor(recipient);
+        assertEquals(1, received.size());
+        assertEquals(templates.digestSubject(3), received.get(0).subject());
+    }
+
+    private void enqueue(String recipient, String subject, boolean digestible) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> mailDispatchService.enqueue(recipient, subject, "<p>" + subject + "</p>", digestible));
+    }
+
+    private Map<String, Object> outboxRow(String recipient) {
+        return jdbcTemplate.queryForMap("SELECT * FROM email_outbox WHERE recipient = ?", recipient);
+    }
+
+    private static int intValue(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for " + what);
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.auca.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.auca.library.dto.request.BookingUpdateRequest;
+import com.auca.library.dto.request.ExtendBookingRequest;
+import com.auca.library.dto.request.RoomBookingRequest;
+import com.auca.library.dto.response.RoomBookingResponse;
+import com.auca.library.exception.BookingConflictException;
+import com.auca.library.model.Room;
+import com.auca.library.model.RoomCategory;
+import com.auca.library.repository.RoomRepository;
+import com.auca.library.support.EmbeddedPostgresTest;
+
+/**
+ * Creates, moves and extensions of room bookings racing for the same hours.
+ * Whatever order they commit in, a room must never end up with two confirmed
+ * bookings overlapping, and every loser must get a booking conflict rather
+ * than a raw database error.
+ */
+class RoomBookingConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private RoomBookingService roomBookingService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Test
+    void contendedCreatesUpdatesAndExtensionsNeverOverlap() throws Exception {
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        for (int round = 0; round < ROUNDS; round++) {
+            Room room = roomRepository.save(new Room("CONC-ROOM-" + round, "Contended room " + round,
+                    RoomCategory.STUDY_ROOM, 10, 4));
+
+            String ownerA = createUser("Room Owner A");
+            String ownerB = createUser("Room Owner B");
+            String ownerC = createUser("Room Owner C");
+            Long bookingA = create(room, ownerA, day.plusHours(8), day.plusHours(9)).getId();
+            Long bookingB = create(room, ownerB, day.plusHours(10), day.plusHours(11)).getId();
+            Long bookingC = create(room, ownerC, day.plusHours(13), day.plusHours(14)).getId();
+
+            List<String> logins = new ArrayList<>();
+            List<Callable<RoomBookingResponse>> calls = new ArrayList<>();
+            // New bookings for the gaps, two of them for the same hour
+            for (int hour : new int[] { 9, 11, 11, 12 }) {
+                String login = createUser("Room Contender");
+                logins.add(login);
+                calls.add(() -> create(room, login, day.plusHours(hour), day.plusHours(hour + 1)));
+            }
+            // A moves into the 09:00 and 11:00 gaps, B and C grow into the gaps after them
+            logins.add(ownerA);
+            calls.add(() -> update(bookingA, ownerA, day.plusHours(9), day.plusHours(10)));
+            logins.add(ownerA);
+            calls.add(() -> update(bookingA, ownerA, day.plusHours(11), day.plusHours(12)));
+            logins.add(ownerB);
+            calls.add(() -> extend(bookingB, ownerB, 1));
+            logins.add(ownerC);
+            calls.add(() -> update(bookingC, ownerC, day.plusHours(12), day.plusHours(14)));
+            logins.add(ownerC);
+            calls.add(() -> extend(bookingC, ownerC, 1));
+
+            List<Outcome<RoomBookingResponse>> outcomes = runConcurrently(logins, calls);
+
+            assertTrue(outcomes.stream().anyMatch(Outcome::succeeded), "Some operation must win each round");
+            for (Outcome<RoomBookingResponse> outcome : outcomes) {
+                if (!outcome.succeeded()) {
+                    assertTrue(outcome.error() instanceof BookingConflictException,
+                            () -> "Unexpected failure: " + outcome.error());
+                }
+            }
+            assertEquals(0, jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM room_bookings a
+                    JOIN room_bookings b ON b.room_id = a.room_id AND b.id > a.id
+                        AND b.start_time < a.end_time AND a.start_time < b.end_time
+                    WHERE a.room_id = ?
+                    AND a.status IN ('CONFIRMED', 'CHECKED_IN') AND b.status IN ('CONFIRMED', 'CHECKED_IN')
+                    """, Integer.class, room.getId()));
+        }
+    }
+
+    private RoomBookingResponse create(Room room, String login, LocalDateTime start, LocalDateTime end) {
+        RoomBookingRequest request = new RoomBookingRequest();
+        request.setRoomId(room.getId());
+        request.setTitle("Contended booking");
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setMaxParticipants(2);
+        return roomBookingService.createBooking(request, login);
+    }
+
+    private RoomBookingResponse update(Long bookingId, String login, LocalDateTime start, LocalDateTime end) {
+        BookingUpdateRequest request = new BookingUpdateRequest();
+        request.setStartTime(start);
+        request.setEndTime(end);
+        return roomBookingService.updateBooking(bookingId, request, login);
+    }
+
+    private RoomBookingResponse extend(Long bookingId, String login, int hours) {
+        ExtendBookingRequest request = new ExtendBookingRequest();
+        request.setAdditionalHours(hours);
+        return roomBookingService.extendBooking(bookingId, request, login);
+    }
+}
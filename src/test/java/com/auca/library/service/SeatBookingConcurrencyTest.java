@@ -0,0 +1,73 @@
+package com.auca.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.auca.library.dto.request.CreateBookingRequest;
+import com.auca.library.dto.response.BookingDTO;
+import com.auca.library.exception.BadRequestException;
+import com.auca.library.exception.BookingConflictException;
+import com.auca.library.model.Location;
+import com.auca.library.model.Seat;
+import com.auca.library.repository.SeatRepository;
+import com.auca.library.support.EmbeddedPostgresTest;
+
+/**
+ * Many users booking the same seat slot at once: the availability check can
+ * pass for all of them, so the exclusion constraint has to leave exactly one
+ * booking and turn the rest into conflicts.
+ */
+class SeatBookingConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int THREADS = 12;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Test
+    void onlyOneConcurrentBookingOfASeatSucceeds() throws Exception {
+        openLibrariesEveryDay();
+        Seat seat = seatRepository.save(new Seat("CONC-SEAT-1", "SILENT", false, "Contended seat", Location.GISHUSHU, 1));
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(10, 0);
+
+        List<String> logins = new ArrayList<>();
+        List<Callable<BookingDTO>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            logins.add(createUser("Seat Contender"));
+            // Each user asks for a slightly different window, all overlapping 10:30-11:00
+            LocalDateTime from = start.plusMinutes(i % 3 * 15);
+            calls.add(() -> {
+                CreateBookingRequest request = new CreateBookingRequest();
+                request.setSeatId(seat.getId());
+                request.setStartTime(from);
+                request.setEndTime(from.plusHours(1));
+                return bookingService.createBooking(request);
+            });
+        }
+
+        List<Outcome<BookingDTO>> outcomes = runConcurrently(logins, calls);
+
+        assertEquals(1, outcomes.stream().filter(Outcome::succeeded).count());
+        for (Outcome<BookingDTO> outcome : outcomes) {
+            if (!outcome.succeeded()) {
+                assertTrue(outcome.error() instanceof BookingConflictException
+                                || outcome.error() instanceof BadRequestException,
+                        () -> "Unexpected failure: " + outcome.error());
+            }
+        }
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE seat_id = ? AND status = 'RESERVED'", Integer.class, seat.getId()));
+    }
+}
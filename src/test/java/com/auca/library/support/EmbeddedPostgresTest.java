@@ -0,0 +1,183 @@
+package com.auca.library.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auca.library.security.jwt.JwtUtils;
+import com.auca.library.security.services.UserDetailsServiceImpl;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Application context on an embedded Postgres migrated by Flyway, for tests
+ * that need the real constraints, locks and plans. One database serves every
+ * test class in the run, so fixtures use names unique to their test.
+ * Requests through the MockMvc carry the X-Query-Stats header for
+ * {@link QueryBudget}.
+ */
+@SpringBootTest(properties = {
+        "mail.dispatch.enabled=false",
+        "query-stats.header-enabled=true",
+        "qr.storage.local.path=${java.io.tmpdir}/library-test-qr-codes",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureMockMvc
+public abstract class EmbeddedPostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    private static final AtomicInteger NEXT_USER = new AtomicInteger();
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // The JVM is exiting anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+    }
+
+    /**
+     * Insert a verified user and return its email, which is also its login
+     */
+    protected String createUser(String name) {
+        String email = name.toLowerCase().replace(' ', '.') + "." + NEXT_USER.incrementAndGet() + "@auca.test";
+        jdbcTemplate.update("""
+                INSERT INTO users (created_at, full_name, email, password, location, email_verified,
+                                   must_change_password, active_this_week, active_today,
+                                   is_default_librarian, professor_approved)
+                VALUES (now(), ?, ?, 'not-a-hash', 'GISHUSHU', true, false, false, false, false, false)
+                """, name, email);
+        return email;
+    }
+
+    protected Long userId(String email) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    protected void grantRole(String email, String role) {
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u, roles r WHERE u.email = ? AND r.name = ?
+                """, email, role);
+    }
+
+    /**
+     * Authorization header value for requests made as the given user
+     */
+    protected String bearerToken(String email) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        return "Bearer " + jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    /**
+     * Open both libraries 06:00-23:00 every day, unless a test already did
+     */
+    protected void openLibrariesEveryDay() {
+        jdbcTemplate.update("""
+                INSERT INTO library_schedules (day_of_week, open_time, close_time, location, open)
+                SELECT d, time '06:00', time '23:00', l, true
+                FROM unnest(ARRAY['MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY']) d
+                CROSS JOIN unnest(ARRAY['GISHUSHU', 'MASORO']) l
+                WHERE NOT EXISTS (SELECT 1 FROM library_schedules)
+                """);
+    }
+
+    /**
+     * Run each call on its own thread, released together, signed in as the
+     * given user, and return what each returned or threw
+     */
+    protected <T> List<Outcome<T>> runConcurrently(List<String> logins, List<Callable<T>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome<T>>> futures = new ArrayList<>();
+            for (int i = 0; i < calls.size(); i++) {
+                String login = logins.get(i);
+                Callable<T> call = calls.get(i);
+                futures.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(login, null, List.of()));
+                    start.await();
+                    try {
+                        return Outcome.of(call.call());
+                    } catch (Exception e) {
+                        return Outcome.<T>failed(e);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Outcome<T>> outcomes = new ArrayList<>();
+            for (Future<Outcome<T>> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public record Outcome<T>(T value, Exception error) {
+
+        static <T> Outcome<T> of(T value) {
+            return new Outcome<>(value, null);
+        }
+
+        static <T> Outcome<T> failed(Exception error) {
+            return new Outcome<>(null, error);
+        }
+
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+}
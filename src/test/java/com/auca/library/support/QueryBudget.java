@@ -0,0 +1,69 @@
+package com.auca.library.support;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.auca.library.config.QueryStatsFilter;
+
+/**
+ * Query budgets for MockMvc requests, read from the X-Query-Stats header that
+ * QueryStatsFilter adds when query-stats.header-enabled is set:
+ *
+ * <pre>
+ * mockMvc.perform(get("/api/...")).andExpect(QueryBudget.statementsAtMost(12));
+ * </pre>
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public record Counts(int statements, int entityLoads, int collectionFetches) {
+    }
+
+    /**
+     * Fail when the request prepared more SQL statements than the budget
+     */
+    public static ResultMatcher statementsAtMost(int budget) {
+        return result -> {
+            Counts counts = of(result);
+            assertTrue(counts.statements() <= budget, () -> describe(result, counts)
+                    + " prepared " + counts.statements() + " statements, budget is " + budget);
+        };
+    }
+
+    /**
+     * Fail when the request loaded more entities or fetched more lazy collections than allowed
+     */
+    public static ResultMatcher loadsAtMost(int entityLoads, int collectionFetches) {
+        return result -> {
+            Counts counts = of(result);
+            assertTrue(counts.entityLoads() <= entityLoads, () -> describe(result, counts)
+                    + " loaded " + counts.entityLoads() + " entities, budget is " + entityLoads);
+            assertTrue(counts.collectionFetches() <= collectionFetches, () -> describe(result, counts)
+                    + " fetched " + counts.collectionFetches() + " collections, budget is " + collectionFetches);
+        };
+    }
+
+    public static Counts of(MvcResult result) {
+        String header = result.getResponse().getHeader(QueryStatsFilter.HEADER);
+        assertNotNull(header, "No " + QueryStatsFilter.HEADER + " header; is query-stats.header-enabled set?");
+        Map<String, String> values = new HashMap<>();
+        for (String pair : header.split(";")) {
+            String[] keyValue = pair.split("=", 2);
+            values.put(keyValue[0], keyValue[1]);
+        }
+        return new Counts(Integer.parseInt(values.get("statements")), Integer.parseInt(values.get("entities")),
+                Integer.parseInt(values.get("collections")));
+    }
+
+    private static String describe(MvcResult result, Counts counts) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " " + counts;
+    }
+}